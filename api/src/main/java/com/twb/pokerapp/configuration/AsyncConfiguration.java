@@ -1,16 +1,62 @@
 package com.twb.pokerapp.configuration;
 
 import com.antkorwin.xsync.XSync;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 
 @Configuration
 public class AsyncConfiguration {
+    public static final String GAME_THREAD_FACTORY = "gameThreadFactory";
+    public static final String TABLE_TASK_EXECUTOR = "tableTaskExecutor";
+    private static final String GAME_THREAD_PREFIX = "game-";
+    private static final String TABLE_TASK_PREFIX = "table-task-";
+
+    @Value("${app.game.virtual-threads:true}")
+    private boolean gameVirtualThreads;
 
     @Bean
     public XSync<UUID> uuidMutex() {
         return new XSync<>();
     }
+
+    /**
+     * Thread factory used to run each table game loop.
+     * <p>
+     * Table loops spend almost all of their time blocked waiting on players or pacing sleeps,
+     * so by default they run on virtual threads which only pin a carrier thread while doing work.
+     * Setting {@code app.game.virtual-threads=false} falls back to a platform thread per table.
+     *
+     * @return the thread factory for game threads
+     */
+    @Bean(GAME_THREAD_FACTORY)
+    public ThreadFactory gameThreadFactory() {
+        if (gameVirtualThreads) {
+            return Thread.ofVirtual()
+                    .name(GAME_THREAD_PREFIX, 0)
+                    .factory();
+        }
+        return Thread.ofPlatform()
+                .name(GAME_THREAD_PREFIX, 0)
+                .priority(Thread.MAX_PRIORITY)
+                .factory();
+    }
+
+    /**
+     * Executor for blocking work a game thread hands off, such as looking up who to send a result to,
+     * so the game loop never waits on the database. Each task runs on a virtual thread of its own.
+     *
+     * @return the executor for table tasks
+     */
+    @Bean(name = TABLE_TASK_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService tableTaskExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+                .name(TABLE_TASK_PREFIX, 0)
+                .factory());
+    }
 }
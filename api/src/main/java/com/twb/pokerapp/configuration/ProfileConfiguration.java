@@ -12,6 +12,8 @@ import java.util.Arrays;
 public class ProfileConfiguration {
     public static final String LOCAL_PROFILE = "local";
     public static final String DIGITALOCEAN_PROFILE = "digitalocean";
+    // several api nodes on one host, relaying table commands and websocket topics over RabbitMQ
+    public static final String CLUSTER_PROFILE = "cluster";
 
     private final Environment environment;
 
@@ -20,6 +22,9 @@ public class ProfileConfiguration {
         if (hasLocalProfile() && hasDigitalOceanProfile()) {
             throw new RuntimeException("Cannot set both local and digitalocean profiles");
         }
+        if (hasClusterProfile() && (hasLocalProfile() || hasDigitalOceanProfile())) {
+            throw new RuntimeException("Cannot set the cluster profile with the local or digitalocean profile");
+        }
     }
 
     public boolean hasLocalProfile() {
@@ -31,4 +36,9 @@ public class ProfileConfiguration {
         String[] activeProfiles = environment.getActiveProfiles();
         return Arrays.asList(activeProfiles).contains(DIGITALOCEAN_PROFILE);
     }
+
+    public boolean hasClusterProfile() {
+        String[] activeProfiles = environment.getActiveProfiles();
+        return Arrays.asList(activeProfiles).contains(CLUSTER_PROFILE);
+    }
 }
@@ -1,11 +1,41 @@
 package com.twb.pokerapp.configuration;
 
+import com.twb.pokerapp.service.game.cluster.TableLeaseService;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.DirectExchange;
+import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.rabbit.annotation.EnableRabbit;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 
 @EnableRabbit
 @Configuration
-@Profile(ProfileConfiguration.DIGITALOCEAN_PROFILE)
+@Profile({ProfileConfiguration.DIGITALOCEAN_PROFILE, ProfileConfiguration.CLUSTER_PROFILE})
 public class RabbitMqConfiguration {
+    public static final String TABLE_COMMAND_EXCHANGE = "app.table.commands";
+    public static final String TABLE_COMMAND_QUEUE = "tableCommandQueue";
+    private static final String TABLE_COMMAND_QUEUE_PREFIX = TABLE_COMMAND_EXCHANGE + ".";
+
+    @Bean
+    public DirectExchange tableCommandExchange() {
+        return new DirectExchange(TABLE_COMMAND_EXCHANGE, false, false);
+    }
+
+    /**
+     * This node's inbox for commands forwarded by other nodes, routed by node ID.
+     * It lives as long as the node's connection so a dead node's commands are not kept.
+     */
+    @Bean(TABLE_COMMAND_QUEUE)
+    public Queue tableCommandQueue(TableLeaseService leaseService) {
+        return new Queue(TABLE_COMMAND_QUEUE_PREFIX + leaseService.getNodeId(), false, true, true);
+    }
+
+    @Bean
+    public Binding tableCommandBinding(TableLeaseService leaseService) {
+        return BindingBuilder.bind(tableCommandQueue(leaseService))
+                .to(tableCommandExchange())
+                .with(leaseService.getNodeId());
+    }
 }
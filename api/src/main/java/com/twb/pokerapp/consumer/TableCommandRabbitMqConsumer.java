@@ -0,0 +1,31 @@
+package com.twb.pokerapp.consumer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.twb.pokerapp.configuration.ProfileConfiguration;
+import com.twb.pokerapp.configuration.RabbitMqConfiguration;
+import com.twb.pokerapp.service.game.PokerTableGameService;
+import com.twb.pokerapp.service.game.cluster.TableCommandDTO;
+import com.twb.pokerapp.service.game.cluster.TableCommandLanes;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Profile({ProfileConfiguration.DIGITALOCEAN_PROFILE, ProfileConfiguration.CLUSTER_PROFILE})
+public class TableCommandRabbitMqConsumer {
+    private final ObjectMapper objectMapper;
+    private final PokerTableGameService pokerTableGameService;
+    private final TableCommandLanes lanes;
+
+    // a single consumer keeps each table's commands in the order they were forwarded, the
+    // table's lane applies them in that order so a blocked table never holds up the consumer
+    @RabbitListener(queues = "#{" + RabbitMqConfiguration.TABLE_COMMAND_QUEUE + ".name}", concurrency = "1")
+    public void onTableCommand(Message message) throws Exception {
+        TableCommandDTO command = objectMapper.readValue(message.getBody(), TableCommandDTO.class);
+
+        lanes.execute(command.getTableId(), () -> pokerTableGameService.onForwardedCommand(command));
+    }
+}
@@ -3,56 +3,24 @@ package com.twb.pokerapp.domain;
 import com.twb.pokerapp.domain.enumeration.CardType;
 import com.twb.pokerapp.domain.enumeration.RankType;
 import com.twb.pokerapp.domain.enumeration.SuitType;
-import jakarta.annotation.Nullable;
-import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
 
-import java.util.UUID;
-
-@Entity
+/**
+ * A dealt card. Cards are not stored as rows, a hand's hole cards and a round's community cards are
+ * packed into a column each (see {@code PackedCards}).
+ */
 @Getter
 @Setter
-@Table(name = "card")
 public class Card {
-
-    @Id
-    @NotNull
-    @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private UUID id;
-
-    @NotNull
-    @Enumerated(EnumType.STRING)
-    @Column(name = "rank_type")
     private RankType rankType;
-
-    @Column(name = "rank_value")
     private int rankValue;
-
-    @NotNull
-    @Enumerated(EnumType.STRING)
-    @Column(name = "suit_type")
     private SuitType suitType;
-
-    @NotNull
-    @Enumerated(EnumType.STRING)
-    @Column(name = "card_type")
     private CardType cardType;
 
-    @Nullable
-    @ManyToOne
-    @JoinColumn(name = "hand_id")
-    private Hand hand; // player card
-
-    @Nullable
-    @ManyToOne
-    @JoinColumn(name = "round_id")
-    private Round round; // community card
-
     public Card() {
     }
 
@@ -63,7 +31,6 @@ public class Card {
         this.rankValue = rankValue;
     }
 
-    @SuppressWarnings("CopyConstructorMissesField")
     public Card(@NotNull Card card) {
         this.rankType = card.getRankType();
         this.rankValue = card.getRankValue();
@@ -78,7 +45,6 @@ public class Card {
         Card card = (Card) o;
         return new EqualsBuilder()
                 .append(rankValue, card.rankValue)
-                .append(id, card.id)
                 .append(rankType, card.rankType)
                 .append(suitType, card.suitType)
                 .append(cardType, card.cardType).isEquals();
@@ -87,16 +53,14 @@ public class Card {
     @Override
     public int hashCode() {
         return new HashCodeBuilder(17, 37)
-                .append(id).append(rankType)
-                .append(rankValue).append(suitType)
-                .append(cardType).toHashCode();
+                .append(rankType).append(rankValue)
+                .append(suitType).append(cardType).toHashCode();
     }
 
     @Override
     public String toString() {
         return "Card{" +
-                "id=" + id +
-                ", rankType=" + rankType +
+                "rankType=" + rankType +
                 ", rankValue=" + rankValue +
                 ", suitType=" + suitType +
                 ", cardType=" + cardType +
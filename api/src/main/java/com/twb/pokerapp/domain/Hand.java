@@ -8,9 +8,9 @@ import lombok.Getter;
 import lombok.Setter;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.hibernate.annotations.PartitionKey;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.time.Instant;
 import java.util.UUID;
 
 @Entity
@@ -22,8 +22,7 @@ public class Hand {
     @Id
     @NotNull
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private UUID id;
+    private UUID id; // assigned when first written, see TableStatePersister
 
     @Nullable
     @Enumerated(EnumType.STRING)
@@ -34,6 +33,10 @@ public class Hand {
     @Column(name = "winner")
     private Boolean winner;
 
+    @Nullable
+    @Column(name = "best_five")
+    private Long bestFive; // CardSet of the five cards making the hand, set at a showdown
+
     @ManyToOne(optional = false)
     @JoinColumn(name = "player_session_id")
     private PlayerSession playerSession;
@@ -42,9 +45,13 @@ public class Hand {
     @JoinColumn(name = "round_id")
     private Round round;
 
-    //this will be a small amount (i.e. 2 for TexasHoldem)
-    @OneToMany(mappedBy = "hand", fetch = FetchType.EAGER)
-    private List<Card> cards = new ArrayList<>();
+    @NotNull
+    @PartitionKey
+    @Column(name = "round_started_at")
+    private Instant roundStartedAt; // the round's partition key, see HistoryPartitions
+
+    @Column(name = "hole_cards")
+    private int holeCards; // PackedCards in dealing order
 
     @Override
     public boolean equals(Object o) {
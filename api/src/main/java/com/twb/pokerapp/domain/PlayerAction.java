@@ -7,7 +7,9 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.PartitionKey;
 
+import java.time.Instant;
 import java.util.UUID;
 
 @Entity
@@ -19,8 +21,7 @@ public class PlayerAction {
     @Id
     @NotNull
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.UUID)
-    private UUID id;
+    private UUID id; // assigned when first written, see TableStatePersister
 
     @ManyToOne(optional = false)
     @JoinColumn(name = "player_session_id")
@@ -30,6 +31,11 @@ public class PlayerAction {
     @JoinColumn(name = "round_id")
     private Round round;
 
+    @NotNull
+    @PartitionKey
+    @Column(name = "round_started_at")
+    private Instant roundStartedAt; // the round's partition key, see HistoryPartitions
+
     @NotNull
     @Enumerated(EnumType.STRING)
     @Column(name = "round_state")
@@ -1,6 +1,8 @@
 package com.twb.pokerapp.domain;
 
 import com.twb.pokerapp.domain.enumeration.GameType;
+import com.twb.pokerapp.domain.enumeration.PacingPolicy;
+import jakarta.annotation.Nullable;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
@@ -33,6 +35,11 @@ public class PokerTable {
     @Column(name = "game_type")
     private GameType gameType;
 
+    @Nullable
+    @Enumerated(EnumType.STRING)
+    @Column(name = "pacing_policy")
+    private PacingPolicy pacingPolicy; // null uses app.game.pacing
+
     @OneToMany(mappedBy = "pokerTable", cascade = CascadeType.ALL)
     private List<Round> rounds = new ArrayList<>();
 
@@ -59,6 +66,7 @@ public class PokerTable {
                 "id=" + id +
                 ", name='" + name + '\'' +
                 ", gameType=" + gameType +
+                ", pacingPolicy=" + pacingPolicy +
                 '}';
     }
 }
@@ -7,7 +7,9 @@ import lombok.Getter;
 import lombok.Setter;
 import org.apache.commons.lang3.builder.EqualsBuilder;
 import org.apache.commons.lang3.builder.HashCodeBuilder;
+import org.hibernate.annotations.PartitionKey;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -33,8 +35,16 @@ public class Round {
     @JoinColumn(name = "poker_table_id")
     private PokerTable pokerTable;
 
-    @OneToMany(mappedBy = "round")
-    private List<Card> communityCards = new ArrayList<>();
+    @Column(name = "deck_seed")
+    private Long deckSeed; // replays the round's shuffle, see Deck
+
+    @Column(name = "board_cards")
+    private int boardCards; // PackedCards in dealing order
+
+    @NotNull
+    @PartitionKey
+    @Column(name = "started_at")
+    private Instant startedAt; // the partition key, see HistoryPartitions
 
     @OneToMany(mappedBy = "round")
     private List<PlayerAction> playerActions = new ArrayList<>();
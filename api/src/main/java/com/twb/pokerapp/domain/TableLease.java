@@ -0,0 +1,62 @@
+package com.twb.pokerapp.domain;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+import org.apache.commons.lang3.builder.EqualsBuilder;
+import org.apache.commons.lang3.builder.HashCodeBuilder;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Which API node currently runs a table's game loop, and until when.
+ * Leases are only written through the native queries in the repository so that
+ * expiry is always judged against the database clock rather than a node's clock.
+ */
+@Entity
+@Getter
+@Setter
+@Table(name = "table_lease")
+public class TableLease {
+
+    @Id
+    @NotNull
+    @Column(name = "table_id")
+    private UUID tableId;
+
+    @NotNull
+    @Column(name = "owner_node")
+    private String ownerNode;
+
+    @NotNull
+    @Column(name = "expires_at")
+    private Instant expiresAt;
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof TableLease lease)) return false;
+        return new EqualsBuilder().append(tableId, lease.tableId)
+                .append(ownerNode, lease.ownerNode).isEquals();
+    }
+
+    @Override
+    public int hashCode() {
+        return new HashCodeBuilder(17, 37)
+                .append(tableId).append(ownerNode).toHashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "TableLease{" +
+                "tableId=" + tableId +
+                ", ownerNode='" + ownerNode + '\'' +
+                ", expiresAt=" + expiresAt +
+                '}';
+    }
+}
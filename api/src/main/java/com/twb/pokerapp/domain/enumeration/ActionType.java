@@ -20,15 +20,8 @@ public enum ActionType {
 
     private ActionType[] getNextActions() {
         return switch (this) {
-            case CHECK: {
-                yield new ActionType[]{CHECK, BET};
-            }
-            case BET:
-            case CALL:
-            case RAISE:
-            case FOLD: {
-                yield new ActionType[]{CALL, RAISE, FOLD};
-            }
+            case CHECK -> new ActionType[]{CHECK, BET};
+            case BET, CALL, RAISE, FOLD -> new ActionType[]{CALL, RAISE, FOLD};
         };
     }
 }
@@ -1,14 +1,20 @@
 package com.twb.pokerapp.domain.enumeration;
 
+import java.util.List;
+
 public enum CardType {
     PLAYER_CARD_1,
     PLAYER_CARD_2,
+    PLAYER_CARD_3,
+    PLAYER_CARD_4,
     FLOP_CARD_1,
     FLOP_CARD_2,
     FLOP_CARD_3,
     TURN_CARD,
     RIVER_CARD;
 
-    public static final CardType[] PLAYER_CARDS = {PLAYER_CARD_1, PLAYER_CARD_2};
-    public static final CardType[] FLOP_CARDS = {FLOP_CARD_1, FLOP_CARD_2, FLOP_CARD_3};
+    public static final List<CardType> PLAYER_CARDS = List.of(PLAYER_CARD_1, PLAYER_CARD_2);
+    public static final List<CardType> OMAHA_PLAYER_CARDS = List.of(PLAYER_CARD_1, PLAYER_CARD_2, PLAYER_CARD_3, PLAYER_CARD_4);
+    public static final List<CardType> FLOP_CARDS = List.of(FLOP_CARD_1, FLOP_CARD_2, FLOP_CARD_3);
+    public static final List<CardType> BOARD_CARDS = List.of(FLOP_CARD_1, FLOP_CARD_2, FLOP_CARD_3, TURN_CARD, RIVER_CARD);
 }
@@ -3,17 +3,23 @@ package com.twb.pokerapp.domain.enumeration;
 import com.twb.pokerapp.service.game.thread.GameThread;
 import com.twb.pokerapp.service.game.thread.GameThreadParams;
 import com.twb.pokerapp.service.game.thread.impl.BlackjackGameThread;
+import com.twb.pokerapp.service.game.thread.impl.OmahaGameThread;
 import com.twb.pokerapp.service.game.thread.impl.TexasHoldemGameThread;
 import org.springframework.context.ApplicationContext;
 
 public enum GameType {
     TEXAS_HOLDEM,
+    OMAHA,
     BLACKJACK;
 
     // TEXAS_HOLDEM
     public static final int TEXAS_HOLDEM_MAX_PLAYER_COUNT = 6;
     public static final int TEXAS_HOLDEM_MIN_PLAYER_COUNT = 2;
 
+    // OMAHA
+    public static final int OMAHA_MAX_PLAYER_COUNT = 6;
+    public static final int OMAHA_MIN_PLAYER_COUNT = 2;
+
     // BLACKJACK
     public static final int BLACKJACK_MAX_PLAYER_COUNT = 1;
     public static final int BLACKJACK_MIN_PLAYER_COUNT = 1;
@@ -21,6 +27,7 @@ public enum GameType {
     public int getMaxPlayerCount() {
         return switch (this) {
             case TEXAS_HOLDEM -> TEXAS_HOLDEM_MAX_PLAYER_COUNT;
+            case OMAHA -> OMAHA_MAX_PLAYER_COUNT;
             case BLACKJACK -> BLACKJACK_MAX_PLAYER_COUNT;
         };
     }
@@ -28,6 +35,7 @@ public enum GameType {
     public int getMinPlayerCount() {
         return switch (this) {
             case TEXAS_HOLDEM -> TEXAS_HOLDEM_MIN_PLAYER_COUNT;
+            case OMAHA -> OMAHA_MIN_PLAYER_COUNT;
             case BLACKJACK -> BLACKJACK_MIN_PLAYER_COUNT;
         };
     }
@@ -35,6 +43,7 @@ public enum GameType {
     public GameThread getGameThread(ApplicationContext context, GameThreadParams params) {
         return switch (this) {
             case TEXAS_HOLDEM -> context.getBean(TexasHoldemGameThread.class, params);
+            case OMAHA -> context.getBean(OmahaGameThread.class, params);
             case BLACKJACK -> context.getBean(BlackjackGameThread.class, params);
         };
     }
@@ -0,0 +1,25 @@
+package com.twb.pokerapp.domain.enumeration;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * How fast a table plays out its rounds.
+ * <ul>
+ *     <li>REAL_TIME - human speed, the production default</li>
+ *     <li>TURBO - short pauses and turn timeouts for bot and fast-fold tables</li>
+ *     <li>VIRTUAL - pauses are skipped instead of sleeping, so a game runs as fast as the CPU allows</li>
+ * </ul>
+ */
+@Getter
+@RequiredArgsConstructor
+public enum PacingPolicy {
+    REAL_TIME(1000, 4 * 1000, 30 * 1000, false),
+    TURBO(100, 500, 10 * 1000, false),
+    VIRTUAL(1000, 4 * 1000, 30 * 1000, true);
+
+    private final long dealWaitMs;
+    private final long evaluationWaitMs;
+    private final long playerTurnWaitMs;
+    private final boolean virtualTime;
+}
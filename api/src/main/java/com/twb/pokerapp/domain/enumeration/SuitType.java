@@ -8,11 +8,12 @@ import lombok.ToString;
 @ToString
 @RequiredArgsConstructor
 public enum SuitType {
-    SPADES(0x1000, 's'),
-    HEARTS(0x2000, 'h'),
-    DIAMONDS(0x4000, 'd'),
-    CLUBS(0x8000, 'c');
+    SPADES(0x1000, 's', 0),
+    HEARTS(0x2000, 'h', 1),
+    DIAMONDS(0x4000, 'd', 2),
+    CLUBS(0x8000, 'c', 3);
 
     private final int value;
     private final char suitChar;
+    private final int position;
 }
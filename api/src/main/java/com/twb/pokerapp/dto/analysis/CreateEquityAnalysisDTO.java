@@ -0,0 +1,11 @@
+package com.twb.pokerapp.dto.analysis;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class CreateEquityAnalysisDTO {
+    private List<String> ranges;
+    private String board;
+}
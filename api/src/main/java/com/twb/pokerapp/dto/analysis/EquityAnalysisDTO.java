@@ -0,0 +1,14 @@
+package com.twb.pokerapp.dto.analysis;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class EquityAnalysisDTO {
+    private String board;
+    private List<RangeEquityResultDTO> ranges;
+    private long matchups;
+    private long runouts;
+    private boolean exhaustive;
+}
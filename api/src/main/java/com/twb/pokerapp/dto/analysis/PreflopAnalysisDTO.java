@@ -0,0 +1,10 @@
+package com.twb.pokerapp.dto.analysis;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class PreflopAnalysisDTO {
+    private List<PreflopEquityResultDTO> hands;
+}
@@ -0,0 +1,9 @@
+package com.twb.pokerapp.dto.analysis;
+
+import lombok.Data;
+
+@Data
+public class PreflopEquityResultDTO {
+    private String hand;
+    private double equity;
+}
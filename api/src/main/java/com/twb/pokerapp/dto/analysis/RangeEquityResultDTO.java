@@ -0,0 +1,12 @@
+package com.twb.pokerapp.dto.analysis;
+
+import lombok.Data;
+
+@Data
+public class RangeEquityResultDTO {
+    private String range;
+    private int combos;
+    private double win;
+    private double tie;
+    private double lose;
+}
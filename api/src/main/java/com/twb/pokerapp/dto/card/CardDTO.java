@@ -6,11 +6,8 @@ import com.twb.pokerapp.domain.enumeration.RankType;
 import com.twb.pokerapp.domain.enumeration.SuitType;
 import lombok.Data;
 
-import java.util.UUID;
-
 @Data
 public class CardDTO {
-    private UUID id;
     private RankType rankType;
     private char rankChar;
     private int rankValue;
@@ -0,0 +1,22 @@
+package com.twb.pokerapp.dto.history;
+
+import com.twb.pokerapp.domain.enumeration.HandType;
+import com.twb.pokerapp.dto.card.CardDTO;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class ArchivedHandDTO {
+    private UUID id;
+    private UUID roundId;
+    private UUID playerSessionId;
+    private Instant roundStartedAt;
+    private HandType handType;
+    private Boolean winner;
+    private List<CardDTO> cards = new ArrayList<>();
+    private List<CardDTO> bestFive = new ArrayList<>();
+}
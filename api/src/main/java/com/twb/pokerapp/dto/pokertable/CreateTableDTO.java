@@ -1,10 +1,12 @@
 package com.twb.pokerapp.dto.pokertable;
 
 import com.twb.pokerapp.domain.enumeration.GameType;
+import com.twb.pokerapp.domain.enumeration.PacingPolicy;
 import lombok.Data;
 
 @Data
 public class CreateTableDTO {
     private String name;
     private GameType gameType;
+    private PacingPolicy pacingPolicy;
 }
@@ -1,6 +1,7 @@
 package com.twb.pokerapp.dto.pokertable;
 
 import com.twb.pokerapp.domain.enumeration.GameType;
+import com.twb.pokerapp.domain.enumeration.PacingPolicy;
 import lombok.Data;
 
 import java.util.UUID;
@@ -10,4 +11,5 @@ public class TableDTO {
     private UUID id;
     private String name;
     private GameType gameType;
+    private PacingPolicy pacingPolicy;
 }
@@ -0,0 +1,16 @@
+package com.twb.pokerapp.exception.game;
+
+import com.twb.pokerapp.service.game.state.TableSnapshot;
+
+public class GameHibernatedException extends RuntimeException {
+    private final transient TableSnapshot snapshot;
+
+    public GameHibernatedException(String message, TableSnapshot snapshot) {
+        super(message);
+        this.snapshot = snapshot;
+    }
+
+    public TableSnapshot getSnapshot() {
+        return snapshot;
+    }
+}
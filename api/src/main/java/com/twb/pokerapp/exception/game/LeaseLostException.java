@@ -0,0 +1,8 @@
+package com.twb.pokerapp.exception.game;
+
+public class LeaseLostException extends RuntimeException {
+
+    public LeaseLostException(String message) {
+        super(message);
+    }
+}
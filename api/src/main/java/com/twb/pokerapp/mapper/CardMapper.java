@@ -1,9 +1,16 @@
 package com.twb.pokerapp.mapper;
 
 import com.twb.pokerapp.domain.Card;
+import com.twb.pokerapp.domain.enumeration.CardType;
 import com.twb.pokerapp.dto.card.CardDTO;
+import com.twb.pokerapp.service.game.CardSet;
+import com.twb.pokerapp.service.game.PackedCards;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import org.mapstruct.Named;
+
+import java.util.ArrayList;
+import java.util.List;
 
 @Mapper(componentModel = "spring")
 public interface CardMapper {
@@ -11,4 +18,25 @@ public interface CardMapper {
     @Mapping(source = "rankType.rankChar", target = "rankChar")
     @Mapping(source = "suitType.suitChar", target = "suitChar")
     CardDTO modelToDto(Card model);
+
+    List<CardDTO> modelsToDto(List<Card> models);
+
+    @Named("holeCards")
+    default List<CardDTO> holeCardsToDto(int holeCards) {
+        return modelsToDto(PackedCards.toCards(holeCards, CardType.OMAHA_PLAYER_CARDS));
+    }
+
+    @Named("boardCards")
+    default List<CardDTO> boardCardsToDto(int boardCards) {
+        return modelsToDto(PackedCards.toCards(boardCards, CardType.BOARD_CARDS));
+    }
+
+    @Named("cardSet")
+    default List<CardDTO> cardSetToDto(long cards) {
+        List<CardDTO> result = new ArrayList<>(CardSet.size(cards));
+        for (long rest = cards; rest != CardSet.EMPTY; rest = CardSet.removeFirst(rest)) {
+            result.add(modelToDto(CardSet.toCard(CardSet.first(rest))));
+        }
+        return result;
+    }
 }
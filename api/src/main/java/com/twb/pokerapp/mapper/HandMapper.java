@@ -8,5 +8,6 @@ import org.mapstruct.Mapping;
 @Mapper(componentModel = "spring", uses = {CardMapper.class,})
 public interface HandMapper {
     @Mapping(source = "handType.value", target = "handTypeStr")
+    @Mapping(source = "holeCards", target = "cards", qualifiedByName = "holeCards")
     HandDTO modelToDto(Hand model);
 }
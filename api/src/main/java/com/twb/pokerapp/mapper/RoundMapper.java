@@ -3,9 +3,11 @@ package com.twb.pokerapp.mapper;
 import com.twb.pokerapp.domain.Round;
 import com.twb.pokerapp.dto.round.RoundDTO;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 
 @Mapper(componentModel = "spring", uses = {CardMapper.class})
 public interface RoundMapper {
 
+    @Mapping(source = "boardCards", target = "communityCards", qualifiedByName = "boardCards")
     RoundDTO modelToDto(Round model);
 }
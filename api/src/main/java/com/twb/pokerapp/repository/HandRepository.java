@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -15,7 +16,9 @@ public interface HandRepository extends JpaRepository<Hand, UUID> {
     @Query("SELECT h " +
             "FROM Hand h " +
             "WHERE h.playerSession.id = :playerSessionId " +
-            "AND h.round.id = :roundId ")
+            "AND h.round.id = :roundId " +
+            "AND h.roundStartedAt = :roundStartedAt")
     Optional<Hand> findHandForRound(@Param("playerSessionId") UUID playerSessionId,
-                                    @Param("roundId") UUID roundId);
+                                    @Param("roundId") UUID roundId,
+                                    @Param("roundStartedAt") Instant roundStartedAt);
 }
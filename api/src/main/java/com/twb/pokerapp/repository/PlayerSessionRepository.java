@@ -61,6 +61,13 @@ public interface PlayerSessionRepository extends JpaRepository<PlayerSession, UU
             "ORDER BY s.position ASC ")
     List<PlayerSession> findConnectedPlayersByTableIdNoLock(@Param("tableId") UUID tableId);
 
+    @Query("SELECT s.user.username " +
+            "FROM PlayerSession s " +
+            "WHERE s.pokerTable.id = :tableId " +
+            "AND s.sessionState = com.twb.pokerapp.domain.enumeration.SessionState.CONNECTED " +
+            "AND s.connectionType = com.twb.pokerapp.domain.enumeration.ConnectionType.LISTENER ")
+    List<String> findConnectedListenerUsernamesByTableId(@Param("tableId") UUID tableId);
+
     @Modifying(flushAutomatically = true)
     @Query("UPDATE PlayerSession s " +
             "SET s.dealer = false " +
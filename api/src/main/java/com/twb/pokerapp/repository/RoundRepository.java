@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,14 +19,26 @@ public interface RoundRepository extends JpaRepository<Round, UUID> {
             "WHERE r.pokerTable.id = :tableId")
     List<Round> findByTableId(UUID tableId);
 
+    /**
+     * Finds the unfinished rounds of every table.
+     *
+     * @param since the earliest round start to look at, see {@link com.twb.pokerapp.service.history.HistoryPartitions#activeSince()}
+     */
     @Query("SELECT r " +
             "FROM Round r " +
-            "WHERE r.roundState <> com.twb.pokerapp.domain.enumeration.RoundState.FINISH")
-    List<Round> findAllNotFinished();
+            "WHERE r.roundState <> com.twb.pokerapp.domain.enumeration.RoundState.FINISH " +
+            "AND r.startedAt >= :since")
+    List<Round> findAllNotFinished(@Param("since") Instant since);
 
+    /**
+     * Finds the table's unfinished round.
+     *
+     * @param since the earliest round start to look at, see {@link com.twb.pokerapp.service.history.HistoryPartitions#activeSince()}
+     */
     @Query("SELECT r " +
             "FROM Round r " +
             "WHERE r.pokerTable.id = :tableId " +
-            "AND r.roundState <> com.twb.pokerapp.domain.enumeration.RoundState.FINISH")
-    Optional<Round> findCurrentByTableId(@Param("tableId") UUID tableId);
+            "AND r.roundState <> com.twb.pokerapp.domain.enumeration.RoundState.FINISH " +
+            "AND r.startedAt >= :since")
+    Optional<Round> findCurrentByTableId(@Param("tableId") UUID tableId, @Param("since") Instant since);
 }
@@ -0,0 +1,61 @@
+package com.twb.pokerapp.repository;
+
+import com.twb.pokerapp.domain.TableLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TableLeaseRepository extends JpaRepository<TableLease, UUID> {
+
+    @Modifying
+    @Query(value = "INSERT INTO table_lease (table_id, owner_node, expires_at) " +
+            "VALUES (:tableId, :ownerNode, now() + :ttlMs * INTERVAL '1 millisecond') " +
+            "ON CONFLICT (table_id) DO UPDATE " +
+            "SET owner_node = EXCLUDED.owner_node, expires_at = EXCLUDED.expires_at " +
+            "WHERE table_lease.owner_node = EXCLUDED.owner_node " +
+            "OR table_lease.expires_at < now()", nativeQuery = true)
+    int acquire(@Param("tableId") UUID tableId, @Param("ownerNode") String ownerNode, @Param("ttlMs") long ttlMs);
+
+    @Modifying
+    @Query(value = "UPDATE table_lease " +
+            "SET expires_at = now() + :ttlMs * INTERVAL '1 millisecond' " +
+            "WHERE owner_node = :ownerNode " +
+            "AND expires_at >= now()", nativeQuery = true)
+    int renewAll(@Param("ownerNode") String ownerNode, @Param("ttlMs") long ttlMs);
+
+    @Query(value = "SELECT l.table_id " +
+            "FROM table_lease l " +
+            "WHERE l.owner_node = :ownerNode " +
+            "AND l.expires_at >= now()", nativeQuery = true)
+    List<UUID> findLiveTableIdsByOwnerNode(@Param("ownerNode") String ownerNode);
+
+    @Query(value = "SELECT l.owner_node " +
+            "FROM table_lease l " +
+            "WHERE l.table_id = :tableId " +
+            "AND l.expires_at >= now()", nativeQuery = true)
+    Optional<String> findLiveOwnerNode(@Param("tableId") UUID tableId);
+
+    @Query(value = "SELECT l.table_id " +
+            "FROM table_lease l " +
+            "WHERE l.expires_at < now()", nativeQuery = true)
+    List<UUID> findExpiredTableIds();
+
+    @Modifying
+    @Query(value = "DELETE FROM table_lease " +
+            "WHERE table_id = :tableId " +
+            "AND owner_node = :ownerNode", nativeQuery = true)
+    int release(@Param("tableId") UUID tableId, @Param("ownerNode") String ownerNode);
+
+    @Modifying
+    @Query(value = "DELETE FROM table_lease " +
+            "WHERE table_id = :tableId " +
+            "AND expires_at < now()", nativeQuery = true)
+    int deleteIfExpired(@Param("tableId") UUID tableId);
+}
@@ -0,0 +1,93 @@
+package com.twb.pokerapp.service;
+
+import com.twb.pokerapp.dto.analysis.CreateEquityAnalysisDTO;
+import com.twb.pokerapp.dto.analysis.EquityAnalysisDTO;
+import com.twb.pokerapp.dto.analysis.PreflopAnalysisDTO;
+import com.twb.pokerapp.dto.analysis.PreflopEquityResultDTO;
+import com.twb.pokerapp.dto.analysis.RangeEquityResultDTO;
+import com.twb.pokerapp.service.eval.HandRange;
+import com.twb.pokerapp.service.eval.PreflopMatchupTable;
+import com.twb.pokerapp.service.eval.RangeEquityCalculator;
+import com.twb.pokerapp.service.eval.dto.RangeEquityDTO;
+import com.twb.pokerapp.service.game.CardSet;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+@Component
+@RequiredArgsConstructor
+public class AnalysisService {
+    private static final int RANGES = 2;
+
+    private final RangeEquityCalculator rangeEquityCalculator;
+    private final PreflopMatchupTable preflopMatchupTable;
+
+    /**
+     * Calculates the equity of two ranges against each other.
+     *
+     * @param createDto two ranges such as {@code "AKs, TT+, 76s"} and an optional board such as {@code "Ah Kd 7c"}
+     * @return the equity of each range, completed off the calling thread
+     * @throws IllegalArgumentException if the ranges or board are not valid
+     */
+    public CompletableFuture<EquityAnalysisDTO> getEquity(CreateEquityAnalysisDTO createDto) {
+        List<String> ranges = createDto.getRanges();
+        if (ranges == null || ranges.size() != RANGES) {
+            throw new IllegalArgumentException("Expected " + RANGES + " ranges: " + ranges);
+        }
+        long board = createDto.getBoard() == null ? CardSet.EMPTY : CardSet.parse(createDto.getBoard());
+        long[] first = HandRange.parse(ranges.get(0));
+        long[] second = HandRange.parse(ranges.get(1));
+        return rangeEquityCalculator.calculate(board, first, second)
+                .thenApply(equity -> toDto(board, ranges, new int[]{first.length, second.length}, equity));
+    }
+
+    /**
+     * Looks up the preflop equity of two or three starting hands against each other.
+     *
+     * @param hands two or three starting hands such as {@code "AKs"}, {@code "T9o"} or {@code "QQ"}
+     * @return the preflop all-in equity of each hand, from the precomputed matchup table
+     * @throws IllegalArgumentException if there are not two or three valid starting hands
+     */
+    public PreflopAnalysisDTO getPreflopEquity(List<String> hands) {
+        if (hands == null || hands.size() < 2 || hands.size() > 3) {
+            throw new IllegalArgumentException("Expected 2 or 3 starting hands: " + hands);
+        }
+        int[] indexes = hands.stream().mapToInt(PreflopMatchupTable::getHandIndex).toArray();
+        List<PreflopEquityResultDTO> results = new ArrayList<>();
+        for (int hand = 0; hand < indexes.length; hand++) {
+            PreflopEquityResultDTO result = new PreflopEquityResultDTO();
+            result.setHand(hands.get(hand));
+            result.setEquity(indexes.length == 2
+                    ? preflopMatchupTable.getHeadsUpEquity(indexes[hand], indexes[1 - hand])
+                    : preflopMatchupTable.getThreeWayEquity(indexes[hand],
+                    indexes[(hand + 1) % 3], indexes[(hand + 2) % 3]));
+            results.add(result);
+        }
+        PreflopAnalysisDTO dto = new PreflopAnalysisDTO();
+        dto.setHands(results);
+        return dto;
+    }
+
+    private EquityAnalysisDTO toDto(long board, List<String> ranges, int[] combos, RangeEquityDTO equity) {
+        List<RangeEquityResultDTO> results = new ArrayList<>();
+        for (int range = 0; range < RANGES; range++) {
+            RangeEquityResultDTO result = new RangeEquityResultDTO();
+            result.setRange(ranges.get(range));
+            result.setCombos(combos[range]);
+            result.setWin(equity.getWin(range));
+            result.setTie(equity.getTie());
+            result.setLose(equity.getLose(range));
+            results.add(result);
+        }
+        EquityAnalysisDTO dto = new EquityAnalysisDTO();
+        dto.setBoard(CardSet.toString(board));
+        dto.setRanges(results);
+        dto.setMatchups(equity.getMatchups());
+        dto.setRunouts(equity.getRunouts());
+        dto.setExhaustive(equity.isExhaustive());
+        return dto;
+    }
+}
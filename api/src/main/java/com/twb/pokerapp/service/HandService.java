@@ -6,11 +6,13 @@ import com.twb.pokerapp.domain.PlayerSession;
 import com.twb.pokerapp.domain.Round;
 import com.twb.pokerapp.mapper.HandMapper;
 import com.twb.pokerapp.repository.HandRepository;
+import com.twb.pokerapp.service.game.PackedCards;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Optional;
+import java.util.UUID;
 
 @Component
 @Transactional
@@ -19,20 +21,20 @@ public class HandService {
     private final HandRepository repository;
     private final HandMapper mapper;
 
-    private final CardService cardService;
-
     public void addPlayerCard(PlayerSession playerSession, Round round, Card card) {
         Optional<Hand> handOpt =
-                repository.findHandForRound(playerSession.getId(), round.getId());
+                repository.findHandForRound(playerSession.getId(), round.getId(), round.getStartedAt());
         Hand hand;
         if (handOpt.isPresent()) {
             hand = handOpt.get();
         } else {
             hand = new Hand();
+            hand.setId(UUID.randomUUID());
             hand.setRound(round);
+            hand.setRoundStartedAt(round.getStartedAt());
             hand.setPlayerSession(playerSession);
-            hand = repository.saveAndFlush(hand);
         }
-        cardService.createPlayerCard(hand, card);
+        hand.setHoleCards(PackedCards.add(hand.getHoleCards(), card.getRankValue()));
+        repository.saveAndFlush(hand);
     }
 }
@@ -7,10 +7,12 @@ import com.twb.pokerapp.dto.round.RoundDTO;
 import com.twb.pokerapp.exception.NotFoundException;
 import com.twb.pokerapp.mapper.RoundMapper;
 import com.twb.pokerapp.repository.RoundRepository;
+import com.twb.pokerapp.service.history.HistoryPartitions;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -26,6 +28,7 @@ public class RoundService {
         Round round = new Round();
         round.setRoundState(RoundState.WAITING_FOR_PLAYERS);
         round.setPokerTable(pokerTable);
+        round.setStartedAt(Instant.now());
 
         round = repository.saveAndFlush(round);
 
@@ -34,7 +37,7 @@ public class RoundService {
 
     @Transactional(readOnly = true)
     public RoundDTO getCurrent(UUID tableId) {
-        Optional<Round> roundOpt = repository.findCurrentByTableId(tableId);
+        Optional<Round> roundOpt = repository.findCurrentByTableId(tableId, HistoryPartitions.activeSince());
         if (roundOpt.isEmpty()) {
             throw new NotFoundException("Round not found for table: " + tableId);
         }
@@ -9,6 +9,7 @@ import com.twb.pokerapp.dto.pokertable.TableDTO;
 import com.twb.pokerapp.mapper.TableMapper;
 import com.twb.pokerapp.repository.RoundRepository;
 import com.twb.pokerapp.repository.TableRepository;
+import com.twb.pokerapp.service.history.HistoryPartitions;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
@@ -32,7 +33,8 @@ public class TableService {
 
         // on application restart, complete all rounds previously saved
         // only doing this here to ensure ordering with creating dummy poker table data
-        List<Round> allRounds = roundRepository.findAllNotFinished();
+        // older rounds are finished when their partitions are archived, see HistoryPartitionService
+        List<Round> allRounds = roundRepository.findAllNotFinished(HistoryPartitions.activeSince());
         for (Round round : allRounds) {
             round.setRoundState(RoundState.FINISH);
             roundRepository.save(round);
@@ -51,6 +53,11 @@ public class TableService {
             createTableDto2.setGameType(GameType.BLACKJACK);
             create(createTableDto2);
 
+            CreateTableDTO createTableDto3 = new CreateTableDTO();
+            createTableDto3.setName("Poker Table 3");
+            createTableDto3.setGameType(GameType.OMAHA);
+            create(createTableDto3);
+
         }
     }
 
@@ -0,0 +1,248 @@
+package com.twb.pokerapp.service.eval;
+
+import com.twb.pokerapp.service.game.CardSet;
+
+/**
+ * Ranks the best five card hand in a {@link CardSet} of five, six or seven cards.
+ * <p>
+ * Works on the 13 bit rank masks of each suit, so a hand is a few dozen bit operations and no table
+ * larger than the high card index. Ranks are on the same scale as {@link RankEvaluator} (see
+ * {@link HandRanks}), which lets the current hand be shown on the flop and turn as well as the river:
+ * within a category hands are ordered by the ranks that make the hand, then by the kickers, so each
+ * rank is the offset of the category plus the index of those ranks among all possible ones.
+ */
+public final class BitmaskEvaluator {
+    public static final int MIN_CARDS = 5;
+    public static final int MAX_CARDS = 7;
+
+    private static final int WHEEL = 0b1_0000_0000_1111; // A-2-3-4-5
+    private static final int KINDS = CardSet.RANKS - 1; // ranks left once one rank is used
+
+    private static final int HIGH_CARD_START = 1;
+    private static final int PAIR_START = 1278;
+    private static final int TWO_PAIR_START = 4138;
+    private static final int THREE_OF_A_KIND_START = 4996;
+    private static final int STRAIGHT_START = 5854;
+    private static final int FLUSH_START = 5864;
+    private static final int FULL_HOUSE_START = 7141;
+    private static final int FOUR_OF_A_KIND_START = 7297;
+    private static final int STRAIGHT_FLUSH_START = 7453;
+
+    private static final int[][] CHOOSE = new int[CardSet.RANKS + 1][MIN_CARDS + 1];
+    private static final short[] HIGH_CARD_INDEX = new short[1 << CardSet.RANKS]; // five ranks, not a straight
+
+    static {
+        for (int n = 0; n <= CardSet.RANKS; n++) {
+            CHOOSE[n][0] = 1;
+            for (int k = 1; k <= Math.min(n, MIN_CARDS); k++) {
+                CHOOSE[n][k] = CHOOSE[n - 1][k - 1] + CHOOSE[n - 1][k];
+            }
+        }
+        short index = 0;
+        for (int ranks = 0; ranks < HIGH_CARD_INDEX.length; ranks++) {
+            if (Integer.bitCount(ranks) == MIN_CARDS && straightIndex(ranks) < 0) {
+                HIGH_CARD_INDEX[ranks] = index++;
+            }
+        }
+    }
+
+    private BitmaskEvaluator() {
+    }
+
+    /**
+     * Ranks the best five of five to seven cards.
+     *
+     * @param cards five to seven cards
+     * @return the rank of the best five cards, from 1 (worst high card) to {@link HandRanks#MAX_RANK}
+     * @throws IllegalArgumentException if there are fewer than five or more than seven cards
+     */
+    public static int getRank(long cards) {
+        return getRank(cards, null, 0);
+    }
+
+    /**
+     * Ranks a hand and, in the same pass, stores the five cards that make it. Where several cards
+     * would do, such as a kicker of the same rank in two suits, the one in the lowest suit is kept.
+     *
+     * @param cards    five to seven cards
+     * @param bestFive receives the best five cards as a {@link CardSet} at {@code index}, or null to only rank
+     * @param index    the position in {@code bestFive} to store at
+     * @return the rank of the best five cards, from 1 (worst high card) to {@link HandRanks#MAX_RANK}
+     * @throws IllegalArgumentException if there are fewer than five or more than seven cards
+     */
+    public static int getRank(long cards, long[] bestFive, int index) {
+        int size = CardSet.size(cards);
+        if (size < MIN_CARDS || size > MAX_CARDS) {
+            throw new IllegalArgumentException("Hand must have 5 to 7 cards: " + size);
+        }
+
+        // with at most seven cards a flush rules out a full house or four of a kind
+        int ones = 0, twos = 0, threes = 0, fours = 0;
+        for (int suit = 0; suit < CardSet.SUITS; suit++) {
+            int suitRanks = CardSet.suitRanks(cards, suit);
+            if (Integer.bitCount(suitRanks) >= MIN_CARDS) {
+                int straight = straightIndex(suitRanks);
+                if (straight >= 0) {
+                    if (bestFive != null) {
+                        bestFive[index] = CardSet.ofSuitRanks(straightRanks(straight), suit);
+                    }
+                    return STRAIGHT_FLUSH_START + straight;
+                }
+                int flush = highest(suitRanks, MIN_CARDS);
+                if (bestFive != null) {
+                    bestFive[index] = CardSet.ofSuitRanks(flush, suit);
+                }
+                return FLUSH_START + HIGH_CARD_INDEX[flush];
+            }
+            fours |= threes & suitRanks;
+            threes |= twos & suitRanks;
+            twos |= ones & suitRanks;
+            ones |= suitRanks;
+        }
+
+        if (fours != 0) {
+            int quads = Integer.highestOneBit(fours);
+            int kicker = highest(ones & ~quads, 1);
+            if (bestFive != null) {
+                bestFive[index] = pick(cards, quads, 4) | pick(cards, kicker, 1);
+            }
+            return FOUR_OF_A_KIND_START + rankOf(quads) * KINDS + kickerIndex(kicker, quads);
+        }
+        if (threes != 0) {
+            int trips = Integer.highestOneBit(threes);
+            int pair = Integer.highestOneBit(twos & ~trips);
+            if (pair != 0) {
+                if (bestFive != null) {
+                    bestFive[index] = pick(cards, trips, 3) | pick(cards, pair, 2);
+                }
+                return FULL_HOUSE_START + rankOf(trips) * KINDS + kickerIndex(pair, trips);
+            }
+        }
+        int straight = straightIndex(ones);
+        if (straight >= 0) {
+            if (bestFive != null) {
+                bestFive[index] = pick(cards, straightRanks(straight), 1);
+            }
+            return STRAIGHT_START + straight;
+        }
+        if (threes != 0) {
+            int trips = Integer.highestOneBit(threes);
+            int kickers = highest(ones & ~trips, 2);
+            if (bestFive != null) {
+                bestFive[index] = pick(cards, trips, 3) | pick(cards, kickers, 1);
+            }
+            return THREE_OF_A_KIND_START + rankOf(trips) * CHOOSE[KINDS][2] + kickerIndex(kickers, trips);
+        }
+        if (Integer.bitCount(twos) >= 2) {
+            int pairs = highest(twos, 2);
+            int kicker = highest(ones & ~pairs, 1);
+            if (bestFive != null) {
+                bestFive[index] = pick(cards, pairs, 2) | pick(cards, kicker, 1);
+            }
+            return TWO_PAIR_START + combinationIndex(pairs) * (KINDS - 1) + kickerIndex(kicker, pairs);
+        }
+        if (twos != 0) {
+            int kickers = highest(ones & ~twos, 3);
+            if (bestFive != null) {
+                bestFive[index] = pick(cards, twos, 2) | pick(cards, kickers, 1);
+            }
+            return PAIR_START + rankOf(twos) * CHOOSE[KINDS][3] + kickerIndex(kickers, twos);
+        }
+        int highCards = highest(ones, MIN_CARDS);
+        if (bestFive != null) {
+            bestFive[index] = pick(cards, highCards, 1);
+        }
+        return HIGH_CARD_START + HIGH_CARD_INDEX[highCards];
+    }
+
+    /**
+     * Ranks every hand in the batch and stores the five cards making each, see {@link HandBatch#getBestFive(int)}.
+     */
+    public static void evaluate(HandBatch batch) {
+        for (int hand = 0; hand < batch.size; hand++) {
+            batch.setResult(hand, getRank(batch.board | batch.holeCards[hand], batch.bestFive, hand));
+        }
+    }
+
+    /**
+     * Stores the five cards making each hand in the batch, leaving the ranks as they are, so a batch
+     * ranked by any {@link RankEvaluator} gets its {@link HandBatch#getBestFive(int) best five} too.
+     */
+    public static void findBestFive(HandBatch batch) {
+        for (int hand = 0; hand < batch.size; hand++) {
+            getRank(batch.board | batch.holeCards[hand], batch.bestFive, hand);
+        }
+    }
+
+    // *****************************************************************************************
+    // Helpers
+    // *****************************************************************************************
+
+    /**
+     * @return 0 for a wheel up to 9 for ace high, or -1 if the ranks hold no straight
+     */
+    private static int straightIndex(int ranks) {
+        int runs = ranks & (ranks << 1) & (ranks << 2) & (ranks << 3) & (ranks << 4);
+        if (runs != 0) {
+            return rankOf(Integer.highestOneBit(runs)) - 3; // 6 high (top rank 4) is index 1
+        }
+        return (ranks & WHEEL) == WHEEL ? 0 : -1;
+    }
+
+    /**
+     * @return the ranks of a straight from its {@link #straightIndex(int) index}
+     */
+    private static int straightRanks(int straight) {
+        return straight == 0 ? WHEEL : 0b1_1111 << (straight - 1);
+    }
+
+    /**
+     * Picks {@code perRank} cards of each of the ranks, lowest suits first.
+     */
+    private static long pick(long cards, int ranks, int perRank) {
+        long picked = CardSet.EMPTY;
+        for (int count = 0; count < perRank; count++) {
+            int pending = ranks;
+            for (int suit = 0; suit < CardSet.SUITS && pending != 0; suit++) {
+                int taken = CardSet.suitRanks(cards & ~picked, suit) & pending;
+                picked |= CardSet.ofSuitRanks(taken, suit);
+                pending &= ~taken;
+            }
+        }
+        return picked;
+    }
+
+    /**
+     * Keeps the {@code count} highest ranks.
+     */
+    private static int highest(int ranks, int count) {
+        while (Integer.bitCount(ranks) > count) {
+            ranks &= ranks - 1;
+        }
+        return ranks;
+    }
+
+    private static int rankOf(int rank) {
+        return Integer.numberOfTrailingZeros(rank);
+    }
+
+    /**
+     * Index of the kickers among all kickers of the same size, skipping the ranks already used.
+     */
+    private static int kickerIndex(int kickers, int used) {
+        return combinationIndex(Integer.compress(kickers, ~used));
+    }
+
+    /**
+     * Index of a set of ranks among all sets of the same size in increasing order, which is the
+     * combinatorial number system: the sum of C(rank, position) over the ranks from lowest to highest.
+     */
+    private static int combinationIndex(int ranks) {
+        int index = 0;
+        for (int position = 1; ranks != 0; position++) {
+            index += CHOOSE[rankOf(ranks)][position];
+            ranks &= ranks - 1;
+        }
+        return index;
+    }
+}
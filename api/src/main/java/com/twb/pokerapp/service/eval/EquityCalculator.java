@@ -0,0 +1,285 @@
+package com.twb.pokerapp.service.eval;
+
+import com.twb.pokerapp.service.eval.dto.EquityDTO;
+import com.twb.pokerapp.service.game.CardSet;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Calculates the chance of each hand winning, tying or losing once the board is run out.
+ * <p>
+ * Small calculations (up to {@code exhaustive-limit} evaluations, e.g. heads-up on the turn or any
+ * river) enumerate every runout. Larger ones are Monte Carlo, split over a dedicated fork-join pool
+ * and stopped at {@code budget-ms} after they were requested, so a busy pool degrades to fewer
+ * samples rather than late results. Calculations run off the calling thread and are cached by board
+ * and hole cards, so everyone watching a table shares one calculation per street.
+ */
+@Component
+@RequiredArgsConstructor
+public class EquityCalculator {
+    private static final int SAMPLES_PER_TASK = 4096;
+    private static final int SAMPLES_PER_DEADLINE_CHECK = 256;
+
+    private final RankEvaluator rankEvaluator;
+    private ForkJoinPool pool;
+    private Map<EquityKey, CompletableFuture<EquityDTO>> cache;
+
+    @Value("${app.eval.equity.exhaustive-limit:1000}")
+    private long exhaustiveLimit;
+
+    @Value("${app.eval.equity.samples:200000}")
+    private int samples;
+
+    @Value("${app.eval.equity.budget-ms:50}")
+    private long budgetMs;
+
+    @Value("${app.eval.equity.cache-size:4096}")
+    private int cacheSize;
+
+    @Value("${app.eval.equity.parallelism:0}")
+    private int parallelism;
+
+    @PostConstruct
+    public void init() {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        pool = new ForkJoinPool(threads, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("equity-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<EquityKey, CompletableFuture<EquityDTO>> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Calculates the all-in equity of each hand over the runouts of the board.
+     *
+     * @param board     the community cards dealt so far, none to five
+     * @param holeCards the two hole cards of each hand, at least two hands
+     * @return the equity of each hand, completed on the calculator's pool
+     * @throws IllegalArgumentException if cards are missing or dealt twice
+     */
+    public CompletableFuture<EquityDTO> calculate(long board, long[] holeCards) {
+        validate(board, holeCards);
+        EquityKey key = new EquityKey(board, Arrays.stream(holeCards).boxed().toList());
+        return cache.computeIfAbsent(key, ignored -> submit(board, holeCards.clone()));
+    }
+
+    private CompletableFuture<EquityDTO> submit(long board, long[] holeCards) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        int[] liveCards = getLiveCards(board, holeCards);
+        int missing = HandBatch.BOARD_SIZE - CardSet.size(board);
+        if (countRunouts(liveCards.length, missing) * holeCards.length <= exhaustiveLimit) {
+            return CompletableFuture.supplyAsync(() -> enumerate(board, holeCards, liveCards, missing), pool);
+        }
+        long seed = new SplittableRandom().nextLong();
+        return CompletableFuture.supplyAsync(() -> new SampleTask(board, holeCards, liveCards, missing,
+                0, samples, deadline, new SplittableRandom(seed)).invoke(), pool);
+    }
+
+    // *****************************************************************************************
+    // Exhaustive
+    // *****************************************************************************************
+
+    private EquityDTO enumerate(long board, long[] holeCards, int[] liveCards, int missing) {
+        Counts counts = new Counts(holeCards.length);
+        int[] ranks = new int[holeCards.length];
+        enumerate(board, holeCards, liveCards, missing, 0, counts, ranks);
+        return counts.toDto(true);
+    }
+
+    private void enumerate(long board, long[] holeCards, int[] liveCards, int missing, int from,
+                           Counts counts, int[] ranks) {
+        if (missing == 0) {
+            counts.add(board, holeCards, ranks, rankEvaluator);
+            return;
+        }
+        for (int index = from; index <= liveCards.length - missing; index++) {
+            enumerate(CardSet.with(board, liveCards[index]), holeCards, liveCards, missing - 1, index + 1,
+                    counts, ranks);
+        }
+    }
+
+    // *****************************************************************************************
+    // Monte Carlo
+    // *****************************************************************************************
+
+    private final class SampleTask extends RecursiveTask<EquityDTO> {
+        private final long board;
+        private final long[] holeCards;
+        private final int[] liveCards;
+        private final int missing;
+        private final int from;
+        private final int to;
+        private final long deadline;
+        private final SplittableRandom random;
+
+        private SampleTask(long board, long[] holeCards, int[] liveCards, int missing,
+                           int from, int to, long deadline, SplittableRandom random) {
+            this.board = board;
+            this.holeCards = holeCards;
+            this.liveCards = liveCards;
+            this.missing = missing;
+            this.from = from;
+            this.to = to;
+            this.deadline = deadline;
+            this.random = random;
+        }
+
+        @Override
+        protected EquityDTO compute() {
+            if (to - from > SAMPLES_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                SampleTask left = new SampleTask(board, holeCards, liveCards, missing,
+                        from, middle, deadline, random.split());
+                SampleTask right = new SampleTask(board, holeCards, liveCards, missing,
+                        middle, to, deadline, random.split());
+                left.fork();
+                EquityDTO result = right.compute();
+                return merge(left.join(), result);
+            }
+            Counts counts = new Counts(holeCards.length);
+            int[] ranks = new int[holeCards.length];
+            int[] deck = liveCards.clone();
+            for (int sample = from; sample < to; sample++) {
+                if ((sample - from) % SAMPLES_PER_DEADLINE_CHECK == 0 && System.nanoTime() - deadline > 0) {
+                    break;
+                }
+                long runout = board;
+                for (int card = 0; card < missing; card++) { // partial Fisher-Yates over the live cards
+                    int swap = card + random.nextInt(deck.length - card);
+                    int drawn = deck[swap];
+                    deck[swap] = deck[card];
+                    deck[card] = drawn;
+                    runout = CardSet.with(runout, drawn);
+                }
+                counts.add(runout, holeCards, ranks, rankEvaluator);
+            }
+            return counts.toDto(false);
+        }
+
+        private EquityDTO merge(EquityDTO left, EquityDTO right) {
+            for (int hand = 0; hand < holeCards.length; hand++) {
+                left.getWins()[hand] += right.getWins()[hand];
+                left.getTies()[hand] += right.getTies()[hand];
+            }
+            left.setSamples(left.getSamples() + right.getSamples());
+            return left;
+        }
+    }
+
+    // *****************************************************************************************
+    // Helpers
+    // *****************************************************************************************
+
+    private static void validate(long board, long[] holeCards) {
+        if (CardSet.size(board) > HandBatch.BOARD_SIZE) {
+            throw new IllegalArgumentException("Too many community cards: " + CardSet.size(board));
+        }
+        if (holeCards.length < 2) {
+            throw new IllegalArgumentException("Not enough hands for equity: " + holeCards.length);
+        }
+        long dealt = board;
+        for (long hand : holeCards) {
+            if (CardSet.size(hand) != HandBatch.HOLE_CARDS) {
+                throw new IllegalArgumentException("Not enough hole cards: " + CardSet.size(hand));
+            }
+            if (CardSet.intersects(dealt, hand)) {
+                throw new IllegalArgumentException("Hole cards " + CardSet.toString(hand) + " dealt twice");
+            }
+            dealt = CardSet.union(dealt, hand);
+        }
+    }
+
+    private static int[] getLiveCards(long board, long[] holeCards) {
+        long live = CardSet.FULL_DECK & ~board;
+        for (long hand : holeCards) {
+            live &= ~hand;
+        }
+        int[] liveCards = new int[CardSet.size(live)];
+        for (int index = 0; live != 0; live = CardSet.removeFirst(live)) {
+            liveCards[index++] = CardSet.first(live);
+        }
+        return liveCards;
+    }
+
+    private static long countRunouts(int liveCards, int missing) {
+        long runouts = 1;
+        for (int card = 0; card < missing; card++) {
+            runouts = runouts * (liveCards - card) / (card + 1);
+        }
+        return runouts;
+    }
+
+    private record EquityKey(long board, List<Long> holeCards) {
+    }
+
+    private static final class Counts {
+        private final long[] wins;
+        private final long[] ties;
+        private long samples;
+
+        private Counts(int hands) {
+            wins = new long[hands];
+            ties = new long[hands];
+        }
+
+        private void add(long board, long[] holeCards, int[] ranks, RankEvaluator rankEvaluator) {
+            int best = 0;
+            int winners = 0;
+            for (int hand = 0; hand < holeCards.length; hand++) {
+                int rank = rankEvaluator.getRank(CardSet.union(board, holeCards[hand]));
+                ranks[hand] = rank;
+                if (rank > best) {
+                    best = rank;
+                    winners = 1;
+                } else if (rank == best) {
+                    winners++;
+                }
+            }
+            for (int hand = 0; hand < holeCards.length; hand++) {
+                if (ranks[hand] == best) {
+                    if (winners == 1) {
+                        wins[hand]++;
+                    } else {
+                        ties[hand]++;
+                    }
+                }
+            }
+            samples++;
+        }
+
+        private EquityDTO toDto(boolean exhaustive) {
+            EquityDTO dto = new EquityDTO();
+            dto.setWins(wins);
+            dto.setTies(ties);
+            dto.setSamples(samples);
+            dto.setExhaustive(exhaustive);
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.twb.pokerapp.service.eval;
+
+import com.twb.pokerapp.service.game.CardSet;
+
+import java.util.Arrays;
+
+/**
+ * The hands at a showdown (or a simulated one), ranked together by {@link RankEvaluator#evaluate(HandBatch)}.
+ * <p>
+ * Holds the five community cards once and the two hole cards of each hand as {@link CardSet}s, and
+ * receives a rank and {@link HandRanks category} per hand, and from {@link BitmaskEvaluator#evaluate(HandBatch)}
+ * or {@link BitmaskEvaluator#findBestFive(HandBatch)} the five cards making each hand. A batch can be {@link #clear() cleared}
+ * and reused, so evaluating in a loop does not allocate.
+ */
+public final class HandBatch {
+    public static final int BOARD_SIZE = 5;
+    public static final int HOLE_CARDS = 2;
+
+    long board;
+    long[] holeCards;
+    int[] ranks;
+    byte[] categories;
+    long[] bestFive;
+    int size;
+
+    public HandBatch(int capacity) {
+        holeCards = new long[capacity];
+        ranks = new int[capacity];
+        categories = new byte[capacity];
+        bestFive = new long[capacity];
+    }
+
+    /**
+     * Sets the community cards shared by every hand.
+     *
+     * @param communityCards the five community cards
+     * @throws IllegalArgumentException if there are not five community cards
+     */
+    public void setBoard(long communityCards) {
+        if (CardSet.size(communityCards) != BOARD_SIZE) {
+            throw new IllegalArgumentException("Not enough community cards: " + CardSet.size(communityCards));
+        }
+        board = communityCards;
+    }
+
+    /**
+     * Adds a hand to rank against the board.
+     *
+     * @param holeCards the player's two hole cards
+     * @return the index of the hand in the batch
+     * @throws IllegalArgumentException if there are not two hole cards or they are on the board
+     */
+    public int addHand(long holeCards) {
+        if (CardSet.size(holeCards) != HOLE_CARDS) {
+            throw new IllegalArgumentException("Not enough hole cards: " + CardSet.size(holeCards));
+        }
+        if (CardSet.intersects(board, holeCards)) {
+            throw new IllegalArgumentException("Hole cards " + CardSet.toString(holeCards)
+                    + " are on the board " + CardSet.toString(board));
+        }
+        if (size == ranks.length) {
+            int capacity = Math.max(2, size * 2);
+            this.holeCards = Arrays.copyOf(this.holeCards, capacity);
+            ranks = Arrays.copyOf(ranks, capacity);
+            categories = Arrays.copyOf(categories, capacity);
+            bestFive = Arrays.copyOf(bestFive, capacity);
+        }
+        this.holeCards[size] = holeCards;
+        return size++;
+    }
+
+    /**
+     * Removes all hands, keeping the board and the capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getRank(int hand) {
+        return ranks[hand];
+    }
+
+    public int getCategory(int hand) {
+        return categories[hand];
+    }
+
+    /**
+     * Returns the five cards making the hand as a {@link CardSet}, only set by {@link BitmaskEvaluator}.
+     */
+    public long getBestFive(int hand) {
+        return bestFive[hand];
+    }
+
+    void setResult(int hand, int rank) {
+        ranks[hand] = rank;
+        categories[hand] = (byte) HandRanks.getCategory(rank);
+    }
+}
@@ -1,27 +1,93 @@
 package com.twb.pokerapp.service.eval;
 
 import com.twb.pokerapp.service.eval.dto.EvalPlayerHandDTO;
+import com.twb.pokerapp.service.game.CardSet;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.Comparator;
 import java.util.List;
 
+/**
+ * Ranks the hands at a showdown and marks the winners. Each hand also gets the five cards that make it.
+ * <p>
+ * Hold'em hands are ranked by the configured {@link RankEvaluator}, and their best five cards found
+ * afterwards by {@link BitmaskEvaluator}. Omaha hands are ranked by {@link OmahaEvaluator}, which the
+ * seven card evaluators cannot do. The batch and buffer are kept per game thread, so a showdown does not allocate.
+ */
 @Component
 @RequiredArgsConstructor
 public class HandEvaluator {
+    private static final int SEATS = 10; // batches grow past this if needed
+
+    private final ThreadLocal<HandBatch> batches = ThreadLocal.withInitial(() -> new HandBatch(SEATS));
+    private final ThreadLocal<long[]> bestFiveBuffers = ThreadLocal.withInitial(() -> new long[1]);
     private final RankEvaluator rankEvaluator;
-    private final HandTypeEvaluator handTypeEvaluator;
 
-    public void evaluate(List<EvalPlayerHandDTO> playerHandList) {
-        evaluateRankAndHandType(playerHandList);
+    public void evaluate(long communityCards, List<EvalPlayerHandDTO> playerHandList) {
+        evaluateRankAndHandType(communityCards, playerHandList);
         setWinners(playerHandList);
     }
 
-    private void evaluateRankAndHandType(List<EvalPlayerHandDTO> playerHandList) {
+    /**
+     * Ranks Omaha hands, each using exactly two hole cards and three community cards.
+     *
+     * @param communityCards the five community cards
+     * @param playerHandList the hands at the showdown, each with four hole cards
+     */
+    public void evaluateOmaha(long communityCards, List<EvalPlayerHandDTO> playerHandList) {
+        long[] bestFive = bestFiveBuffers.get();
         for (EvalPlayerHandDTO playerHand : playerHandList) {
-            playerHand.setRank(rankEvaluator.getRank(playerHand.getCards()));
-            playerHand.setHandType(handTypeEvaluator.evaluate(playerHand.getCards()));
+            int rank = OmahaEvaluator.getRank(communityCards, playerHand.getHoleCards(), bestFive, 0);
+            playerHand.setRank(rank);
+            playerHand.setHandType(HandRanks.getHandType(rank));
+            playerHand.setBestFive(bestFive[0]);
+        }
+        setWinners(playerHandList);
+    }
+
+    /**
+     * Ranks the best hand a player holds so far, from the flop onwards.
+     *
+     * @param communityCards the three to five community cards dealt
+     * @param holeCards      the player's hole cards
+     * @return the rank of the best five cards, see {@link HandRanks}
+     */
+    public int getCurrentRank(long communityCards, long holeCards) {
+        long cards = CardSet.union(communityCards, holeCards);
+        if (CardSet.size(cards) == RankEvaluator.HAND_SIZE) {
+            return rankEvaluator.getRank(cards);
+        }
+        return BitmaskEvaluator.getRank(cards);
+    }
+
+    /**
+     * Ranks the best Omaha hand a player holds so far, from the flop onwards.
+     *
+     * @param communityCards the three to five community cards dealt
+     * @param holeCards      the player's four hole cards
+     * @return the rank of the best two hole cards with three community cards, see {@link HandRanks}
+     */
+    public int getCurrentOmahaRank(long communityCards, long holeCards) {
+        return OmahaEvaluator.getRank(communityCards, holeCards);
+    }
+
+    private void evaluateRankAndHandType(long communityCards, List<EvalPlayerHandDTO> playerHandList) {
+        HandBatch batch = batches.get();
+        batch.clear();
+        batch.setBoard(communityCards);
+        for (EvalPlayerHandDTO playerHand : playerHandList) {
+            batch.addHand(playerHand.getHoleCards());
+        }
+        rankEvaluator.evaluate(batch);
+        BitmaskEvaluator.findBestFive(batch);
+
+        for (int index = 0; index < playerHandList.size(); index++) {
+            EvalPlayerHandDTO playerHand = playerHandList.get(index);
+            int rank = batch.getRank(index);
+            playerHand.setRank(rank);
+            playerHand.setHandType(HandRanks.getHandType(rank));
+            playerHand.setBestFive(batch.getBestFive(index));
         }
     }
 
@@ -0,0 +1,126 @@
+package com.twb.pokerapp.service.eval;
+
+import com.twb.pokerapp.domain.enumeration.RankType;
+import com.twb.pokerapp.service.game.CardSet;
+
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Parses hand ranges in the usual notation into the two card combos they hold, as {@link CardSet}s.
+ * <p>
+ * A range is a comma separated list of:
+ * <ul>
+ *     <li>pairs: {@code TT}, {@code TT+} (tens or better), {@code TT-77}</li>
+ *     <li>suited, offsuit or any two cards: {@code AKs}, {@code AKo}, {@code AK}</li>
+ *     <li>kicker runs: {@code A2s+} (up to {@code AKs}), {@code KTo-K8o}</li>
+ *     <li>exact combos: {@code AhKh}</li>
+ * </ul>
+ * Ranks may be either case. Combos listed more than once are counted once.
+ */
+public final class HandRange {
+    private static final int ANY = 0;
+    private static final int SUITED = 1;
+    private static final int OFFSUIT = 2;
+
+    private HandRange() {
+    }
+
+    /**
+     * Parses a range into the hole card combos it holds.
+     *
+     * @param range the range, e.g. {@code "AKs, TT+, 76s"}
+     * @return the distinct combos, in increasing order
+     * @throws IllegalArgumentException if the range is empty or not valid notation
+     */
+    public static long[] parse(String range) {
+        Set<Long> combos = new TreeSet<>();
+        for (String token : range.split(",", -1)) {
+            String hand = token.strip();
+            if (!hand.isEmpty()) {
+                parseHand(hand, combos);
+            }
+        }
+        if (combos.isEmpty()) {
+            throw new IllegalArgumentException("Empty range: " + range);
+        }
+        return combos.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private static void parseHand(String hand, Set<Long> combos) {
+        if (hand.length() == 4 && !hand.contains("+") && !hand.contains("-")) {
+            long combo = CardSet.parse(hand);
+            if (CardSet.size(combo) != HandBatch.HOLE_CARDS) {
+                throw new IllegalArgumentException("Invalid hand: " + hand);
+            }
+            combos.add(combo);
+            return;
+        }
+        boolean plus = hand.endsWith("+");
+        String[] bounds = (plus ? hand.substring(0, hand.length() - 1) : hand).split("-", -1);
+        if (bounds.length > 2 || (plus && bounds.length > 1)) {
+            throw new IllegalArgumentException("Invalid hand: " + hand);
+        }
+        Hand from = Hand.parse(bounds[0], hand);
+        Hand to = bounds.length == 2 ? Hand.parse(bounds[1], hand) : from;
+
+        if (from.isPair()) {
+            if (!to.isPair()) {
+                throw new IllegalArgumentException("Invalid hand: " + hand);
+            }
+            int high = plus ? RankType.ACE.getPosition() : Math.max(from.high, to.high);
+            for (int rank = Math.min(from.high, to.high); rank <= high; rank++) {
+                addCombos(rank, rank, ANY, combos);
+            }
+            return;
+        }
+        if (to.high != from.high || to.suits != from.suits || to.isPair()) {
+            throw new IllegalArgumentException("Invalid hand: " + hand);
+        }
+        int highKicker = plus ? from.high - 1 : Math.max(from.low, to.low);
+        for (int kicker = Math.min(from.low, to.low); kicker <= highKicker; kicker++) {
+            addCombos(from.high, kicker, from.suits, combos);
+        }
+    }
+
+    private static void addCombos(int high, int low, int suits, Set<Long> combos) {
+        for (int first = 0; first < CardSet.SUITS; first++) {
+            for (int second = 0; second < CardSet.SUITS; second++) {
+                boolean suited = first == second;
+                if ((high == low && second <= first)
+                        || (suits == SUITED && !suited)
+                        || (suits == OFFSUIT && suited)) {
+                    continue;
+                }
+                combos.add(CardSet.of(high * CardSet.SUITS + first, low * CardSet.SUITS + second));
+            }
+        }
+    }
+
+    private record Hand(int high, int low, int suits) {
+
+        private static Hand parse(String name, String hand) {
+            if (name.length() < 2 || name.length() > 3) {
+                throw new IllegalArgumentException("Invalid hand: " + hand);
+            }
+            int first = CardSet.parseRank(name.charAt(0));
+            int second = CardSet.parseRank(name.charAt(1));
+            int suits = ANY;
+            if (name.length() == 3) {
+                suits = switch (Character.toLowerCase(name.charAt(2))) {
+                    case 's' -> SUITED;
+                    case 'o' -> OFFSUIT;
+                    default -> throw new IllegalArgumentException("Invalid hand: " + hand);
+                };
+                if (first == second) {
+                    throw new IllegalArgumentException("Invalid hand: " + hand);
+                }
+            }
+            return new Hand(Math.max(first, second), Math.min(first, second), suits);
+        }
+
+        private boolean isPair() {
+            return high == low;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.twb.pokerapp.service.eval;
+
+import com.twb.pokerapp.domain.enumeration.HandType;
+
+/**
+ * Hand categories of the seven card ranks returned by a {@link RankEvaluator}.
+ * <p>
+ * The ranks of each category form one contiguous range, so the category and {@link HandType}
+ * are table lookups.
+ */
+public final class HandRanks {
+    public static final int HIGH_CARD = 0;
+    public static final int PAIR = 1;
+    public static final int TWO_PAIR = 2;
+    public static final int THREE_OF_A_KIND = 3;
+    public static final int STRAIGHT = 4;
+    public static final int FLUSH = 5;
+    public static final int FULL_HOUSE = 6;
+    public static final int FOUR_OF_A_KIND = 7;
+    public static final int STRAIGHT_FLUSH = 8;
+
+    public static final int MAX_RANK = 7462; // royal flush
+
+    // lowest rank of each category above high card
+    private static final int[] CATEGORY_START_RANKS = {1278, 4138, 4996, 5854, 5864, 7141, 7297, 7453};
+    private static final byte[] CATEGORIES = new byte[MAX_RANK + 1];
+    private static final HandType[] CATEGORY_HAND_TYPES = {
+            HandType.HIGH_CARD, HandType.PAIR, HandType.TWO_PAIR, HandType.THREE_OF_A_KIND, HandType.STRAIGHT,
+            HandType.FLUSH, HandType.FULL_HOUSE, HandType.FOUR_OF_A_KIND, HandType.STRAIGHT_FLUSH
+    };
+
+    static {
+        int category = HIGH_CARD;
+        for (int rank = 0; rank <= MAX_RANK; rank++) {
+            if (category < CATEGORY_START_RANKS.length && rank == CATEGORY_START_RANKS[category]) {
+                category++;
+            }
+            CATEGORIES[rank] = (byte) category;
+        }
+    }
+
+    private HandRanks() {
+    }
+
+    /**
+     * Maps a rank to its hand category.
+     *
+     * @param rank a seven card rank, from 1 (worst high card) to {@link #MAX_RANK}
+     * @return the hand category, from {@link #HIGH_CARD} to {@link #STRAIGHT_FLUSH}
+     */
+    public static int getCategory(int rank) {
+        return CATEGORIES[rank];
+    }
+
+    /**
+     * Maps a rank to the hand type shown to players.
+     *
+     * @param rank a seven card rank, from 1 (worst high card) to {@link #MAX_RANK}
+     * @return the hand type, the best straight flush being a {@link HandType#ROYAL_FLUSH}
+     */
+    public static HandType getHandType(int rank) {
+        if (rank == MAX_RANK) {
+            return HandType.ROYAL_FLUSH;
+        }
+        return CATEGORY_HAND_TYPES[CATEGORIES[rank]];
+    }
+}
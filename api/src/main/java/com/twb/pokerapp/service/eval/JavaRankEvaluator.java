@@ -0,0 +1,155 @@
+package com.twb.pokerapp.service.eval;
+
+import com.twb.pokerapp.service.game.CardSet;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Evaluates the rank of a poker hand in plain Java, a port of SKPokerEval's {@code SevenEval::GetRank}.
+ * <p>
+ * Returns the same ranks as {@link NativeRankEvaluator} without the native library or a JNI transition
+ * per hand. The flush and rank hash tables are generated from the headers in {@code src/main/cpp} by
+ * {@code SevenEvalTableGenerator} and loaded once from the classpath, evaluating does not allocate.
+ */
+@Component
+@ConditionalOnProperty(name = "app.eval.rank-evaluator", havingValue = "java", matchIfMissing = true)
+public class JavaRankEvaluator implements RankEvaluator {
+    public static final String TABLES_RESOURCE = "eval/seven-eval.tables";
+
+    // *****************************************************************************************
+    // SKPokerEval Constants
+    // *****************************************************************************************
+    private static final int FLUSH_BIT_SHIFT = 23;
+    private static final int FACE_BIT_MASK = (1 << FLUSH_BIT_SHIFT) - 1;
+    private static final int RANK_OFFSET_SHIFT = 9;
+    private static final int RANK_HASH_MOD = (1 << RANK_OFFSET_SHIFT) - 1;
+    private static final int NOT_A_SUIT = -1;
+
+    // ace down to two, chosen so that any seven faces sum to a unique key
+    private static final int[] FACE_KEYS = {
+            1479181, 636345, 262349, 83661, 22854, 8698, 2031, 453, 98, 22, 5, 1, 0
+    };
+    // spade, heart, diamond, club, chosen so that a suit with five or more cards shows in the sum
+    private static final int[] SUIT_KEYS = {0, 1, 8, 57};
+
+    private static final int[] CARD_KEYS = new int[DECK_SIZE];
+    private static final int[] CARD_SUITS = new int[DECK_SIZE];
+    private static final int[] CARD_FLUSH_BITS = new int[DECK_SIZE];
+    private static final int[] BIT_KEYS = new int[Long.SIZE]; // card keys by CardSet bit
+
+    private static final byte[] FLUSH_CHECK;
+    private static final char[] FLUSH_RANKS;
+    private static final char[] RANK_OFFSETS;
+    private static final char[] RANK_HASH;
+
+    static {
+        for (int card = 0; card < DECK_SIZE; card++) {
+            int face = card >> 2;
+            int suit = card & 3;
+            CARD_KEYS[card] = FACE_KEYS[face] + (SUIT_KEYS[suit] << FLUSH_BIT_SHIFT);
+            CARD_SUITS[card] = suit;
+            CARD_FLUSH_BITS[card] = 1 << (FACE_KEYS.length - 1 - face);
+        }
+        for (int card = 0; card < DECK_SIZE; card++) {
+            BIT_KEYS[CardSet.bitOf(card)] = CARD_KEYS[RankEvaluator.toCardIndex(card)];
+        }
+        try (InputStream resource = JavaRankEvaluator.class.getClassLoader().getResourceAsStream(TABLES_RESOURCE)) {
+            if (resource == null) {
+                throw new IllegalStateException("Missing rank evaluator tables: " + TABLES_RESOURCE);
+            }
+            DataInputStream in = new DataInputStream(new BufferedInputStream(resource));
+            FLUSH_CHECK = readBytes(in);
+            FLUSH_RANKS = readChars(in);
+            RANK_OFFSETS = readChars(in);
+            RANK_HASH = readChars(in);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load rank evaluator tables: " + TABLES_RESOURCE, e);
+        }
+    }
+
+    @Override
+    public int getRank(int i, int j, int k, int m, int n, int p, int q) {
+        // the key can pass 2^31, the unsigned shift and the masked hash only need its low 32 bits
+        int key = CARD_KEYS[i] + CARD_KEYS[j] + CARD_KEYS[k] + CARD_KEYS[m]
+                + CARD_KEYS[n] + CARD_KEYS[p] + CARD_KEYS[q];
+        int suit = FLUSH_CHECK[key >>> FLUSH_BIT_SHIFT];
+        if (suit != NOT_A_SUIT) {
+            int flushKey = flushBit(i, suit) | flushBit(j, suit) | flushBit(k, suit) | flushBit(m, suit)
+                    | flushBit(n, suit) | flushBit(p, suit) | flushBit(q, suit);
+            return FLUSH_RANKS[flushKey];
+        }
+        int hash = FACE_BIT_MASK & (31 * key);
+        return RANK_HASH[RANK_OFFSETS[hash >>> RANK_OFFSET_SHIFT] + (hash & RANK_HASH_MOD)];
+    }
+
+    /**
+     * A {@link CardSet} keeps each suit's ranks in their own lane, deuce lowest like the flush keys,
+     * so a flush is ranked straight from the set.
+     */
+    @Override
+    public int getRank(long cards) {
+        if (CardSet.size(cards) != HAND_SIZE) {
+            throw new IllegalArgumentException("Not enough cards in hand: " + CardSet.size(cards));
+        }
+        int key = 0;
+        for (long rest = cards; rest != 0; rest &= rest - 1) {
+            key += BIT_KEYS[Long.numberOfTrailingZeros(rest)];
+        }
+        return rankOf(key, cards);
+    }
+
+    /**
+     * Sums the board's keys once, each hand then only adds its two hole cards.
+     */
+    @Override
+    public void evaluate(HandBatch batch) {
+        long board = batch.board;
+        int boardKey = 0;
+        for (long rest = board; rest != 0; rest &= rest - 1) {
+            boardKey += BIT_KEYS[Long.numberOfTrailingZeros(rest)];
+        }
+        long[] holeCards = batch.holeCards;
+        int[] ranks = batch.ranks;
+        byte[] categories = batch.categories;
+        for (int hand = 0, size = batch.size; hand < size; hand++) {
+            long cards = holeCards[hand];
+            int key = boardKey + BIT_KEYS[Long.numberOfTrailingZeros(cards)]
+                    + BIT_KEYS[Long.SIZE - 1 - Long.numberOfLeadingZeros(cards)];
+            int rank = rankOf(key, board | cards);
+            ranks[hand] = rank;
+            categories[hand] = (byte) HandRanks.getCategory(rank);
+        }
+    }
+
+    private static int rankOf(int key, long cards) {
+        int suit = FLUSH_CHECK[key >>> FLUSH_BIT_SHIFT];
+        if (suit != NOT_A_SUIT) {
+            return FLUSH_RANKS[CardSet.suitRanks(cards, suit)];
+        }
+        int hash = FACE_BIT_MASK & (31 * key);
+        return RANK_HASH[RANK_OFFSETS[hash >>> RANK_OFFSET_SHIFT] + (hash & RANK_HASH_MOD)];
+    }
+
+    private static int flushBit(int card, int suit) {
+        return CARD_SUITS[card] == suit ? CARD_FLUSH_BITS[card] : 0;
+    }
+
+    private static byte[] readBytes(DataInputStream in) throws IOException {
+        byte[] table = new byte[in.readInt()];
+        in.readFully(table);
+        return table;
+    }
+
+    private static char[] readChars(DataInputStream in) throws IOException {
+        char[] table = new char[in.readInt()];
+        for (int index = 0; index < table.length; index++) {
+            table[index] = in.readChar();
+        }
+        return table;
+    }
+}
@@ -0,0 +1,41 @@
+package com.twb.pokerapp.service.eval;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evaluates the rank of a poker hand using a native method.
+ * <p>
+ * Needs {@code EVALUATOR_SO_PATH} pointing at the library built from {@code src/main/cpp}:
+ * <pre>
+ * g++ -O2 -shared -fPIC -o evaluator.so src/main/cpp/*.cpp -I $JAVA_HOME/include -I $JAVA_HOME/include/linux
+ * </pre>
+ */
+@Component
+@ConditionalOnProperty(name = "app.eval.rank-evaluator", havingValue = "native")
+public class NativeRankEvaluator implements RankEvaluator {
+
+    static {
+        // Load the native library containing the evaluator function
+        System.load(System.getenv("EVALUATOR_SO_PATH"));
+    }
+
+    /**
+     * Native method to evaluate the rank of a hand of cards.
+     *
+     * @param i the index of the first card
+     * @param j the index of the second card
+     * @param k the index of the third card
+     * @param m the index of the fourth card
+     * @param n the index of the fifth card
+     * @param p the index of the sixth card
+     * @param q the index of the seventh card
+     * @return the rank of the hand
+     */
+    static native int evaluate(int i, int j, int k, int m, int n, int p, int q);
+
+    @Override
+    public int getRank(int i, int j, int k, int m, int n, int p, int q) {
+        return evaluate(i, j, k, m, n, p, q);
+    }
+}
@@ -0,0 +1,209 @@
+package com.twb.pokerapp.service.eval;
+
+import com.twb.pokerapp.service.game.CardSet;
+
+/**
+ * Ranks the best Omaha hand: exactly two of the four hole cards with exactly three of the community cards.
+ * <p>
+ * Rather than ranking each of the 60 five card hands (6 hole pairs by 10 board triples on the river)
+ * from scratch, every rank gets a key chosen so that the keys of any five ranks add up to a different
+ * sum. Ignoring flushes a hand then only depends on its sum, so the keys of each board triple and each
+ * hole pair are added once and every combination is one addition and one lookup in a table of the
+ * non-flush ranks by sum. A flush needs two hole cards and three community cards of one suit, and at
+ * most one suit can have three community cards, so flushes are checked separately for that suit alone.
+ * Ranks are on the same scale as {@link RankEvaluator} (see {@link HandRanks}).
+ */
+public final class OmahaEvaluator {
+    public static final int HOLE_CARDS = 4;
+    public static final int MIN_BOARD_SIZE = 3;
+
+    private static final int HOLE_CARDS_USED = 2;
+    private static final int BOARD_CARDS_USED = 3;
+    private static final int HAND_SIZE = HOLE_CARDS_USED + BOARD_CARDS_USED;
+    private static final int RANK_BITS = 0xF; // a card's rank within its CardSet suit
+
+    /**
+     * The smallest increasing keys for which the sums of five ranks, each used up to four times, are
+     * unique (found by a greedy search), so the lookup table needs 5 * 79415 + 1 entries.
+     */
+    private static final int[] RANK_KEYS = {0, 1, 5, 22, 94, 312, 992, 2422, 5624, 12522, 19998, 43258, 79415};
+    private static final char[] RANKS_BY_KEY = new char[HAND_SIZE * RANK_KEYS[CardSet.RANKS - 1] + 1];
+
+    /**
+     * Straights as rank masks, ace high first, ending with the wheel.
+     */
+    private static final int[] STRAIGHTS = {
+            0b1_1111_0000_0000, 0b0_1111_1000_0000, 0b0_0111_1100_0000, 0b0_0011_1110_0000, 0b0_0001_1111_0000,
+            0b0_0000_1111_1000, 0b0_0000_0111_1100, 0b0_0000_0011_1110, 0b0_0000_0001_1111, 0b1_0000_0000_1111
+    };
+
+    static {
+        fillRanks(0, HAND_SIZE, 0, CardSet.EMPTY);
+    }
+
+    private OmahaEvaluator() {
+    }
+
+    /**
+     * Ranks an Omaha hand.
+     *
+     * @param board     three to five community cards
+     * @param holeCards the player's four hole cards
+     * @return the rank of the best hand using two hole cards and three community cards,
+     * from 1 (worst high card) to {@link HandRanks#MAX_RANK}
+     * @throws IllegalArgumentException if the number of cards is wrong or the hole cards are on the board
+     */
+    public static int getRank(long board, long holeCards) {
+        return getRank(board, holeCards, null, 0);
+    }
+
+    /**
+     * Ranks the best Omaha hand and, in the same pass, stores the two hole cards and three community
+     * cards that make it.
+     *
+     * @param board     three to five community cards
+     * @param holeCards the player's four hole cards
+     * @param bestFive  receives the best five cards as a {@link CardSet} at {@code index}, or null to only rank
+     * @param index     the position in {@code bestFive} to store at
+     * @return the rank of the best hand using two hole cards and three community cards,
+     * from 1 (worst high card) to {@link HandRanks#MAX_RANK}
+     * @throws IllegalArgumentException if the number of cards is wrong or the hole cards are on the board
+     */
+    public static int getRank(long board, long holeCards, long[] bestFive, int index) {
+        int boardSize = CardSet.size(board);
+        if (boardSize < MIN_BOARD_SIZE || boardSize > HandBatch.BOARD_SIZE) {
+            throw new IllegalArgumentException("Board must have 3 to 5 cards: " + boardSize);
+        }
+        if (CardSet.size(holeCards) != HOLE_CARDS) {
+            throw new IllegalArgumentException("Not enough hole cards: " + CardSet.size(holeCards));
+        }
+        if (CardSet.intersects(board, holeCards)) {
+            throw new IllegalArgumentException("Hole cards " + CardSet.toString(holeCards)
+                    + " are on the board " + CardSet.toString(board));
+        }
+
+        int best = 0;
+        long five = CardSet.EMPTY;
+        for (int suit = 0; suit < CardSet.SUITS; suit++) {
+            int boardSuit = CardSet.suitRanks(board, suit);
+            if (Integer.bitCount(boardSuit) >= BOARD_CARDS_USED) {
+                int holeSuit = CardSet.suitRanks(holeCards, suit);
+                if (Integer.bitCount(holeSuit) >= HOLE_CARDS_USED) {
+                    int flush = getFlushRanks(holeSuit, boardSuit);
+                    best = BitmaskEvaluator.getRank(flush);
+                    five = CardSet.ofSuitRanks(flush, suit);
+                    if (HandRanks.getCategory(best) == HandRanks.STRAIGHT_FLUSH) {
+                        return store(bestFive, index, five, best);
+                    }
+                }
+                break;
+            }
+        }
+
+        long rest = holeCards;
+        int first = keyOf(rest);
+        int second = keyOf(rest &= rest - 1);
+        int third = keyOf(rest &= rest - 1);
+        int fourth = keyOf(rest & (rest - 1));
+        int pair1 = first + second, pair2 = first + third, pair3 = first + fourth;
+        int pair4 = second + third, pair5 = second + fourth, pair6 = third + fourth;
+
+        long bestTriple = CardSet.EMPTY;
+        for (long i = board; i != 0; i &= i - 1) {
+            for (long j = i & (i - 1); j != 0; j &= j - 1) {
+                for (long k = j & (j - 1); k != 0; k &= k - 1) {
+                    int triple = keyOf(i) + keyOf(j) + keyOf(k);
+                    int tripleBest = Math.max(
+                            Math.max(RANKS_BY_KEY[triple + pair1], RANKS_BY_KEY[triple + pair2]),
+                            Math.max(Math.max(RANKS_BY_KEY[triple + pair3], RANKS_BY_KEY[triple + pair4]),
+                                    Math.max(RANKS_BY_KEY[triple + pair5], RANKS_BY_KEY[triple + pair6])));
+                    if (tripleBest > best) {
+                        best = tripleBest;
+                        bestTriple = Long.lowestOneBit(i) | Long.lowestOneBit(j) | Long.lowestOneBit(k);
+                    }
+                }
+            }
+        }
+        if (bestFive != null && bestTriple != CardSet.EMPTY) {
+            five = bestTriple | getBestPair(bestTriple, holeCards, best);
+        }
+        return store(bestFive, index, five, best);
+    }
+
+    // *****************************************************************************************
+    // Helpers
+    // *****************************************************************************************
+
+    /**
+     * The ranks of the best straight flush or flush from two of the hole ranks and three of the
+     * board ranks of one suit.
+     */
+    private static int getFlushRanks(int holeSuit, int boardSuit) {
+        for (int straight : STRAIGHTS) {
+            // hole and board ranks of one suit never overlap, so two from the hole leaves three from the board
+            if ((straight & ~(holeSuit | boardSuit)) == 0 && Integer.bitCount(straight & holeSuit) == HOLE_CARDS_USED) {
+                return straight;
+            }
+        }
+        return highest(holeSuit, HOLE_CARDS_USED) | highest(boardSuit, BOARD_CARDS_USED);
+    }
+
+    /**
+     * Finds the hole pair that makes the rank with the board triple, once the triple is known.
+     */
+    private static long getBestPair(long triple, long holeCards, int rank) {
+        int tripleKey = keyOf(triple) + keyOf(triple & (triple - 1)) + keyOf(Long.highestOneBit(triple));
+        for (long i = holeCards; i != 0; i &= i - 1) {
+            for (long j = i & (i - 1); j != 0; j &= j - 1) {
+                if (RANKS_BY_KEY[tripleKey + keyOf(i) + keyOf(j)] == rank) {
+                    return Long.lowestOneBit(i) | Long.lowestOneBit(j);
+                }
+            }
+        }
+        throw new IllegalStateException("No hole pair makes rank " + rank);
+    }
+
+    private static int store(long[] bestFive, int index, long five, int rank) {
+        if (bestFive != null) {
+            bestFive[index] = five;
+        }
+        return rank;
+    }
+
+    /**
+     * Keeps the {@code count} highest ranks.
+     */
+    private static int highest(int ranks, int count) {
+        while (Integer.bitCount(ranks) > count) {
+            ranks &= ranks - 1;
+        }
+        return ranks;
+    }
+
+    /**
+     * @return the key of the lowest card in a non-empty set
+     */
+    private static int keyOf(long cards) {
+        return RANK_KEYS[Long.numberOfTrailingZeros(cards) & RANK_BITS];
+    }
+
+    /**
+     * Ranks every multiset of five ranks by its key sum, dealing the cards of each rank to different
+     * suits in turn so no five share a suit.
+     */
+    private static void fillRanks(int rank, int remaining, int key, long cards) {
+        if (remaining == 0) {
+            RANKS_BY_KEY[key] = (char) BitmaskEvaluator.getRank(cards);
+            return;
+        }
+        if (rank == CardSet.RANKS) {
+            return;
+        }
+        long rankCards = cards;
+        for (int count = 0; count <= Math.min(CardSet.SUITS, remaining); count++) {
+            fillRanks(rank + 1, remaining - count, key + count * RANK_KEYS[rank], rankCards);
+            int suit = (CardSet.size(cards) + count) % CardSet.SUITS;
+            rankCards = CardSet.with(rankCards, rank * CardSet.SUITS + suit);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.twb.pokerapp.service.eval;
+
+import com.twb.pokerapp.service.game.CardSet;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Preflop all-in equities of every heads-up and three-way matchup of the 169 starting hands.
+ * <p>
+ * The table is generated by {@code PreflopMatchupTableGenerator} and memory-mapped at startup, from
+ * {@code app.eval.preflop-table.path} or else from a copy of the bundled resource, so it costs no heap
+ * and a lookup is one read from the mapping. The CRC32 in the header is checked when it is mapped.
+ * <p>
+ * Starting hands are indexed on the 13 by 13 grid: {@code high * 13 + low} for pairs and suited hands and
+ * {@code low * 13 + high} for offsuit hands, ranks from 0 (deuce) to 12 (ace).
+ * <p>
+ * Layout, big-endian: a header of magic, version, hand count, heads-up samples, three-way samples and
+ * CRC32 of everything after the header (ints); for every ordered pair of hands the first hand's win and
+ * tie chance; for every three hands {@code a <= b <= c} (in combinatorial order) the equity of each of
+ * them, where equity counts a tie as a share of the pot. Chances are unsigned shorts scaled by 65535.
+ */
+@Component
+public class PreflopMatchupTable {
+    private static final Logger logger = LoggerFactory.getLogger(PreflopMatchupTable.class);
+
+    public static final String TABLE_RESOURCE = "eval/preflop-matchups.table";
+    public static final int MAGIC = 0x50464D54; // PFMT
+    public static final int VERSION = 1;
+    public static final int HANDS = CardSet.RANKS * CardSet.RANKS;
+    public static final int HEADER_BYTES = 6 * Integer.BYTES;
+    public static final int HEADS_UP_ENTRY_BYTES = 2 * Character.BYTES;
+    public static final int THREE_WAY_ENTRY_BYTES = 3 * Character.BYTES;
+    public static final int THREE_WAY_MATCHUPS = HANDS * (HANDS + 1) * (HANDS + 2) / 6;
+    public static final long TABLE_BYTES = HEADER_BYTES
+            + (long) HANDS * HANDS * HEADS_UP_ENTRY_BYTES
+            + (long) THREE_WAY_MATCHUPS * THREE_WAY_ENTRY_BYTES;
+    public static final double SCALE = Character.MAX_VALUE;
+
+    private static final int THREE_WAY_OFFSET = HEADER_BYTES + HANDS * HANDS * HEADS_UP_ENTRY_BYTES;
+
+    private MappedByteBuffer table;
+
+    @Value("${app.eval.preflop-table.path:}")
+    private String tablePath;
+
+    @PostConstruct
+    public void init() {
+        try {
+            Path path = tablePath.isBlank() ? extractResource() : Path.of(tablePath);
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                table = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            validate(table);
+            logger.info("Mapped preflop matchup table {} ({} bytes)", path, table.capacity());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map preflop matchup table", e);
+        }
+    }
+
+    // *****************************************************************************************
+    // Lookups
+    // *****************************************************************************************
+
+    /**
+     * Returns the chance {@code hand} wins outright against {@code opponent}.
+     */
+    public double getHeadsUpWin(int hand, int opponent) {
+        return table.getChar(headsUpOffset(hand, opponent)) / SCALE;
+    }
+
+    /**
+     * Returns the chance {@code hand} and {@code opponent} split the pot.
+     */
+    public double getHeadsUpTie(int hand, int opponent) {
+        return table.getChar(headsUpOffset(hand, opponent) + Character.BYTES) / SCALE;
+    }
+
+    /**
+     * Returns the share of the pot {@code hand} wins on average against {@code opponent}.
+     */
+    public double getHeadsUpEquity(int hand, int opponent) {
+        return getHeadsUpWin(hand, opponent) + getHeadsUpTie(hand, opponent) / 2;
+    }
+
+    /**
+     * Returns the share of the pot {@code hand} wins on average against both opponents.
+     */
+    public double getThreeWayEquity(int hand, int firstOpponent, int secondOpponent) {
+        int low = Math.min(hand, Math.min(firstOpponent, secondOpponent));
+        int high = Math.max(hand, Math.max(firstOpponent, secondOpponent));
+        int middle = hand + firstOpponent + secondOpponent - low - high;
+        int position = hand == low ? 0 : hand == middle ? 1 : 2;
+        int offset = THREE_WAY_OFFSET + threeWayIndex(low, middle, high) * THREE_WAY_ENTRY_BYTES;
+        return table.getChar(offset + position * Character.BYTES) / SCALE;
+    }
+
+    // *****************************************************************************************
+    // Starting Hands
+    // *****************************************************************************************
+
+    /**
+     * Finds the starting hand of two hole cards.
+     *
+     * @param holeCards two hole cards
+     * @return the index of their starting hand
+     * @throws IllegalArgumentException if there are not two hole cards
+     */
+    public static int getHandIndex(long holeCards) {
+        if (CardSet.size(holeCards) != HandBatch.HOLE_CARDS) {
+            throw new IllegalArgumentException("Not enough hole cards: " + CardSet.size(holeCards));
+        }
+        int first = CardSet.first(holeCards);
+        int second = CardSet.first(CardSet.removeFirst(holeCards));
+        int high = Math.max(CardSet.rankOf(first), CardSet.rankOf(second));
+        int low = Math.min(CardSet.rankOf(first), CardSet.rankOf(second));
+        return getHandIndex(high, low, CardSet.suitOf(first) == CardSet.suitOf(second));
+    }
+
+    /**
+     * Finds a starting hand by name.
+     *
+     * @param name a starting hand such as {@code "AKs"}, {@code "T9o"} or {@code "QQ"}
+     * @return the index of the starting hand
+     * @throws IllegalArgumentException if the name is not a starting hand
+     */
+    public static int getHandIndex(String name) {
+        String hand = name.strip();
+        if (hand.length() < 2 || hand.length() > 3) {
+            throw new IllegalArgumentException("Invalid starting hand: " + name);
+        }
+        int first = CardSet.parseRank(hand.charAt(0));
+        int second = CardSet.parseRank(hand.charAt(1));
+        boolean pair = first == second;
+        char suits = hand.length() == 3 ? Character.toLowerCase(hand.charAt(2)) : ' ';
+        if (pair != (suits == ' ') || (!pair && suits != 's' && suits != 'o')) {
+            throw new IllegalArgumentException("Invalid starting hand: " + name);
+        }
+        return getHandIndex(Math.max(first, second), Math.min(first, second), suits == 's');
+    }
+
+    public static int getHandIndex(int high, int low, boolean suited) {
+        return high == low || suited ? high * CardSet.RANKS + low : low * CardSet.RANKS + high;
+    }
+
+    /**
+     * Returns the position of hands {@code low <= middle <= high} among all three-way matchups.
+     */
+    public static int threeWayIndex(int low, int middle, int high) {
+        return high * (high + 1) * (high + 2) / 6 + middle * (middle + 1) / 2 + low;
+    }
+
+    // *****************************************************************************************
+    // Helpers
+    // *****************************************************************************************
+
+    private static int headsUpOffset(int hand, int opponent) {
+        return HEADER_BYTES + (hand * HANDS + opponent) * HEADS_UP_ENTRY_BYTES;
+    }
+
+    private static Path extractResource() throws IOException {
+        try (InputStream resource = PreflopMatchupTable.class.getClassLoader().getResourceAsStream(TABLE_RESOURCE)) {
+            if (resource == null) {
+                throw new IllegalStateException("Missing preflop matchup table: " + TABLE_RESOURCE);
+            }
+            Path path = Files.createTempFile("preflop-matchups", ".table");
+            path.toFile().deleteOnExit();
+            Files.copy(resource, path, StandardCopyOption.REPLACE_EXISTING);
+            return path;
+        }
+    }
+
+    private static void validate(ByteBuffer table) {
+        if (table.capacity() != TABLE_BYTES) {
+            throw new IllegalStateException("Preflop matchup table has " + table.capacity()
+                    + " bytes, expected " + TABLE_BYTES);
+        }
+        if (table.getInt(0) != MAGIC || table.getInt(4) != VERSION || table.getInt(8) != HANDS) {
+            throw new IllegalStateException("Not a version " + VERSION + " preflop matchup table");
+        }
+        CRC32 crc = new CRC32();
+        crc.update(table.slice(HEADER_BYTES, table.capacity() - HEADER_BYTES));
+        if ((int) crc.getValue() != table.getInt(20)) {
+            throw new IllegalStateException("Preflop matchup table checksum mismatch");
+        }
+    }
+}
@@ -0,0 +1,353 @@
+package com.twb.pokerapp.service.eval;
+
+import com.twb.pokerapp.service.eval.dto.RangeEquityDTO;
+import com.twb.pokerapp.service.game.CardSet;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Equity of one hand range against another on a partial board, for analysis tooling.
+ * <p>
+ * For each runout of the board every combo of both ranges is ranked once with the {@link RankEvaluator},
+ * then each combo of the first range is compared with each combo of the second it shares no card with.
+ * Runouts are enumerated when that is at most {@code exhaustive-limit} comparisons, otherwise sampled
+ * until {@code samples} runouts or {@code budget-ms}. Either way the runouts are split over a fork-join
+ * pool of its own ({@code parallelism}, half the cores by default) and at most {@code max-concurrent}
+ * analyses run at once, so analysis never takes more than its share from the game threads. Results
+ * are cached by board and ranges.
+ */
+@Component
+@RequiredArgsConstructor
+public class RangeEquityCalculator {
+    private static final int RUNOUTS_PER_TASK = 64;
+
+    private final RankEvaluator rankEvaluator;
+    private ForkJoinPool pool;
+    private Semaphore permits;
+    private Map<RangeKey, CompletableFuture<RangeEquityDTO>> cache;
+
+    @Value("${app.analysis.equity.exhaustive-limit:2000000000}")
+    private long exhaustiveLimit;
+
+    @Value("${app.analysis.equity.samples:20000}")
+    private int samples;
+
+    @Value("${app.analysis.equity.budget-ms:2000}")
+    private long budgetMs;
+
+    @Value("${app.analysis.equity.cache-size:1024}")
+    private int cacheSize;
+
+    @Value("${app.analysis.equity.parallelism:0}")
+    private int parallelism;
+
+    @Value("${app.analysis.equity.max-concurrent:4}")
+    private int maxConcurrent;
+
+    @PostConstruct
+    public void init() {
+        int threads = parallelism > 0 ? parallelism : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        pool = new ForkJoinPool(threads, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("analysis-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+        permits = new Semaphore(maxConcurrent);
+        cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RangeKey, CompletableFuture<RangeEquityDTO>> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Calculates the equity of the first range against the second, or returns the cached analysis.
+     *
+     * @param board  the community cards, none to five
+     * @param first  the combos of the first range, see {@link HandRange}
+     * @param second the combos of the second range
+     * @return the outcome counts, completed on the analysis pool
+     * @throws IllegalArgumentException   if the board is invalid or a range has no combo left beside it
+     * @throws RejectedExecutionException if {@code max-concurrent} analyses are already running
+     */
+    public CompletableFuture<RangeEquityDTO> calculate(long board, long[] first, long[] second) {
+        if (CardSet.size(board) > HandBatch.BOARD_SIZE) {
+            throw new IllegalArgumentException("Too many community cards: " + CardSet.size(board));
+        }
+        long[] firstLive = removeBlocked(first, board);
+        long[] secondLive = removeBlocked(second, board);
+        RangeKey key = new RangeKey(board, Arrays.stream(firstLive).boxed().toList(),
+                Arrays.stream(secondLive).boxed().toList());
+        CompletableFuture<RangeEquityDTO> cached = cache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        if (!permits.tryAcquire()) {
+            throw new RejectedExecutionException("Too many analyses running: " + maxConcurrent);
+        }
+        CompletableFuture<RangeEquityDTO> result;
+        try {
+            result = submit(board, firstLive, secondLive);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        // cached and returned after the permit is released, so a completed analysis never holds one
+        CompletableFuture<RangeEquityDTO> released = result.whenComplete((equity, throwable) -> permits.release());
+        cache.put(key, released);
+        return released;
+    }
+
+    private CompletableFuture<RangeEquityDTO> submit(long board, long[] first, long[] second) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        int[] liveCards = getLiveCards(board);
+        int missing = HandBatch.BOARD_SIZE - CardSet.size(board);
+        long runouts = countRunouts(liveCards.length, missing);
+        if (runouts * first.length * second.length <= exhaustiveLimit) {
+            return CompletableFuture.supplyAsync(() -> enumerate(board, first, second, liveCards, missing), pool);
+        }
+        long seed = new SplittableRandom().nextLong();
+        return CompletableFuture.supplyAsync(() -> new SampleTask(board, first, second, liveCards, missing,
+                0, samples, deadline, new SplittableRandom(seed)).invoke(), pool);
+    }
+
+    // *****************************************************************************************
+    // Exhaustive
+    // *****************************************************************************************
+
+    private RangeEquityDTO enumerate(long board, long[] first, long[] second, int[] liveCards, int missing) {
+        if (missing == 0) {
+            Counts counts = new Counts(first.length, second.length);
+            counts.add(board, first, second, rankEvaluator);
+            return counts.toDto(true);
+        }
+        // one task per lowest card of the runout
+        List<ForkJoinTask<Counts>> tasks = new ArrayList<>();
+        for (int index = 0; index <= liveCards.length - missing; index++) {
+            int lowest = index;
+            tasks.add(ForkJoinTask.adapt(() -> {
+                Counts counts = new Counts(first.length, second.length);
+                enumerate(CardSet.with(board, liveCards[lowest]), first, second, liveCards, missing - 1,
+                        lowest + 1, counts);
+                return counts;
+            }));
+        }
+        Counts total = new Counts(first.length, second.length);
+        for (ForkJoinTask<Counts> task : ForkJoinTask.invokeAll(tasks)) {
+            total.merge(task.join());
+        }
+        return total.toDto(true);
+    }
+
+    private void enumerate(long board, long[] first, long[] second, int[] liveCards, int missing, int from,
+                           Counts counts) {
+        if (missing == 0) {
+            counts.add(board, first, second, rankEvaluator);
+            return;
+        }
+        for (int index = from; index <= liveCards.length - missing; index++) {
+            enumerate(CardSet.with(board, liveCards[index]), first, second, liveCards, missing - 1, index + 1,
+                    counts);
+        }
+    }
+
+    // *****************************************************************************************
+    // Monte Carlo
+    // *****************************************************************************************
+
+    private final class SampleTask extends RecursiveTask<RangeEquityDTO> {
+        private final long board;
+        private final long[] first;
+        private final long[] second;
+        private final int[] liveCards;
+        private final int missing;
+        private final int from;
+        private final int to;
+        private final long deadline;
+        private final SplittableRandom random;
+
+        private SampleTask(long board, long[] first, long[] second, int[] liveCards, int missing,
+                           int from, int to, long deadline, SplittableRandom random) {
+            this.board = board;
+            this.first = first;
+            this.second = second;
+            this.liveCards = liveCards;
+            this.missing = missing;
+            this.from = from;
+            this.to = to;
+            this.deadline = deadline;
+            this.random = random;
+        }
+
+        @Override
+        protected RangeEquityDTO compute() {
+            if (to - from > RUNOUTS_PER_TASK) {
+                int middle = (from + to) >>> 1;
+                SampleTask left = new SampleTask(board, first, second, liveCards, missing,
+                        from, middle, deadline, random.split());
+                SampleTask right = new SampleTask(board, first, second, liveCards, missing,
+                        middle, to, deadline, random.split());
+                left.fork();
+                RangeEquityDTO result = right.compute();
+                return merge(left.join(), result);
+            }
+            Counts counts = new Counts(first.length, second.length);
+            int[] deck = liveCards.clone();
+            for (int sample = from; sample < to && System.nanoTime() - deadline < 0; sample++) {
+                long runout = board;
+                for (int card = 0; card < missing; card++) { // partial Fisher-Yates over the live cards
+                    int swap = card + random.nextInt(deck.length - card);
+                    int drawn = deck[swap];
+                    deck[swap] = deck[card];
+                    deck[card] = drawn;
+                    runout = CardSet.with(runout, drawn);
+                }
+                counts.add(runout, first, second, rankEvaluator);
+            }
+            return counts.toDto(false);
+        }
+
+        private RangeEquityDTO merge(RangeEquityDTO left, RangeEquityDTO right) {
+            left.setFirstWins(left.getFirstWins() + right.getFirstWins());
+            left.setSecondWins(left.getSecondWins() + right.getSecondWins());
+            left.setTies(left.getTies() + right.getTies());
+            left.setMatchups(left.getMatchups() + right.getMatchups());
+            left.setRunouts(left.getRunouts() + right.getRunouts());
+            return left;
+        }
+    }
+
+    // *****************************************************************************************
+    // Helpers
+    // *****************************************************************************************
+
+    private static long[] removeBlocked(long[] combos, long board) {
+        long[] live = Arrays.stream(combos).filter(combo -> !CardSet.intersects(combo, board)).toArray();
+        if (live.length == 0) {
+            throw new IllegalArgumentException("Every combo of the range is blocked by the board "
+                    + CardSet.toString(board));
+        }
+        return live;
+    }
+
+    private static int[] getLiveCards(long board) {
+        long live = CardSet.FULL_DECK & ~board;
+        int[] liveCards = new int[CardSet.size(live)];
+        for (int index = 0; live != 0; live = CardSet.removeFirst(live)) {
+            liveCards[index++] = CardSet.first(live);
+        }
+        return liveCards;
+    }
+
+    private static long countRunouts(int liveCards, int missing) {
+        long runouts = 1;
+        for (int card = 0; card < missing; card++) {
+            runouts = runouts * (liveCards - card) / (card + 1);
+        }
+        return runouts;
+    }
+
+    private record RangeKey(long board, List<Long> first, List<Long> second) {
+    }
+
+    private static final class Counts {
+        private final int[] firstRanks;
+        private final int[] secondRanks;
+        private long firstWins;
+        private long secondWins;
+        private long ties;
+        private long matchups;
+        private long runouts;
+
+        private Counts(int firstSize, int secondSize) {
+            firstRanks = new int[firstSize];
+            secondRanks = new int[secondSize];
+        }
+
+        /**
+         * Ranks both ranges on a complete board and counts every matchup, a rank of 0 marks a blocked combo.
+         */
+        private void add(long board, long[] first, long[] second, RankEvaluator rankEvaluator) {
+            rank(board, first, firstRanks, rankEvaluator);
+            rank(board, second, secondRanks, rankEvaluator);
+            long wins = 0, losses = 0, draws = 0, total = 0;
+            for (int i = 0; i < first.length; i++) {
+                int firstRank = firstRanks[i];
+                if (firstRank == 0) {
+                    continue;
+                }
+                long combo = first[i];
+                for (int j = 0; j < second.length; j++) {
+                    int secondRank = secondRanks[j];
+                    if (secondRank == 0 || CardSet.intersects(combo, second[j])) {
+                        continue;
+                    }
+                    total++;
+                    if (firstRank > secondRank) {
+                        wins++;
+                    } else if (firstRank < secondRank) {
+                        losses++;
+                    } else {
+                        draws++;
+                    }
+                }
+            }
+            firstWins += wins;
+            secondWins += losses;
+            ties += draws;
+            matchups += total;
+            runouts++;
+        }
+
+        private static void rank(long board, long[] combos, int[] ranks, RankEvaluator rankEvaluator) {
+            for (int index = 0; index < combos.length; index++) {
+                long combo = combos[index];
+                ranks[index] = CardSet.intersects(combo, board) ? 0 : rankEvaluator.getRank(CardSet.union(board, combo));
+            }
+        }
+
+        private void merge(Counts other) {
+            firstWins += other.firstWins;
+            secondWins += other.secondWins;
+            ties += other.ties;
+            matchups += other.matchups;
+            runouts += other.runouts;
+        }
+
+        private RangeEquityDTO toDto(boolean exhaustive) {
+            RangeEquityDTO dto = new RangeEquityDTO();
+            dto.setFirstWins(firstWins);
+            dto.setSecondWins(secondWins);
+            dto.setTies(ties);
+            dto.setMatchups(matchups);
+            dto.setRunouts(runouts);
+            dto.setExhaustive(exhaustive);
+            return dto;
+        }
+    }
+}
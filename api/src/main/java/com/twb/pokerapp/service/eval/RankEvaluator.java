@@ -1,34 +1,35 @@
 package com.twb.pokerapp.service.eval;
 
 import com.twb.pokerapp.domain.Card;
-import org.springframework.stereotype.Component;
+import com.twb.pokerapp.domain.enumeration.RankType;
+import com.twb.pokerapp.service.game.CardSet;
 
 import java.util.List;
 
 /**
- * Evaluates the rank of a poker hand using a native method.
+ * Evaluates the rank of a seven card poker hand using the SKPokerEval ranking.
+ * <p>
+ * The higher the rank the better the hand and two hands of equal rank tie. Implementations
+ * are chosen with {@code app.eval.rank-evaluator}: {@code java} (default) or {@code native}.
  */
-@Component
-public class RankEvaluator {
-
-    static {
-        // Load the native library containing the evaluator function
-        System.load(System.getenv("EVALUATOR_SO_PATH"));
-    }
+public interface RankEvaluator {
+    int DECK_SIZE = 52;
+    int HAND_SIZE = 7;
 
     /**
-     * Native method to evaluate the rank of a hand of cards.
+     * Evaluates the rank of seven cards, each given as a card index from 0 (Ace of Spades)
+     * to 51 (Two of Clubs), where indexes with the same residue modulo 4 are the same suit.
      *
-     * @param i the rank value of the first card
-     * @param j the rank value of the second card
-     * @param k the rank value of the third card
-     * @param m the rank value of the fourth card
-     * @param n the rank value of the fifth card
-     * @param p the rank value of the sixth card
-     * @param q the rank value of the seventh card
+     * @param i the index of the first card
+     * @param j the index of the second card
+     * @param k the index of the third card
+     * @param m the index of the fourth card
+     * @param n the index of the fifth card
+     * @param p the index of the sixth card
+     * @param q the index of the seventh card
      * @return the rank of the hand
      */
-    static native int getRank(int i, int j, int k, int m, int n, int p, int q);
+    int getRank(int i, int j, int k, int m, int n, int p, int q);
 
     /**
      * Evaluates the rank of a hand of seven cards.
@@ -37,16 +38,75 @@ public class RankEvaluator {
      * @return the rank of the hand
      * @throws IllegalArgumentException if the number of cards is not seven
      */
-    public int getRank(List<Card> cards) {
-        if (cards.size() != 7) {
+    default int getRank(List<Card> cards) {
+        if (cards.size() != HAND_SIZE) {
             throw new IllegalArgumentException("Not enough cards in hand: " + cards.size());
         }
-        return getRank(cards.get(0).getRankValue(),
-                cards.get(1).getRankValue(),
-                cards.get(2).getRankValue(),
-                cards.get(3).getRankValue(),
-                cards.get(4).getRankValue(),
-                cards.get(5).getRankValue(),
-                cards.get(6).getRankValue());
+        return getRank(toCardIndex(cards.get(0)),
+                toCardIndex(cards.get(1)),
+                toCardIndex(cards.get(2)),
+                toCardIndex(cards.get(3)),
+                toCardIndex(cards.get(4)),
+                toCardIndex(cards.get(5)),
+                toCardIndex(cards.get(6)));
+    }
+
+    /**
+     * Evaluates the rank of a hand of seven cards.
+     *
+     * @param cards the {@link CardSet} of cards in the hand
+     * @return the rank of the hand
+     * @throws IllegalArgumentException if the number of cards is not seven
+     */
+    default int getRank(long cards) {
+        if (CardSet.size(cards) != HAND_SIZE) {
+            throw new IllegalArgumentException("Not enough cards in hand: " + CardSet.size(cards));
+        }
+        long rest = cards;
+        int i = toCardIndex(CardSet.first(rest));
+        rest = CardSet.removeFirst(rest);
+        int j = toCardIndex(CardSet.first(rest));
+        rest = CardSet.removeFirst(rest);
+        int k = toCardIndex(CardSet.first(rest));
+        rest = CardSet.removeFirst(rest);
+        int m = toCardIndex(CardSet.first(rest));
+        rest = CardSet.removeFirst(rest);
+        int n = toCardIndex(CardSet.first(rest));
+        rest = CardSet.removeFirst(rest);
+        int p = toCardIndex(CardSet.first(rest));
+        rest = CardSet.removeFirst(rest);
+        return getRank(i, j, k, m, n, p, toCardIndex(CardSet.first(rest)));
+    }
+
+    /**
+     * Ranks every hand in the batch against its board, filling in each hand's rank and category.
+     *
+     * @param batch the board and hole cards to rank
+     */
+    default void evaluate(HandBatch batch) {
+        for (int hand = 0; hand < batch.size; hand++) {
+            batch.setResult(hand, getRank(batch.board | batch.holeCards[hand]));
+        }
+    }
+
+    /**
+     * Maps a card to its evaluator index, aces first and then by suit within each rank.
+     *
+     * @param card the card
+     * @return the card index, from 0 (Ace of Spades) to 51 (Two of Clubs)
+     */
+    static int toCardIndex(Card card) {
+        return toCardIndex(CardSet.card(card.getRankType(), card.getSuitType()));
+    }
+
+    /**
+     * Maps a card index of {@link CardSet} to its evaluator index.
+     *
+     * @param card a card's {@code rankValue}, see {@link CardSet}
+     * @return the card index, from 0 (Ace of Spades) to 51 (Two of Clubs)
+     */
+    static int toCardIndex(int card) {
+        int face = RankType.ACE.getPosition() - CardSet.rankOf(card);
+        return (face << 2) | CardSet.suitOf(card);
     }
 }
@@ -0,0 +1,26 @@
+package com.twb.pokerapp.service.eval.dto;
+
+import lombok.Data;
+
+/**
+ * Win and tie counts of each hand over the runouts of a board, in the order the hands were given.
+ */
+@Data
+public class EquityDTO {
+    private long[] wins;
+    private long[] ties;
+    private long samples;
+    private boolean exhaustive;
+
+    public double getWin(int hand) {
+        return samples == 0 ? 0 : (double) wins[hand] / samples;
+    }
+
+    public double getTie(int hand) {
+        return samples == 0 ? 0 : (double) ties[hand] / samples;
+    }
+
+    public double getLose(int hand) {
+        return samples == 0 ? 0 : 1 - getWin(hand) - getTie(hand);
+    }
+}
@@ -1,21 +1,20 @@
 package com.twb.pokerapp.service.eval.dto;
 
-import com.twb.pokerapp.domain.Card;
 import com.twb.pokerapp.domain.PlayerSession;
 import com.twb.pokerapp.domain.enumeration.HandType;
+import com.twb.pokerapp.service.game.CardSet;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
 
-import java.util.List;
-
 @Getter
 @Setter
 public class EvalPlayerHandDTO implements Comparable<EvalPlayerHandDTO> {
     private PlayerSession playerSession;
-    private List<Card> cards;
+    private long holeCards; // CardSet
     private Integer rank;
     private HandType handType;
+    private long bestFive; // CardSet of the five cards making the hand
     private boolean winner = false;
 
     @Override
@@ -30,9 +29,10 @@ public class EvalPlayerHandDTO implements Comparable<EvalPlayerHandDTO> {
     public String toString() {
         return "PlayerHandDTO{" +
                 "playerSession=" + playerSession.getUser().getUsername() +
-                ", cards=" + cards +
+                ", holeCards=" + CardSet.toString(holeCards) +
                 ", rank=" + rank +
                 ", handType=" + handType +
+                ", bestFive=" + CardSet.toString(bestFive) +
                 ", winner=" + winner +
                 '}';
     }
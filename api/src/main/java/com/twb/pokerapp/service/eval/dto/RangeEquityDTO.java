@@ -0,0 +1,29 @@
+package com.twb.pokerapp.service.eval.dto;
+
+import lombok.Data;
+
+/**
+ * Outcome counts of every matchup of a combo from the first range against a combo from the second,
+ * over each runout of the board. Matchups sharing a card are not counted.
+ */
+@Data
+public class RangeEquityDTO {
+    private long firstWins;
+    private long secondWins;
+    private long ties;
+    private long matchups;
+    private long runouts;
+    private boolean exhaustive;
+
+    public double getWin(int range) {
+        return matchups == 0 ? 0 : (double) (range == 0 ? firstWins : secondWins) / matchups;
+    }
+
+    public double getTie() {
+        return matchups == 0 ? 0 : (double) ties / matchups;
+    }
+
+    public double getLose(int range) {
+        return getWin(1 - range);
+    }
+}
@@ -0,0 +1,226 @@
+package com.twb.pokerapp.service.game;
+
+import com.twb.pokerapp.domain.Card;
+import com.twb.pokerapp.domain.enumeration.RankType;
+import com.twb.pokerapp.domain.enumeration.SuitType;
+
+import java.util.List;
+
+/**
+ * Any set of the 52 cards packed into a {@code long}, used for the deck, dealt hands and evaluation
+ * so cards only become {@link Card} entities where they are persisted or sent to players.
+ * <p>
+ * A single card is its {@code rankValue} (rank * 4 + suit, from 0 for the deuce of spades to 51 for
+ * the ace of clubs). In the set each suit has its own 16 bit lane with the deuce in the lowest bit,
+ * so suit and rank projections are shifts and masks. Iterate a set with:
+ * <pre>
+ * for (long rest = set; rest != 0; rest = CardSet.removeFirst(rest)) {
+ *     int card = CardSet.first(rest);
+ * }
+ * </pre>
+ */
+public final class CardSet {
+    public static final long EMPTY = 0L;
+    public static final long FULL_DECK = 0x1FFF_1FFF_1FFF_1FFFL;
+    public static final int DECK_SIZE = 52;
+    public static final int RANKS = 13;
+    public static final int SUITS = 4;
+    public static final int RANK_MASK = (1 << RANKS) - 1;
+
+    private static final int SUIT_SHIFT = 4; // 16 bits per suit lane
+    private static final RankType[] RANK_TYPES = RankType.values();
+    private static final SuitType[] SUIT_TYPES = SuitType.values();
+
+    private CardSet() {
+    }
+
+    // *****************************************************************************************
+    // Single Cards
+    // *****************************************************************************************
+
+    public static int card(RankType rank, SuitType suit) {
+        return rank.getPosition() * SUITS + suit.getPosition();
+    }
+
+    public static int rankOf(int card) {
+        return card / SUITS;
+    }
+
+    public static int suitOf(int card) {
+        return card % SUITS;
+    }
+
+    /**
+     * Returns the bit position of the card in a set.
+     */
+    public static int bitOf(int card) {
+        return (suitOf(card) << SUIT_SHIFT) | rankOf(card);
+    }
+
+    /**
+     * Returns the card at a bit position of a set.
+     */
+    public static int cardAt(int bit) {
+        return (bit & 15) * SUITS + (bit >>> SUIT_SHIFT);
+    }
+
+    // *****************************************************************************************
+    // Sets
+    // *****************************************************************************************
+
+    public static long of(int card) {
+        return 1L << bitOf(card);
+    }
+
+    public static long of(int... cards) {
+        long set = EMPTY;
+        for (int card : cards) {
+            set |= of(card);
+        }
+        return set;
+    }
+
+    public static long of(List<Card> cards) {
+        long set = EMPTY;
+        for (Card card : cards) {
+            set |= of(card.getRankValue());
+        }
+        return set;
+    }
+
+    public static long with(long set, int card) {
+        return set | of(card);
+    }
+
+    public static long without(long set, int card) {
+        return set & ~of(card);
+    }
+
+    public static long union(long first, long second) {
+        return first | second;
+    }
+
+    public static boolean contains(long set, int card) {
+        return (set & of(card)) != 0;
+    }
+
+    public static boolean intersects(long first, long second) {
+        return (first & second) != 0;
+    }
+
+    public static int size(long set) {
+        return Long.bitCount(set);
+    }
+
+    public static boolean isEmpty(long set) {
+        return set == EMPTY;
+    }
+
+    /**
+     * Returns the ranks held in the suit, a 13 bit mask with the deuce in the lowest bit.
+     */
+    public static int suitRanks(long set, int suit) {
+        return (int) (set >>> (suit << SUIT_SHIFT)) & RANK_MASK;
+    }
+
+    /**
+     * Returns the cards of one suit with the given ranks, the inverse of {@link #suitRanks(long, int)}.
+     */
+    public static long ofSuitRanks(int ranks, int suit) {
+        return (long) (ranks & RANK_MASK) << (suit << SUIT_SHIFT);
+    }
+
+    /**
+     * Returns the ranks held in any suit, a 13 bit mask with the deuce in the lowest bit.
+     */
+    public static int ranks(long set) {
+        return suitRanks(set, 0) | suitRanks(set, 1) | suitRanks(set, 2) | suitRanks(set, 3);
+    }
+
+    /**
+     * Returns the lowest card in a non-empty set (by suit, then rank).
+     */
+    public static int first(long set) {
+        return cardAt(Long.numberOfTrailingZeros(set));
+    }
+
+    public static long removeFirst(long set) {
+        return set & (set - 1);
+    }
+
+    // *****************************************************************************************
+    // Persistence Edge
+    // *****************************************************************************************
+
+    /**
+     * Returns a new card value for the card index.
+     */
+    public static Card toCard(int card) {
+        return new Card(RANK_TYPES[rankOf(card)], SUIT_TYPES[suitOf(card)], card);
+    }
+
+    /**
+     * Parses short card names such as {@code "Ah Kd 7c"} or {@code "AhKd7c"}, in either case.
+     *
+     * @param cards the card names
+     * @return the set of cards
+     * @throws IllegalArgumentException if a name is not a card or a card is given twice
+     */
+    public static long parse(String cards) {
+        String names = cards.replaceAll("[\\s,]", "");
+        if (names.length() % 2 != 0) {
+            throw new IllegalArgumentException("Invalid cards: " + cards);
+        }
+        long set = EMPTY;
+        for (int index = 0; index < names.length(); index += 2) {
+            int card = parseRank(names.charAt(index)) * SUITS + parseSuit(names.charAt(index + 1));
+            if (contains(set, card)) {
+                throw new IllegalArgumentException("Card given twice: " + names.substring(index, index + 2));
+            }
+            set = with(set, card);
+        }
+        return set;
+    }
+
+    /**
+     * Parses a rank character.
+     *
+     * @param rankChar a rank such as {@code 'T'} or {@code 'a'}
+     * @return the rank position, 0 (deuce) to 12 (ace)
+     * @throws IllegalArgumentException if the char is not a rank
+     */
+    public static int parseRank(char rankChar) {
+        char lower = Character.toLowerCase(rankChar);
+        for (RankType rank : RANK_TYPES) {
+            if (rank.getRankChar() == lower) {
+                return rank.getPosition();
+            }
+        }
+        throw new IllegalArgumentException("Invalid rank: " + rankChar);
+    }
+
+    private static int parseSuit(char suitChar) {
+        char lower = Character.toLowerCase(suitChar);
+        for (SuitType suit : SUIT_TYPES) {
+            if (suit.getSuitChar() == lower) {
+                return suit.getPosition();
+            }
+        }
+        throw new IllegalArgumentException("Invalid suit: " + suitChar);
+    }
+
+    /**
+     * Returns the set as short card names, e.g. {@code [2s, ah]}.
+     */
+    public static String toString(long set) {
+        StringBuilder sb = new StringBuilder("[");
+        for (long rest = set; rest != 0; rest = removeFirst(rest)) {
+            int card = first(rest);
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(RANK_TYPES[rankOf(card)].getRankChar()).append(SUIT_TYPES[suitOf(card)].getSuitChar());
+        }
+        return sb.append(']').toString();
+    }
+}
@@ -0,0 +1,106 @@
+package com.twb.pokerapp.service.game;
+
+/**
+ * A table's deck of 52 cards held as {@code rankValue}s (see {@link CardSet}) in a reused {@code byte[]}.
+ * <p>
+ * Each round is shuffled in place with Fisher-Yates driven by SplitMix64 from a 64 bit seed, so shuffling
+ * and dealing never allocate and any hand can be replayed exactly from the seed recorded with its round.
+ * The seed predicts the whole deck, it must never be sent to players before the round is finished.
+ * Only the game thread uses a table's deck.
+ */
+public final class Deck {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final byte[] cards = new byte[CardSet.DECK_SIZE];
+    private int pointer = CardSet.DECK_SIZE;
+    private long seed;
+    private long state;
+
+    /**
+     * Shuffles all 52 cards back into the deck.
+     *
+     * @param seed the seed, the same seed always gives the same order
+     */
+    public void shuffle(long seed) {
+        this.seed = seed;
+        this.state = seed;
+        for (int index = 0; index < cards.length; index++) {
+            cards[index] = (byte) index;
+        }
+        for (int index = cards.length - 1; index > 0; index--) {
+            int swap = nextInt(index + 1);
+            byte card = cards[swap];
+            cards[swap] = cards[index];
+            cards[index] = card;
+        }
+        pointer = 0;
+    }
+
+    /**
+     * Loads an order shuffled elsewhere, see {@link DeckPool}.
+     *
+     * @param order the 52 cards as produced by {@link #copyCards(byte[])}
+     * @param seed  the seed the order was shuffled from
+     */
+    void load(byte[] order, long seed) {
+        System.arraycopy(order, 0, cards, 0, cards.length);
+        this.seed = seed;
+        this.state = seed;
+        pointer = 0;
+    }
+
+    /**
+     * Copies the current order, dealt cards included, into {@code target}.
+     */
+    void copyCards(byte[] target) {
+        System.arraycopy(cards, 0, target, 0, cards.length);
+    }
+
+    /**
+     * Deals the next card of the shuffle.
+     *
+     * @return the next card's {@code rankValue}
+     * @throws IllegalStateException if every card has been dealt
+     */
+    public int next() {
+        if (pointer == cards.length) {
+            throw new IllegalStateException("No cards left in the deck");
+        }
+        return cards[pointer++];
+    }
+
+    public int remaining() {
+        return cards.length - pointer;
+    }
+
+    /**
+     * Returns the seed of the last shuffle.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Unbiased random int in {@code [0, bound)} (Lemire's multiply and reject).
+     */
+    private int nextInt(int bound) {
+        long product = (nextLong() >>> 32) * bound;
+        if ((product & 0xFFFF_FFFFL) < bound) {
+            long threshold = (1L << 32) % bound;
+            while ((product & 0xFFFF_FFFFL) < threshold) {
+                product = (nextLong() >>> 32) * bound;
+            }
+        }
+        return (int) (product >>> 32);
+    }
+
+    /**
+     * SplitMix64, the generator behind {@link java.util.SplittableRandom}.
+     */
+    private long nextLong() {
+        long z = (state += GOLDEN_GAMMA);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
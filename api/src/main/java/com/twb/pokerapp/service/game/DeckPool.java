@@ -0,0 +1,163 @@
+package com.twb.pokerapp.service.game;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Node-wide pool of decks shuffled ahead of time, so starting a round never waits on the CSPRNG.
+ * <p>
+ * A single producer thread draws seeds from {@link SecureRandom} in batches of {@code seed-batch},
+ * shuffles a {@link Deck} from each and publishes it into a bounded ring (Vyukov's array queue, one
+ * producer and many consumers). Game threads {@link #take(Deck) take} a deck with one CAS and a 52 byte
+ * copy, and the producer is woken once the pool drops to half full. When the pool is empty the
+ * game thread shuffles from its own seed stream instead and the starvation is counted.
+ * <p>
+ * Metrics: {@code poker.deck.pool.depth}, {@code poker.deck.pool.refills} (decks shuffled into the
+ * pool, the refill rate) and {@code poker.deck.pool.starvations}.
+ */
+@Component
+@RequiredArgsConstructor
+public class DeckPool {
+    private static final Logger logger = LoggerFactory.getLogger(DeckPool.class);
+    private static final String PRODUCER_THREAD_NAME = "deck-pool";
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final MeterRegistry meterRegistry;
+    private final SecureRandom seedSource = new SecureRandom();
+    private final AtomicLong head = new AtomicLong(); // next slot to take, consumers
+    private volatile long tail; // next slot to fill, written by the producer only
+    private byte[][] decks;
+    private long[] seeds;
+    private AtomicLongArray sequences;
+    private int mask;
+    private Counter refills;
+    private Counter starvations;
+    private Thread producer;
+    private volatile boolean running;
+
+    @Value("${app.game.deck-pool.size:1024}")
+    private int size;
+
+    @Value("${app.game.deck-pool.seed-batch:256}")
+    private int seedBatch;
+
+    @PostConstruct
+    public void init() {
+        int capacity = Integer.highestOneBit(Math.max(size, 2) - 1) << 1; // round up to power of two
+        decks = new byte[capacity][CardSet.DECK_SIZE];
+        seeds = new long[capacity];
+        sequences = new AtomicLongArray(capacity);
+        for (int index = 0; index < capacity; index++) {
+            sequences.set(index, index);
+        }
+        mask = capacity - 1;
+
+        Gauge.builder("poker.deck.pool.depth", this, DeckPool::getDepth)
+                .description("Pre-shuffled decks waiting in the pool")
+                .register(meterRegistry);
+        refills = Counter.builder("poker.deck.pool.refills")
+                .description("Decks shuffled into the pool")
+                .register(meterRegistry);
+        starvations = Counter.builder("poker.deck.pool.starvations")
+                .description("Rounds that found the pool empty and shuffled on the game thread")
+                .register(meterRegistry);
+
+        running = true;
+        producer = Thread.ofPlatform().name(PRODUCER_THREAD_NAME).daemon(true).start(this::produce);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        running = false;
+        producer.interrupt();
+        try {
+            producer.join(TimeUnit.SECONDS.toMillis(1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Loads the next pre-shuffled deck into the table's deck. Safe to call from any thread.
+     *
+     * @param deck the deck to load
+     * @return true if loaded, false if the pool was empty and the caller has to shuffle itself
+     */
+    public boolean take(Deck deck) {
+        long position = head.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    deck.load(decks[index], seeds[index]);
+                    sequences.set(index, position + mask + 1); // hand the slot back to the producer
+                    if (getDepth() <= (mask + 1) / 2) {
+                        LockSupport.unpark(producer);
+                    }
+                    return true;
+                }
+                position = head.get();
+            } else if (difference < 0) {
+                starvations.increment();
+                return false;
+            } else {
+                position = head.get(); // another consumer took it first
+            }
+        }
+    }
+
+    public int getDepth() {
+        long depth = tail - head.get(); // approximate while decks are being taken
+        return (int) Math.max(0, Math.min(depth, mask + 1));
+    }
+
+    // *****************************************************************************************
+    // Producer Thread
+    // *****************************************************************************************
+
+    private void produce() {
+        Deck deck = new Deck();
+        ByteBuffer seedBytes = ByteBuffer.allocate(Math.max(seedBatch, 1) * Long.BYTES);
+        seedBytes.position(seedBytes.limit()); // empty until the first batch
+        while (running) {
+            try {
+                long position = tail; // only this thread writes it
+                int index = (int) (position & mask);
+                if (sequences.get(index) != position) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS); // full, woken when half drained
+                    continue;
+                }
+                if (!seedBytes.hasRemaining()) {
+                    seedSource.nextBytes(seedBytes.array());
+                    seedBytes.clear();
+                }
+                long seed = seedBytes.getLong();
+                deck.shuffle(seed);
+                deck.copyCards(decks[index]);
+                seeds[index] = seed;
+                sequences.set(index, position + 1); // publish
+                tail = position + 1;
+                refills.increment();
+            } catch (Exception e) {
+                logger.error("Failed to refill the deck pool", e);
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.twb.pokerapp.service.game;
+
+import com.twb.pokerapp.domain.Card;
+import com.twb.pokerapp.domain.enumeration.CardType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Up to five cards in dealing order packed into an int, which is how a hand's hole cards and a round's
+ * community cards are stored (one column each rather than a row per card).
+ * <p>
+ * Each card takes 6 bits, the first card dealt in the lowest bits, holding the card index plus one so
+ * an empty slot is zero and {@link #EMPTY} is no cards. Unlike a {@link CardSet} this keeps the order
+ * the cards were dealt in, which gives each card its {@link CardType}.
+ */
+public final class PackedCards {
+    public static final int EMPTY = 0;
+    public static final int MAX_CARDS = 5;
+
+    private static final int CARD_BITS = 6;
+    private static final int CARD_MASK = (1 << CARD_BITS) - 1;
+
+    private PackedCards() {
+    }
+
+    /**
+     * Deals another card onto packed cards.
+     *
+     * @param packed the cards dealt so far
+     * @param card   the card index, see {@link CardSet}
+     * @return the cards with the new card dealt last
+     * @throws IllegalArgumentException if the card is not in the deck or there are already five cards
+     */
+    public static int add(int packed, int card) {
+        if (card < 0 || card >= CardSet.DECK_SIZE) {
+            throw new IllegalArgumentException("Not a card: " + card);
+        }
+        int size = size(packed);
+        if (size == MAX_CARDS) {
+            throw new IllegalArgumentException("Already " + MAX_CARDS + " cards packed");
+        }
+        return packed | (card + 1) << (size * CARD_BITS);
+    }
+
+    public static int size(int packed) {
+        return (Integer.SIZE - Integer.numberOfLeadingZeros(packed) + CARD_BITS - 1) / CARD_BITS;
+    }
+
+    /**
+     * Returns the card index dealt at the position, see {@link CardSet}.
+     */
+    public static int get(int packed, int index) {
+        return (packed >>> (index * CARD_BITS) & CARD_MASK) - 1;
+    }
+
+    public static long toCardSet(int packed) {
+        long cards = CardSet.EMPTY;
+        for (int index = 0; index < size(packed); index++) {
+            cards = CardSet.with(cards, get(packed, index));
+        }
+        return cards;
+    }
+
+    /**
+     * Unpacks the cards into card values for the API.
+     *
+     * @param packed    the cards in dealing order
+     * @param cardTypes the card type of each position, such as {@link CardType#OMAHA_PLAYER_CARDS}
+     * @return new card values, one per card
+     */
+    public static List<Card> toCards(int packed, List<CardType> cardTypes) {
+        List<Card> cards = new ArrayList<>(size(packed));
+        for (int index = 0; index < size(packed); index++) {
+            Card card = CardSet.toCard(get(packed, index));
+            card.setCardType(cardTypes.get(index));
+            cards.add(card);
+        }
+        return cards;
+    }
+}
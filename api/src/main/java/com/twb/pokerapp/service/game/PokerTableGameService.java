@@ -11,6 +11,9 @@ import com.twb.pokerapp.repository.PlayerSessionRepository;
 import com.twb.pokerapp.repository.TableRepository;
 import com.twb.pokerapp.repository.UserRepository;
 import com.twb.pokerapp.service.PlayerSessionService;
+import com.twb.pokerapp.service.game.cluster.TableCommandDTO;
+import com.twb.pokerapp.service.game.cluster.TableCommandForwarder;
+import com.twb.pokerapp.service.game.cluster.TableCommandType;
 import com.twb.pokerapp.service.game.thread.GameThread;
 import com.twb.pokerapp.service.game.thread.GameThreadManager;
 import com.twb.pokerapp.web.websocket.message.MessageDispatcher;
@@ -23,16 +26,24 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Predicate;
 
+/**
+ * Entry point for websocket events on a table. Events for a table whose game thread
+ * runs on another node are forwarded to that node by the {@link TableCommandForwarder}.
+ */
 @Component
 @Transactional
 @RequiredArgsConstructor
 public class PokerTableGameService {
     private static final Logger logger = LoggerFactory.getLogger(PokerTableGameService.class);
+    private static final int MAX_SEND_ATTEMPTS = 3;
 
     private final UserRepository userRepository;
     private final TableRepository tableRepository;
@@ -43,6 +54,7 @@ public class PokerTableGameService {
     private final GameThreadManager threadManager;
     private final ServerMessageFactory messageFactory;
     private final MessageDispatcher dispatcher;
+    private final TableCommandForwarder forwarder;
     private final XSync<UUID> mutex;
 
     public ServerMessageDTO onUserConnected(UUID tableId, ConnectionType connectionType, String username) {
@@ -74,6 +86,7 @@ public class PokerTableGameService {
 
             PlayerSessionDTO connectedPlayerSession = playerSessionService.connectUserToRound(appUser, connectionType, pokerTable);
             List<PlayerSessionDTO> allPlayerSessions = playerSessionService.getByTableId(tableId);
+            notifyPlayersChanged(tableId);
 
             dispatcher.send(tableId, messageFactory.playerConnected(connectedPlayerSession));
             return messageFactory.playerSubscribed(allPlayerSessions);
@@ -81,38 +94,124 @@ public class PokerTableGameService {
     }
 
     public void onPlayerAction(UUID tableId, String username, CreatePlayerActionDTO action) {
-        mutex.execute(tableId, () -> {
-            Optional<GameThread> threadOpt = threadManager.getIfExists(tableId);
-            if (threadOpt.isPresent()) {
-                GameThread thread = threadOpt.get();
-                thread.playerAction(username, action);
-            }
-        });
+        if (!sendToThread(tableId, thread -> thread.playerAction(username, action))) {
+            forwarder.forward(TableCommandDTO.playerAction(tableId, username, action));
+        }
+    }
+
+    public void onTimeBank(UUID tableId, String username) {
+        if (!sendToThread(tableId, thread -> thread.extendPlayerTurn(username))) {
+            forwarder.forward(TableCommandDTO.create(TableCommandType.TIME_BANK, tableId, username));
+        }
     }
 
     public void onUserDisconnected(UUID tableId, String username) {
         mutex.execute(tableId, () -> {
             playerSessionService.disconnectUser(tableId, username);
-            Optional<GameThread> threadOpt = threadManager.getIfExists(tableId);
+            notifyPlayersChanged(tableId);
+            Optional<GameThread> threadOpt = threadManager.getOrResume(tableId);
             if (threadOpt.isPresent()) {
-                GameThread thread = threadOpt.get();
-
-                List<PlayerSession> playerSessions =
-                        playerSessionRepository.findConnectedPlayersByTableIdNoLock(tableId);
-                if (CollectionUtils.isEmpty(playerSessions)) {
-                    thread.interrupt();
-                } else {
-                    CreatePlayerActionDTO createPlayerActionDTO = new CreatePlayerActionDTO();
-                    createPlayerActionDTO.setAction(ActionType.FOLD);
-                    thread.playerAction(username, createPlayerActionDTO);
-                }
-                ServerMessageDTO message =
-                        messageFactory.playerDisconnected(username);
-                dispatcher.send(tableId, message);
-                if (playerSessions.size() < 2) {
-                    thread.interrupt();
-                }
+                onPlayerDisconnected(threadOpt.get(), tableId, username);
+            } else {
+                // the owner reads the disconnected session, so it must be committed first
+                afterCommit(() -> forwarder.forward(
+                        TableCommandDTO.create(TableCommandType.PLAYER_DISCONNECTED, tableId, username)));
+            }
+        });
+    }
+
+    /**
+     * Applies a command forwarded by another node, whose websocket session received it,
+     * to the game thread running on this node. Called on the table's lane of the
+     * {@link com.twb.pokerapp.service.game.cluster.TableCommandLanes}, as resuming the table can block.
+     *
+     * @param command the forwarded command
+     */
+    public void onForwardedCommand(TableCommandDTO command) {
+        UUID tableId = command.getTableId();
+        boolean applied = switch (command.getType()) {
+            case PLAYER_ACTION -> sendToThread(tableId,
+                    thread -> thread.playerAction(command.getUsername(), command.getAction()));
+            case TIME_BANK -> sendToThread(tableId, thread -> thread.extendPlayerTurn(command.getUsername()));
+            case PLAYERS_CHANGED -> sendToThread(tableId, GameThread::onPlayersChanged);
+            case PLAYER_DISCONNECTED -> mutex.evaluate(tableId, () -> {
+                Optional<GameThread> threadOpt = threadManager.getOrResume(tableId);
+                threadOpt.ifPresent(thread -> onPlayerDisconnected(thread, tableId, command.getUsername()));
+                return threadOpt.isPresent();
+            });
+        };
+        if (!applied) {
+            // ownership moved while the command was in flight, the player's turn will time out
+            logger.warn("Poker Table {} is no longer running on this node, dropping forwarded {}", tableId, command.getType());
+        }
+    }
+
+    /**
+     * Hands a command to the table's game thread on this node, resuming the table if it hibernated.
+     * A table can hibernate between the lookup and the command, its closed inbox then refuses the
+     * command and the next lookup resumes it.
+     *
+     * @return false if the table is not running on this node, or kept hibernating and the command was dropped
+     */
+    private boolean sendToThread(UUID tableId, Predicate<GameThread> command) {
+        for (int attempt = 0; attempt < MAX_SEND_ATTEMPTS; attempt++) {
+            Optional<GameThread> threadOpt = threadManager.getOrResume(tableId);
+            if (threadOpt.isEmpty()) {
+                return false;
+            }
+            if (command.test(threadOpt.get())) {
+                return true;
+            }
+        }
+        logger.warn("Poker Table {} kept hibernating, dropping command", tableId);
+        return false;
+    }
+
+    private void onPlayerDisconnected(GameThread thread, UUID tableId, String username) {
+        List<PlayerSession> playerSessions =
+                playerSessionRepository.findConnectedPlayersByTableIdNoLock(tableId);
+        if (CollectionUtils.isEmpty(playerSessions)) {
+            thread.interrupt();
+        } else {
+            CreatePlayerActionDTO createPlayerActionDTO = new CreatePlayerActionDTO();
+            createPlayerActionDTO.setAction(ActionType.FOLD);
+            thread.playerAction(username, createPlayerActionDTO);
+        }
+        ServerMessageDTO message =
+                messageFactory.playerDisconnected(username);
+        dispatcher.send(tableId, message);
+        if (playerSessions.size() < 2) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Wakes the table's game thread once the player session change is visible to it,
+     * i.e. after the surrounding transaction has committed.
+     */
+    private void notifyPlayersChanged(UUID tableId) {
+        afterCommit(() -> onPlayersChanged(tableId));
+    }
+
+    /**
+     * Runs the task once the surrounding transaction has committed, or straight away without one.
+     */
+    private void afterCommit(Runnable task) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            task.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                task.run();
             }
         });
     }
+
+    private void onPlayersChanged(UUID tableId) {
+        if (!sendToThread(tableId, GameThread::onPlayersChanged)) {
+            forwarder.forward(TableCommandDTO.create(TableCommandType.PLAYERS_CHANGED, tableId, null));
+        }
+    }
 }
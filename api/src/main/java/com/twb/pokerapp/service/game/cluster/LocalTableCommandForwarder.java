@@ -0,0 +1,21 @@
+package com.twb.pokerapp.service.game.cluster;
+
+import com.twb.pokerapp.configuration.ProfileConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+/**
+ * Without the RabbitMQ relay there is no way to reach other nodes, a single node owns every table it runs.
+ */
+@Component
+@Profile("!" + ProfileConfiguration.DIGITALOCEAN_PROFILE + " & !" + ProfileConfiguration.CLUSTER_PROFILE)
+public class LocalTableCommandForwarder implements TableCommandForwarder {
+    private static final Logger logger = LoggerFactory.getLogger(LocalTableCommandForwarder.class);
+
+    @Override
+    public void forward(TableCommandDTO command) {
+        logger.warn("Poker Table {} is not running on this node, dropping {}", command.getTableId(), command.getType());
+    }
+}
@@ -0,0 +1,161 @@
+package com.twb.pokerapp.service.game.cluster;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.rabbitmq.client.AMQP;
+import com.rabbitmq.client.ReturnListener;
+import com.twb.pokerapp.configuration.ProfileConfiguration;
+import com.twb.pokerapp.configuration.RabbitMqConfiguration;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.connection.ThreadChannelConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Forwards table commands to the owning node's queue on the {@code app.table.commands} direct exchange.
+ * <p>
+ * AMQP only orders messages published on the same channel, so each table is pinned to one of
+ * {@code forward-lanes} single-threaded publishers and every lane thread publishes on its own channel
+ * (see {@link ThreadChannelConnectionFactory}). The owner consumes its queue with a single consumer,
+ * so commands for a table arrive in the order this node forwarded them.
+ * <p>
+ * Messages are transient, as the owner's queue only lives as long as the owner, but every publish is
+ * mandatory and waits for the broker's confirm. A node's queue is deleted when it dies, so a command
+ * returned as unroutable was sent to a stale owner: the owner is looked up again and the command
+ * retried, up to {@code MAX_FORWARD_ATTEMPTS} times. A command still undelivered is dropped with an
+ * error and handled like any other missed action (the turn times out).
+ */
+@Component
+@Profile({ProfileConfiguration.DIGITALOCEAN_PROFILE, ProfileConfiguration.CLUSTER_PROFILE})
+public class RabbitTableCommandForwarder implements TableCommandForwarder {
+    private static final Logger logger = LoggerFactory.getLogger(RabbitTableCommandForwarder.class);
+    private static final String LANE_THREAD_PREFIX = "table-forward-";
+    private static final int MAX_FORWARD_ATTEMPTS = 3;
+    private static final int TRANSIENT_DELIVERY_MODE = 1;
+
+    private final TableLeaseService leaseService;
+    private final ObjectMapper objectMapper;
+    private final ThreadChannelConnectionFactory connectionFactory;
+    private final RabbitTemplate rabbitTemplate;
+    private ExecutorService[] lanes;
+
+    @Value("${app.cluster.forward-lanes:4}")
+    private int laneCount;
+
+    @Value("${app.cluster.forward-confirm-timeout-ms:5000}")
+    private long confirmTimeoutMs;
+
+    public RabbitTableCommandForwarder(TableLeaseService leaseService, ObjectMapper objectMapper,
+                                       CachingConnectionFactory cachingConnectionFactory) {
+        this.leaseService = leaseService;
+        this.objectMapper = objectMapper;
+        this.connectionFactory = new ThreadChannelConnectionFactory(cachingConnectionFactory.getRabbitConnectionFactory());
+        this.connectionFactory.setSimplePublisherConfirms(true);
+        this.rabbitTemplate = new RabbitTemplate(connectionFactory);
+    }
+
+    @PostConstruct
+    public void init() {
+        lanes = new ExecutorService[Math.max(laneCount, 1)];
+        for (int index = 0; index < lanes.length; index++) {
+            lanes[index] = Executors.newSingleThreadExecutor(
+                    Thread.ofPlatform().name(LANE_THREAD_PREFIX + index).daemon(true).factory());
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+        connectionFactory.destroy();
+    }
+
+    @Override
+    public void forward(TableCommandDTO command) {
+        byte[] body = toBody(command);
+        int lane = Math.floorMod(command.getTableId().hashCode(), lanes.length);
+        try {
+            lanes[lane].execute(() -> publish(command, body));
+        } catch (RejectedExecutionException e) {
+            logger.warn("Forwarding is shutting down, dropping {} for table {}", command.getType(), command.getTableId());
+        }
+    }
+
+    /**
+     * Publishes the command to the table's owner, looking the owner up again each time the command is returned.
+     */
+    private void publish(TableCommandDTO command, byte[] body) {
+        for (int attempt = 0; attempt < MAX_FORWARD_ATTEMPTS; attempt++) {
+            Optional<String> ownerOpt = leaseService.findOwner(command.getTableId());
+            if (ownerOpt.isEmpty()) {
+                logger.warn("Poker Table {} has no owner, dropping {}", command.getTableId(), command.getType());
+                return;
+            }
+            String owner = ownerOpt.get();
+            if (owner.equals(leaseService.getNodeId())) {
+                logger.warn("Poker Table {} is owned by this node but not running, dropping {}", command.getTableId(), command.getType());
+                return;
+            }
+            try {
+                if (publish(owner, body)) {
+                    return;
+                }
+            } catch (Exception e) {
+                logger.error("Failed to forward {} for table {} to node {}", command.getType(), command.getTableId(), owner, e);
+                return;
+            }
+            logger.info("Node {} has no queue for {} on table {}, looking up the owner again", owner, command.getType(), command.getTableId());
+            leaseService.evictOwner(command.getTableId());
+        }
+        logger.error("Failed to forward {} for table {} after {} attempts, dropping it",
+                command.getType(), command.getTableId(), MAX_FORWARD_ATTEMPTS);
+    }
+
+    /**
+     * Publishes a mandatory message on the lane thread's channel and waits for the broker to confirm it.
+     * Only this message is in flight on the channel, and the broker returns an unroutable message
+     * before confirming it, so any return seen while waiting is this message's.
+     *
+     * @return false if the broker returned the message as no queue is bound to the owner
+     */
+    private boolean publish(String owner, byte[] body) {
+        AMQP.BasicProperties properties = new AMQP.BasicProperties.Builder()
+                .contentType(MessageProperties.CONTENT_TYPE_JSON)
+                .deliveryMode(TRANSIENT_DELIVERY_MODE)
+                .build();
+        Boolean routed = rabbitTemplate.execute(channel -> {
+            AtomicBoolean returned = new AtomicBoolean(false);
+            ReturnListener listener = channel.addReturnListener(returnedMessage -> returned.set(true));
+            try {
+                channel.basicPublish(RabbitMqConfiguration.TABLE_COMMAND_EXCHANGE, owner, true, properties, body);
+                channel.waitForConfirmsOrDie(confirmTimeoutMs);
+            } finally {
+                channel.removeReturnListener(listener);
+            }
+            return !returned.get();
+        });
+        return Boolean.TRUE.equals(routed);
+    }
+
+    private byte[] toBody(TableCommandDTO command) {
+        try {
+            return objectMapper.writeValueAsBytes(command);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize table command " + command, e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.twb.pokerapp.service.game.cluster;
+
+import com.twb.pokerapp.web.websocket.message.client.CreatePlayerActionDTO;
+import lombok.Data;
+
+import java.util.UUID;
+
+/**
+ * A command for a table's game thread, forwarded to the node that owns the table.
+ */
+@Data
+public class TableCommandDTO {
+    private TableCommandType type;
+    private UUID tableId;
+    private String username;
+    private CreatePlayerActionDTO action;
+
+    public static TableCommandDTO create(TableCommandType type, UUID tableId, String username) {
+        TableCommandDTO command = new TableCommandDTO();
+        command.setType(type);
+        command.setTableId(tableId);
+        command.setUsername(username);
+        return command;
+    }
+
+    public static TableCommandDTO playerAction(UUID tableId, String username, CreatePlayerActionDTO action) {
+        TableCommandDTO command = create(TableCommandType.PLAYER_ACTION, tableId, username);
+        command.setAction(action);
+        return command;
+    }
+}
@@ -0,0 +1,15 @@
+package com.twb.pokerapp.service.game.cluster;
+
+/**
+ * Sends commands for tables whose game thread runs on another node to that node.
+ */
+public interface TableCommandForwarder {
+
+    /**
+     * Forwards the command to the table's owner. Commands for the same table are
+     * delivered to the owner in the order they were forwarded from this node.
+     *
+     * @param command the command
+     */
+    void forward(TableCommandDTO command);
+}
@@ -0,0 +1,87 @@
+package com.twb.pokerapp.service.game.cluster;
+
+import com.twb.pokerapp.configuration.ProfileConfiguration;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Applies forwarded table commands off the AMQP consumer thread, one lane per table.
+ * <p>
+ * Applying a command can block, resuming a hibernated table waits for its game thread to start,
+ * so each table's commands run in the order they arrived on a virtual thread of their own and a
+ * slow table only holds up itself. A lane exists while it has commands queued.
+ */
+@Component
+@Profile({ProfileConfiguration.DIGITALOCEAN_PROFILE, ProfileConfiguration.CLUSTER_PROFILE})
+public class TableCommandLanes {
+    private static final Logger logger = LoggerFactory.getLogger(TableCommandLanes.class);
+    private static final String LANE_THREAD_PREFIX = "table-command-";
+
+    private final Map<UUID, Queue<Runnable>> lanes = new ConcurrentHashMap<>();
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(LANE_THREAD_PREFIX, 0).factory());
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    /**
+     * Queues the task on the table's lane, starting the lane if it is idle.
+     *
+     * @param tableId the table ID
+     * @param task    the task, run after any queued before it for the same table
+     */
+    public void execute(UUID tableId, Runnable task) {
+        boolean[] started = {false};
+        lanes.compute(tableId, (id, queue) -> {
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                started[0] = true;
+            }
+            queue.add(task);
+            return queue;
+        });
+        if (!started[0]) {
+            return;
+        }
+        try {
+            executor.execute(() -> drain(tableId));
+        } catch (RejectedExecutionException e) {
+            Queue<Runnable> dropped = lanes.remove(tableId);
+            logger.warn("Table command lanes are shutting down, dropping {} commands for table {}",
+                    dropped == null ? 0 : dropped.size(), tableId);
+        }
+    }
+
+    private void drain(UUID tableId) {
+        while (true) {
+            Runnable[] next = {null};
+            // the lane is removed under the same lock that queues to it, so no task is left behind
+            lanes.computeIfPresent(tableId, (id, queue) -> {
+                next[0] = queue.poll();
+                return next[0] == null ? null : queue;
+            });
+            if (next[0] == null) {
+                return;
+            }
+            try {
+                next[0].run();
+            } catch (Exception e) {
+                logger.error("Failed to apply command for table {}", tableId, e);
+            }
+        }
+    }
+}
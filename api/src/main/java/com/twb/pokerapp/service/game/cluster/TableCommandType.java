@@ -0,0 +1,8 @@
+package com.twb.pokerapp.service.game.cluster;
+
+public enum TableCommandType {
+    PLAYER_ACTION,
+    TIME_BANK,
+    PLAYERS_CHANGED,
+    PLAYER_DISCONNECTED
+}
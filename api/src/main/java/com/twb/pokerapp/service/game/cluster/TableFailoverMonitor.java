@@ -0,0 +1,94 @@
+package com.twb.pokerapp.service.game.cluster;
+
+import com.twb.pokerapp.domain.PlayerSession;
+import com.twb.pokerapp.domain.PokerTable;
+import com.twb.pokerapp.repository.PlayerSessionRepository;
+import com.twb.pokerapp.repository.TableRepository;
+import com.twb.pokerapp.service.game.thread.GameThreadManager;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps this node's table leases alive and adopts tables abandoned by other nodes.
+ * <p>
+ * Every {@code renew-interval-ms} the node renews all of its leases in one statement, stopping
+ * the game loop of any table whose lease was lost, then looks for expired leases. An expired
+ * table with connected players is taken over by starting its game loop here (the lease acquire
+ * decides the winner if several nodes try at once), one without players simply has its lease removed.
+ */
+@Component
+@RequiredArgsConstructor
+public class TableFailoverMonitor {
+    private static final Logger logger = LoggerFactory.getLogger(TableFailoverMonitor.class);
+    private static final String MONITOR_THREAD_NAME = "table-lease-monitor";
+
+    private final TableLeaseService leaseService;
+    private final GameThreadManager threadManager;
+    private final TableRepository tableRepository;
+    private final PlayerSessionRepository playerSessionRepository;
+    private ScheduledExecutorService monitorExecutor;
+    private ScheduledFuture<?> monitorTask;
+
+    @Value("${app.cluster.renew-interval-ms:5000}")
+    private long renewIntervalMs;
+
+    @PostConstruct
+    public void init() {
+        monitorExecutor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name(MONITOR_THREAD_NAME).daemon(true).factory());
+        monitorTask = monitorExecutor.scheduleWithFixedDelay(this::monitor,
+                renewIntervalMs, renewIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        monitorTask.cancel(false);
+        monitorExecutor.shutdownNow();
+    }
+
+    private void monitor() {
+        try {
+            renewLeases();
+            takeOverExpiredTables();
+        } catch (Exception e) {
+            logger.error("Failed to monitor table leases for node {}", leaseService.getNodeId(), e);
+        }
+    }
+
+    private void renewLeases() {
+        Set<UUID> lostTables = leaseService.renew();
+        for (UUID tableId : lostTables) {
+            logger.warn("Node {} lost the lease for table {}, stopping its game", leaseService.getNodeId(), tableId);
+            threadManager.onLeaseLost(tableId);
+        }
+    }
+
+    private void takeOverExpiredTables() {
+        for (UUID tableId : leaseService.findExpiredTableIds()) {
+            List<PlayerSession> playerSessions =
+                    playerSessionRepository.findConnectedPlayersByTableIdNoLock(tableId);
+            if (playerSessions.isEmpty()) {
+                leaseService.deleteIfExpired(tableId);
+                continue;
+            }
+            Optional<PokerTable> tableOpt = tableRepository.findById(tableId);
+            if (tableOpt.isPresent() && threadManager.createIfNotExist(tableOpt.get()).isPresent()) {
+                logger.info("Node {} took over table {}", leaseService.getNodeId(), tableId);
+            }
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package com.twb.pokerapp.service.game.cluster;
+
+import com.twb.pokerapp.repository.TableLeaseRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cluster-wide table ownership through renewable leases in the {@code table_lease} table.
+ * <p>
+ * A node may only run a table's game loop while it holds the table's lease. Leases are acquired
+ * when the game starts, renewed in bulk by the {@link TableFailoverMonitor} and released when the
+ * game finishes. If a node stops renewing (crash, long pause, lost database) its leases expire and
+ * another node takes the tables over. All lease writes run in their own transaction so that a
+ * lease is never rolled back together with the request that happened to start the game.
+ * <p>
+ * A paused node only learns on its next renew that a lease was taken over, so each held lease also
+ * has a local deadline, {@code lease-ttl-ms} less {@code lease-safety-margin-ms} after the acquire or
+ * renew was sent. Past it, {@link #holdsLease(UUID)} is false and the node stops writing the table
+ * even though the lease may not have expired yet.
+ */
+@Component
+public class TableLeaseService {
+    private static final Logger logger = LoggerFactory.getLogger(TableLeaseService.class);
+
+    private final TableLeaseRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<UUID, Long> leaseDeadlines = new ConcurrentHashMap<>(); // System.nanoTime() deadlines
+    private final Map<UUID, CachedOwner> ownerCache = new ConcurrentHashMap<>();
+
+    @Value("${app.cluster.node-id:}")
+    private String configuredNodeId;
+
+    @Getter
+    @Value("${app.cluster.lease-ttl-ms:15000}")
+    private long leaseTtlMs;
+
+    @Value("${app.cluster.lease-safety-margin-ms:3000}")
+    private long leaseSafetyMarginMs;
+
+    @Value("${app.cluster.owner-cache-ms:2000}")
+    private long ownerCacheMs;
+
+    @Getter
+    private String nodeId;
+
+    public TableLeaseService(TableLeaseRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    @PostConstruct
+    public void init() {
+        if (leaseSafetyMarginMs < 0 || leaseSafetyMarginMs >= leaseTtlMs) {
+            throw new IllegalStateException("Lease safety margin must be at least 0 and less than the lease TTL: "
+                    + leaseSafetyMarginMs + "ms of " + leaseTtlMs + "ms");
+        }
+        nodeId = StringUtils.isBlank(configuredNodeId) ? UUID.randomUUID().toString() : configuredNodeId;
+        logger.info("Table leases are held as node {}", nodeId);
+    }
+
+    /**
+     * Acquires the table's lease if it is free, expired or already held by this node.
+     *
+     * @param tableId the table ID
+     * @return true if this node now owns the table
+     */
+    public boolean tryAcquire(UUID tableId) {
+        long acquiredAtNanos = System.nanoTime();
+        Integer updated = transactionTemplate.execute(status -> repository.acquire(tableId, nodeId, leaseTtlMs));
+        if (updated == null || updated == 0) {
+            return false;
+        }
+        leaseDeadlines.merge(tableId, getDeadlineNanos(acquiredAtNanos), Math::max);
+        ownerCache.remove(tableId);
+        return true;
+    }
+
+    /**
+     * Releases the table's lease if this node holds it.
+     *
+     * @param tableId the table ID
+     */
+    public void release(UUID tableId) {
+        ownerCache.remove(tableId);
+        if (leaseDeadlines.remove(tableId) != null) {
+            transactionTemplate.executeWithoutResult(status -> repository.release(tableId, nodeId));
+        }
+    }
+
+    /**
+     * Renews every lease this node holds with a single update, moving their local deadlines on.
+     *
+     * @return the tables this node thought it owned but whose lease has been lost
+     */
+    public Set<UUID> renew() {
+        // only tables owned before the renew can be lost, one acquired meanwhile may not be in its result
+        Set<UUID> lost = new HashSet<>(leaseDeadlines.keySet());
+        if (lost.isEmpty()) {
+            return Set.of();
+        }
+        long renewedAtNanos = System.nanoTime();
+        List<UUID> renewed = transactionTemplate.execute(status -> {
+            repository.renewAll(nodeId, leaseTtlMs);
+            return repository.findLiveTableIdsByOwnerNode(nodeId);
+        });
+        if (renewed != null) {
+            long deadlineNanos = getDeadlineNanos(renewedAtNanos);
+            for (UUID tableId : renewed) {
+                if (lost.remove(tableId)) {
+                    leaseDeadlines.computeIfPresent(tableId, (id, current) -> Math.max(current, deadlineNanos));
+                }
+            }
+        }
+        for (UUID tableId : lost) {
+            leaseDeadlines.remove(tableId);
+            ownerCache.remove(tableId);
+        }
+        return lost;
+    }
+
+    /**
+     * Looks up the node running the table, cached briefly as ownership only changes on failover. The cached
+     * owner is evicted when this node sees the lease change hands, or with {@link #evictOwner(UUID)}.
+     *
+     * @param tableId the table ID
+     * @return the owning node ID, empty if no node holds a live lease
+     */
+    public Optional<String> findOwner(UUID tableId) {
+        long nowNanos = System.nanoTime();
+        CachedOwner cached = ownerCache.get(tableId);
+        if (cached != null && cached.expiresAtNanos() - nowNanos > 0) {
+            return Optional.of(cached.nodeId());
+        }
+        Optional<String> ownerOpt = transactionTemplate.execute(status -> repository.findLiveOwnerNode(tableId));
+        if (ownerOpt == null || ownerOpt.isEmpty()) {
+            ownerCache.remove(tableId);
+            return Optional.empty();
+        }
+        ownerCache.put(tableId, new CachedOwner(ownerOpt.get(), nowNanos + TimeUnit.MILLISECONDS.toNanos(ownerCacheMs)));
+        return ownerOpt;
+    }
+
+    /**
+     * Forgets the table's cached owner, e.g. after a command sent to it could not be routed.
+     *
+     * @param tableId the table ID
+     */
+    public void evictOwner(UUID tableId) {
+        ownerCache.remove(tableId);
+    }
+
+    /**
+     * Returns the tables whose owner has stopped renewing their lease, their cached owners are evicted.
+     */
+    public List<UUID> findExpiredTableIds() {
+        List<UUID> expired = transactionTemplate.execute(status -> repository.findExpiredTableIds());
+        if (expired == null) {
+            return List.of();
+        }
+        expired.forEach(ownerCache::remove);
+        return expired;
+    }
+
+    /**
+     * Removes an expired lease for a table that no longer needs a game loop.
+     *
+     * @param tableId the table ID
+     */
+    public void deleteIfExpired(UUID tableId) {
+        transactionTemplate.executeWithoutResult(status -> repository.deleteIfExpired(tableId));
+    }
+
+    public boolean isOwned(UUID tableId) {
+        return leaseDeadlines.containsKey(tableId);
+    }
+
+    /**
+     * Checks the table's lease is held and its local deadline has not passed, before the game loop
+     * carries on or its writes are flushed.
+     *
+     * @param tableId the table ID
+     * @return false if this node must stop writing the table
+     */
+    public boolean holdsLease(UUID tableId) {
+        Long deadlineNanos = leaseDeadlines.get(tableId);
+        return deadlineNanos != null && deadlineNanos - System.nanoTime() > 0;
+    }
+
+    private long getDeadlineNanos(long sentAtNanos) {
+        return sentAtNanos + TimeUnit.MILLISECONDS.toNanos(leaseTtlMs - leaseSafetyMarginMs);
+    }
+
+    private record CachedOwner(String nodeId, long expiresAtNanos) {
+    }
+}
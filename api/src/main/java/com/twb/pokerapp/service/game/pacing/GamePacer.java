@@ -0,0 +1,16 @@
+package com.twb.pokerapp.service.game.pacing;
+
+/**
+ * Pauses a table's game loop between its steps, all game pacing goes through this
+ * so that tables can wait in real time or skip their pauses in virtual time.
+ */
+public interface GamePacer {
+
+    /**
+     * Pauses the game loop for the given time.
+     *
+     * @param ms the time to pause for
+     * @throws InterruptedException if the game thread is interrupted
+     */
+    void pause(long ms) throws InterruptedException;
+}
@@ -0,0 +1,22 @@
+package com.twb.pokerapp.service.game.pacing;
+
+import com.twb.pokerapp.domain.enumeration.PacingPolicy;
+
+/**
+ * Maps a table's {@link PacingPolicy} to how its game loop pauses.
+ */
+public final class GamePacers {
+
+    private GamePacers() {
+    }
+
+    /**
+     * Returns the pacer a table with the given policy pauses with.
+     *
+     * @param pacing the table's pacing policy
+     * @return the pacer, shared between tables as it holds no state
+     */
+    public static GamePacer forPolicy(PacingPolicy pacing) {
+        return pacing.isVirtualTime() ? VirtualGamePacer.INSTANCE : RealTimeGamePacer.INSTANCE;
+    }
+}
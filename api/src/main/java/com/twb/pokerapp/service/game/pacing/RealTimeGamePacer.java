@@ -0,0 +1,16 @@
+package com.twb.pokerapp.service.game.pacing;
+
+/**
+ * Wall clock time, pauses block the game thread.
+ */
+public final class RealTimeGamePacer implements GamePacer {
+    public static final RealTimeGamePacer INSTANCE = new RealTimeGamePacer();
+
+    private RealTimeGamePacer() {
+    }
+
+    @Override
+    public void pause(long ms) throws InterruptedException {
+        Thread.sleep(ms);
+    }
+}
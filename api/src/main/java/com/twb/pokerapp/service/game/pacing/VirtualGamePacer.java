@@ -0,0 +1,18 @@
+package com.twb.pokerapp.service.game.pacing;
+
+/**
+ * Virtual time, pauses return straight away but still notice the game thread being interrupted.
+ */
+public final class VirtualGamePacer implements GamePacer {
+    public static final VirtualGamePacer INSTANCE = new VirtualGamePacer();
+
+    private VirtualGamePacer() {
+    }
+
+    @Override
+    public void pause(long ms) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException("Game pause interrupted");
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.twb.pokerapp.service.game.state;
+
+import com.twb.pokerapp.domain.enumeration.GameType;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * What is kept in memory for a hibernated table. Between rounds everything else (seats, dealer,
+ * finished rounds) is already in the database, so this only needs enough to start the game loop again.
+ *
+ * @param tableId        the table ID
+ * @param gameType       the game type, to create the right game thread
+ * @param hibernatedAt   when the table went idle
+ */
+public record TableSnapshot(UUID tableId, GameType gameType, Instant hibernatedAt) {
+}
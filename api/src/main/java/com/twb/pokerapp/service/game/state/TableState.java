@@ -0,0 +1,180 @@
+package com.twb.pokerapp.service.game.state;
+
+import com.twb.pokerapp.domain.*;
+import com.twb.pokerapp.domain.enumeration.ActionType;
+import com.twb.pokerapp.service.game.CardSet;
+import com.twb.pokerapp.service.game.Deck;
+import com.twb.pokerapp.service.game.DeckPool;
+import com.twb.pokerapp.service.game.PackedCards;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.security.SecureRandom;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * In-memory state of a table, the source of truth while a round is running.
+ * <p>
+ * The game thread reads and mutates this instead of going back to the database,
+ * changes are handed to the {@link TableStatePersister} which writes them behind.
+ * Only the game thread mutates it, the round collections stay thread-safe for readers on other threads.
+ */
+@Getter
+public class TableState {
+    private static final long SEATS_NOT_LOADED = -1;
+    private static final SecureRandom SEED_SOURCE = new SecureRandom();
+
+    private final UUID tableId;
+
+    @Setter
+    private PokerTable pokerTable;
+
+    // *****************************************************************************************
+    // Seats
+    // *****************************************************************************************
+    private volatile List<PlayerSession> seats = List.of();
+    private volatile PlayerSession dealer;
+    private volatile long seatsVersion = SEATS_NOT_LOADED;
+
+    // *****************************************************************************************
+    // Round
+    // *****************************************************************************************
+    private volatile Round round;
+    private final Map<UUID, Hand> hands = new ConcurrentHashMap<>(); // by player session id
+    private final Map<UUID, Long> holeCards = new ConcurrentHashMap<>(); // CardSet by player session id
+    private volatile long communityCards = CardSet.EMPTY;
+    private final List<PlayerAction> actions = new CopyOnWriteArrayList<>();
+
+    // *****************************************************************************************
+    // Deck
+    // *****************************************************************************************
+    @Getter(AccessLevel.NONE)
+    private final Deck deck = new Deck();
+    @Getter(AccessLevel.NONE)
+    private final SplittableRandom deckSeeds; // this table's stream of shuffle seeds
+
+    public TableState(UUID tableId) {
+        this.tableId = tableId;
+        this.deckSeeds = new SplittableRandom(SEED_SOURCE.nextLong());
+    }
+
+    // *****************************************************************************************
+    // Seats
+    // *****************************************************************************************
+
+    /**
+     * Checks the seats against the players version the caller last observed.
+     *
+     * @param playersVersion the player join/leave version the caller last observed
+     * @return true if the seats were loaded at or after that version
+     */
+    public boolean isSeatsCurrent(long playersVersion) {
+        return seatsVersion == playersVersion;
+    }
+
+    public void setSeats(List<PlayerSession> seats, long playersVersion) {
+        this.seats = List.copyOf(seats);
+        this.seatsVersion = playersVersion;
+    }
+
+    public void setSeats(List<PlayerSession> seats, PlayerSession dealer) {
+        this.seats = List.copyOf(seats);
+        this.dealer = dealer;
+    }
+
+    // *****************************************************************************************
+    // Round
+    // *****************************************************************************************
+
+    public void startRound(Round round) {
+        this.round = round;
+        hands.clear();
+        holeCards.clear();
+        communityCards = CardSet.EMPTY;
+        actions.clear();
+    }
+
+    /**
+     * Adds a card to the player's hand for the current round.
+     *
+     * @return the hand the card was added to, created if this is the player's first card
+     */
+    public Hand addPlayerCard(PlayerSession playerSession, Card card) {
+        Hand hand = hands.computeIfAbsent(playerSession.getId(), id -> {
+            Hand newHand = new Hand();
+            newHand.setRound(round);
+            newHand.setRoundStartedAt(round.getStartedAt());
+            newHand.setPlayerSession(playerSession);
+            return newHand;
+        });
+        hand.setHoleCards(PackedCards.add(hand.getHoleCards(), card.getRankValue()));
+        holeCards.merge(playerSession.getId(), CardSet.of(card.getRankValue()), CardSet::union);
+        return hand;
+    }
+
+    public void addCommunityCard(Card card) {
+        round.setBoardCards(PackedCards.add(round.getBoardCards(), card.getRankValue()));
+        communityCards = CardSet.with(communityCards, card.getRankValue());
+    }
+
+    public Optional<Hand> getHand(PlayerSession playerSession) {
+        return Optional.ofNullable(hands.get(playerSession.getId()));
+    }
+
+    /**
+     * Returns the player's hole cards as a {@link CardSet}.
+     */
+    public long getHoleCards(PlayerSession playerSession) {
+        return holeCards.getOrDefault(playerSession.getId(), CardSet.EMPTY);
+    }
+
+    public PlayerAction addAction(PlayerSession playerSession, ActionType actionType) {
+        PlayerAction playerAction = new PlayerAction();
+        playerAction.setPlayerSession(playerSession);
+        playerAction.setRound(round);
+        playerAction.setRoundStartedAt(round.getStartedAt());
+        playerAction.setRoundState(round.getRoundState());
+        playerAction.setActionType(actionType);
+        playerAction.setAmount(null);
+        actions.add(playerAction);
+        return playerAction;
+    }
+
+    public Optional<PlayerAction> getLastAction(PlayerSession playerSession) {
+        for (int index = actions.size() - 1; index >= 0; index--) {
+            PlayerAction playerAction = actions.get(index);
+            if (playerAction.getPlayerSession().getId().equals(playerSession.getId())) {
+                return Optional.of(playerAction);
+            }
+        }
+        return Optional.empty();
+    }
+
+    // *****************************************************************************************
+    // Deck
+    // *****************************************************************************************
+
+    /**
+     * Takes a pre-shuffled deck from the pool, or shuffles with the next seed from the
+     * table's stream if the pool is empty.
+     *
+     * @param deckPool the node's pool of pre-shuffled decks
+     * @return the seed, recorded with the round so it can be replayed
+     */
+    public long shuffleDeck(DeckPool deckPool) {
+        if (!deckPool.take(deck)) {
+            deck.shuffle(deckSeeds.nextLong());
+        }
+        return deck.getSeed();
+    }
+
+    /**
+     * Returns the next card's {@code rankValue}, see {@link CardSet}.
+     */
+    public int nextCard() {
+        return deck.next();
+    }
+}
@@ -0,0 +1,302 @@
+package com.twb.pokerapp.service.game.state;
+
+import com.twb.pokerapp.domain.Hand;
+import com.twb.pokerapp.domain.PlayerAction;
+import com.twb.pokerapp.domain.Round;
+import com.twb.pokerapp.domain.enumeration.RoundState;
+import com.twb.pokerapp.exception.game.LeaseLostException;
+import com.twb.pokerapp.service.game.cluster.TableLeaseService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind persistence for {@link TableState}.
+ * <p>
+ * The game thread hands every new or changed entity to {@link #write(UUID, Object)} and carries on,
+ * pending writes are flushed per table in a single transaction (JDBC batched) either on the
+ * background flush interval, once a table has {@code batch-size} pending writes, or synchronously
+ * when the round reaches one of the configured checkpoint states.
+ * <p>
+ * Entities must be written in dependency order (round, then hand) which the game thread does
+ * naturally, an entity written more than once before a flush is only persisted once with its latest state.
+ * <p>
+ * The game thread keeps changing its entities after writing them, so {@link #write(UUID, Object)} queues
+ * a copy taken on the game thread and only the copies are touched by the flush. New hands and actions are
+ * given their ID when first written, which tells the flush to insert rather than update them. Writes of a
+ * failed flush are queued again ahead of any newer ones and retried on the next flush.
+ * <p>
+ * A flush only goes ahead while this node holds the table's lease (see {@link TableLeaseService#holdsLease(UUID)}),
+ * otherwise the table's pending writes are dropped as another node may already be writing the table.
+ */
+@Component
+public class TableStatePersister {
+    private static final Logger logger = LoggerFactory.getLogger(TableStatePersister.class);
+    private static final String FLUSH_THREAD_NAME = "table-state-persister";
+
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final TableLeaseService leaseService;
+    private final Map<UUID, PendingWrites> pendingWrites = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flushExecutor;
+    private ScheduledFuture<?> flushTask;
+
+    @Value("${app.game.persistence.flush-interval-ms:500}")
+    private long flushIntervalMs;
+
+    @Value("${app.game.persistence.batch-size:50}")
+    private int batchSize;
+
+    @Value("${app.game.persistence.checkpoints:FINISH}")
+    private RoundState[] checkpoints;
+
+    private Set<RoundState> checkpointStates;
+
+    public TableStatePersister(EntityManager entityManager, PlatformTransactionManager transactionManager,
+                               TableLeaseService leaseService) {
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.leaseService = leaseService;
+    }
+
+    @PostConstruct
+    public void init() {
+        checkpointStates = checkpoints.length == 0
+                ? EnumSet.noneOf(RoundState.class) : EnumSet.copyOf(Arrays.asList(checkpoints));
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name(FLUSH_THREAD_NAME).daemon(true).factory());
+        flushTask = flushExecutor.scheduleWithFixedDelay(this::flushAll,
+                flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        flushTask.cancel(false);
+        flushExecutor.shutdown();
+        flushAll();
+    }
+
+    /**
+     * Queues a new or changed entity to be persisted for the given table.
+     *
+     * @param tableId the table ID
+     * @param entity  the {@link Round}, {@link Hand} or {@link PlayerAction} to persist or merge
+     */
+    public void write(UUID tableId, Object entity) {
+        PendingWrites writes = pendingWrites.computeIfAbsent(tableId, id -> new PendingWrites());
+        if (writes.add(snapshot(entity)) >= batchSize) {
+            flushExecutor.execute(() -> flushQuietly(tableId));
+        }
+    }
+
+    /**
+     * Flushes the table synchronously if the round state is a configured durability checkpoint.
+     *
+     * @param tableId    the table ID
+     * @param roundState the round state just entered
+     */
+    public void checkpoint(UUID tableId, RoundState roundState) {
+        if (checkpointStates.contains(roundState)) {
+            flush(tableId);
+        }
+    }
+
+    /**
+     * Synchronously persists all pending writes for the table.
+     *
+     * @param tableId the table ID
+     * @throws LeaseLostException if this node no longer holds the table's lease, the writes are dropped
+     */
+    public void flush(UUID tableId) {
+        PendingWrites writes = pendingWrites.get(tableId);
+        if (writes == null) {
+            return;
+        }
+        writes.lock.lock();
+        try {
+            List<PendingWrite> drained = writes.drain();
+            if (drained.isEmpty()) {
+                return;
+            }
+            if (!leaseService.holdsLease(tableId)) {
+                pendingWrites.remove(tableId, writes);
+                throw new LeaseLostException("Dropped " + drained.size()
+                        + " writes for table " + tableId + " as its lease is no longer held");
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (PendingWrite write : drained) {
+                        if (write.isNew()) {
+                            entityManager.persist(write.entity());
+                        } else {
+                            entityManager.merge(write.entity());
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                writes.requeue(drained);
+                throw e;
+            }
+        } finally {
+            writes.lock.unlock();
+        }
+    }
+
+    /**
+     * Flushes and forgets the table, called when its game finishes.
+     *
+     * @param tableId the table ID
+     */
+    public void close(UUID tableId) {
+        flush(tableId);
+        pendingWrites.remove(tableId);
+    }
+
+    /**
+     * Drops the table's pending writes without persisting them, called when the table's lease was
+     * lost as another node may already be writing the table.
+     *
+     * @param tableId the table ID
+     */
+    public void discard(UUID tableId) {
+        PendingWrites writes = pendingWrites.remove(tableId);
+        if (writes != null) {
+            writes.drain();
+        }
+    }
+
+    private void flushAll() {
+        for (UUID tableId : pendingWrites.keySet()) {
+            flushQuietly(tableId);
+        }
+    }
+
+    private void flushQuietly(UUID tableId) {
+        try {
+            flush(tableId);
+        } catch (LeaseLostException e) {
+            logger.warn(e.getMessage());
+        } catch (Exception e) {
+            logger.error("Failed to flush table state for table {}", tableId, e);
+        }
+    }
+
+    // *****************************************************************************************
+    // Snapshots
+    // *****************************************************************************************
+
+    /**
+     * Copies the entity on the calling game thread. Referenced entities are shared with the game
+     * thread, which is safe as only their IDs are read to write the foreign keys.
+     */
+    private static PendingWrite snapshot(Object entity) {
+        return switch (entity) {
+            case Round round -> {
+                if (round.getId() == null) {
+                    throw new IllegalArgumentException("Round must be saved before it is written: " + round);
+                }
+                yield new PendingWrite(round.getId(), copy(round), false);
+            }
+            case Hand hand -> {
+                boolean isNew = hand.getId() == null;
+                if (isNew) {
+                    hand.setId(UUID.randomUUID());
+                }
+                yield new PendingWrite(hand.getId(), copy(hand), isNew);
+            }
+            case PlayerAction playerAction -> {
+                boolean isNew = playerAction.getId() == null;
+                if (isNew) {
+                    playerAction.setId(UUID.randomUUID());
+                }
+                yield new PendingWrite(playerAction.getId(), copy(playerAction), isNew);
+            }
+            default -> throw new IllegalArgumentException("Cannot write " + entity.getClass().getSimpleName());
+        };
+    }
+
+    private static Round copy(Round round) {
+        Round copy = new Round();
+        copy.setId(round.getId());
+        copy.setRoundState(round.getRoundState());
+        copy.setPokerTable(round.getPokerTable());
+        copy.setDeckSeed(round.getDeckSeed());
+        copy.setBoardCards(round.getBoardCards());
+        copy.setStartedAt(round.getStartedAt());
+        return copy;
+    }
+
+    private static Hand copy(Hand hand) {
+        Hand copy = new Hand();
+        copy.setId(hand.getId());
+        copy.setHandType(hand.getHandType());
+        copy.setWinner(hand.getWinner());
+        copy.setBestFive(hand.getBestFive());
+        copy.setPlayerSession(hand.getPlayerSession());
+        copy.setRound(hand.getRound());
+        copy.setRoundStartedAt(hand.getRoundStartedAt());
+        copy.setHoleCards(hand.getHoleCards());
+        return copy;
+    }
+
+    private static PlayerAction copy(PlayerAction playerAction) {
+        PlayerAction copy = new PlayerAction();
+        copy.setId(playerAction.getId());
+        copy.setPlayerSession(playerAction.getPlayerSession());
+        copy.setRound(playerAction.getRound());
+        copy.setRoundState(playerAction.getRoundState());
+        copy.setActionType(playerAction.getActionType());
+        copy.setAmount(playerAction.getAmount());
+        copy.setRoundStartedAt(playerAction.getRoundStartedAt());
+        return copy;
+    }
+
+    /**
+     * A copy of an entity to write, inserted if it has never been flushed.
+     */
+    private record PendingWrite(UUID id, Object entity, boolean isNew) {
+
+        PendingWrite mergeNewer(PendingWrite newer) {
+            return new PendingWrite(id, newer.entity(), isNew || newer.isNew());
+        }
+    }
+
+    private static class PendingWrites {
+        private final ReentrantLock lock = new ReentrantLock();
+        private Map<UUID, PendingWrite> writes = new LinkedHashMap<>(); // in first write order
+
+        synchronized int add(PendingWrite write) {
+            writes.merge(write.id(), write, PendingWrite::mergeNewer);
+            return writes.size();
+        }
+
+        synchronized List<PendingWrite> drain() {
+            List<PendingWrite> drained = new ArrayList<>(writes.values());
+            writes.clear();
+            return drained;
+        }
+
+        /**
+         * Puts back writes that failed to flush, ahead of and superseded by any written since.
+         */
+        synchronized void requeue(List<PendingWrite> failed) {
+            Map<UUID, PendingWrite> requeued = new LinkedHashMap<>();
+            for (PendingWrite write : failed) {
+                PendingWrite newer = writes.remove(write.id());
+                requeued.put(write.id(), newer == null ? write : write.mergeNewer(newer));
+            }
+            requeued.putAll(writes);
+            writes = requeued;
+        }
+    }
+}
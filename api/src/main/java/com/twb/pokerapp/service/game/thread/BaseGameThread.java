@@ -1,17 +1,31 @@
 package com.twb.pokerapp.service.game.thread;
 
+import com.twb.pokerapp.configuration.AsyncConfiguration;
+import com.twb.pokerapp.domain.enumeration.PacingPolicy;
 import com.twb.pokerapp.repository.*;
 import com.twb.pokerapp.service.*;
+import com.twb.pokerapp.service.eval.EquityCalculator;
 import com.twb.pokerapp.service.eval.HandEvaluator;
+import com.twb.pokerapp.service.game.DeckPool;
+import com.twb.pokerapp.service.game.cluster.TableLeaseService;
+import com.twb.pokerapp.service.game.state.TableStatePersister;
+import com.twb.pokerapp.service.game.timer.TurnTimerService;
 import com.twb.pokerapp.web.websocket.message.MessageDispatcher;
 import com.twb.pokerapp.web.websocket.message.server.ServerMessageFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+
+import java.util.concurrent.Executor;
 
 /**
  * Abstract base class for game threads.
  * Provides common functionality and dependencies for game threads.
+ * <p>
+ * A game thread is a {@link Runnable} table loop, the {@link Thread} it runs on is
+ * supplied by the {@link GameThreadManager} so that tables can run on virtual threads.
  */
-public abstract class BaseGameThread extends Thread {
+public abstract class BaseGameThread implements Runnable {
 
     // *****************************************************************************************
     // Autowired Beans
@@ -42,23 +56,37 @@ public abstract class BaseGameThread extends Thread {
     protected PlayerSessionRepository playerSessionRepository;
 
     @Autowired
-    protected HandService handService;
+    protected HandEvaluator handEvaluator;
 
     @Autowired
-    protected HandRepository handRepository;
+    protected PlayerActionService playerActionService;
 
     @Autowired
-    protected CardService cardService;
+    protected TableStatePersister persister;
 
     @Autowired
-    protected CardRepository cardRepository;
+    protected TurnTimerService turnTimerService;
 
     @Autowired
-    protected HandEvaluator handEvaluator;
+    protected DeckPool deckPool;
 
     @Autowired
-    protected PlayerActionService playerActionService;
+    protected EquityCalculator equityCalculator;
+
+    @Autowired
+    protected TableLeaseService leaseService;
 
     @Autowired
-    protected PlayerActionRepository playerActionRepository;
+    @Qualifier(AsyncConfiguration.TABLE_TASK_EXECUTOR)
+    protected Executor tableTaskExecutor;
+
+    // *****************************************************************************************
+    // Properties
+    // *****************************************************************************************
+
+    @Value("${app.game.pacing:REAL_TIME}")
+    protected PacingPolicy defaultPacingPolicy;
+
+    @Value("${app.game.hibernate-after-ms:300000}") // 5 minutes, 0 to never hibernate
+    protected long hibernateAfterMs;
 }
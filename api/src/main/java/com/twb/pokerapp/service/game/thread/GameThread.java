@@ -3,37 +3,52 @@ package com.twb.pokerapp.service.game.thread;
 import com.twb.pokerapp.domain.*;
 import com.twb.pokerapp.domain.enumeration.ActionType;
 import com.twb.pokerapp.domain.enumeration.GameType;
+import com.twb.pokerapp.domain.enumeration.PacingPolicy;
 import com.twb.pokerapp.domain.enumeration.RoundState;
 import com.twb.pokerapp.dto.playeraction.PlayerActionDTO;
+import com.twb.pokerapp.exception.game.GameHibernatedException;
 import com.twb.pokerapp.exception.game.GameInterruptedException;
+import com.twb.pokerapp.exception.game.LeaseLostException;
 import com.twb.pokerapp.exception.game.RoundInterruptedException;
 import com.twb.pokerapp.service.eval.dto.EvalPlayerHandDTO;
-import com.twb.pokerapp.service.game.DeckOfCardsFactory;
+import com.twb.pokerapp.service.game.CardSet;
+import com.twb.pokerapp.service.game.pacing.GamePacer;
+import com.twb.pokerapp.service.game.pacing.GamePacers;
+import com.twb.pokerapp.service.game.state.TableSnapshot;
+import com.twb.pokerapp.service.game.state.TableState;
+import com.twb.pokerapp.service.game.timer.TurnTimeout;
+import com.twb.pokerapp.service.history.HistoryPartitions;
 import com.twb.pokerapp.web.websocket.message.client.CreatePlayerActionDTO;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.collections4.CollectionUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.Optional;
-import java.util.concurrent.CountDownLatch;
+import java.time.Instant;
+import java.util.*;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+/**
+ * A table's game loop.
+ * <p>
+ * The game loop is the single writer of the table's state: joins, leaves, player actions, time banks
+ * and turn timeouts arrive from other threads through the public methods below, which only enqueue a
+ * command on the table's {@link TableInbox} and return. The game loop applies the commands in order
+ * whenever it waits for a player or checks whether the round has been interrupted.
+ * <p>
+ * A table left waiting for players for {@code app.game.hibernate-after-ms} hibernates: the game loop
+ * ends, its lease is released once its writes are flushed and only a {@link TableSnapshot} is kept
+ * until the next join or action resumes it, on this node or on whichever node a player joins.
+ */
 @RequiredArgsConstructor
 public abstract class GameThread extends BaseGameThread {
     // *****************************************************************************************
     // Constants
     // *****************************************************************************************
-    protected static final long DEAL_WAIT_MS = 1000; // 1 second
-    protected static final long DB_POLL_WAIT_MS = 1000; // 1 second
-    protected static final long EVALUATION_WAIT_MS = 4 * 1000; // 4 seconds
-    protected static final long PLAYER_TURN_WAIT_MS = 30 * 1000; // 30 seconds
+    protected static final long WAITING_MESSAGE_INTERVAL_MS = 5 * 1000; // 5 seconds
+    protected static final long TIME_BANK_MS = 30 * 1000; // 30 seconds
     private static final Logger logger = LoggerFactory.getLogger(GameThread.class);
-    private static final int MESSAGE_POLL_DIVISOR = 5;
     private static final int MINIMUM_PLAYERS_CONNECTED = 1;
     private static final String NO_MORE_PLAYERS_CONNECTED = "No more players connected";
 
@@ -49,18 +64,27 @@ public abstract class GameThread extends BaseGameThread {
     private final AtomicBoolean interruptRound = new AtomicBoolean(false);
     private final AtomicBoolean roundInProgress = new AtomicBoolean(false);
     private final AtomicBoolean gameInProgress = new AtomicBoolean(false);
+    private final AtomicBoolean leaseLost = new AtomicBoolean(false);
 
     // *****************************************************************************************
     // Fields
     // *****************************************************************************************
     protected PokerTable pokerTable;
+    protected PacingPolicy pacing;
+    protected GamePacer pacer;
     protected Round currentRound;
-    protected List<PlayerSession> playerSessions = new ArrayList<>();
-    protected final List<PlayerSession> foldedPlayers
-            = Collections.synchronizedList(new ArrayList<>());
-    private CountDownLatch playerTurnLatch;
-    private List<Card> deckOfCards;
-    private int deckCardPointer;
+    protected TableState tableState;
+    protected final List<PlayerSession> foldedPlayers = new ArrayList<>();
+    private PlayerTurn playerTurn;
+    private long playerTurnCount;
+    private final Set<UUID> timeBankUsed = new HashSet<>();
+    private volatile Thread runner;
+
+    // *****************************************************************************************
+    // Command Inbox
+    // *****************************************************************************************
+    private final TableInbox inbox = new TableInbox();
+    private long playersVersion;
 
     @Override
     public void run() {
@@ -87,7 +111,20 @@ public abstract class GameThread extends BaseGameThread {
                 }
             }
             finishGame();
+        } catch (GameHibernatedException e) {
+            logger.info("Table {} hibernated after {}ms without players joining", params.getTableId(), hibernateAfterMs);
+            persister.close(params.getTableId());
+            // only once the writes are flushed, the next owner resumes the table from the database
+            threadManager.onHibernated(e.getSnapshot());
+            gameInProgress.set(false);
+        } catch (LeaseLostException e) {
+            stopAfterLeaseLost();
         } catch (Exception e) {
+            if (leaseLost.get()) {
+                // the interrupt surfaced as some other failure
+                stopAfterLeaseLost();
+                return;
+            }
             logger.error(e.getMessage(), e);
             finishRound();
             finishGame();
@@ -97,9 +134,22 @@ public abstract class GameThread extends BaseGameThread {
         }
     }
 
+    /**
+     * Ends the game loop without persisting or sending anything, as another node may already be
+     * running the table. A lease that only passed its local deadline is given up if still held.
+     */
+    private void stopAfterLeaseLost() {
+        logger.warn("Table {} stopped after its lease was lost", params.getTableId());
+        persister.discard(params.getTableId());
+        roundInProgress.set(false);
+        gameInProgress.set(false);
+        threadManager.onLeaseExpired(this, params.getTableId());
+    }
+
     private void initializeThread() {
-        setName(params.getTableId().toString());
-        setPriority(Thread.MAX_PRIORITY);
+        runner = Thread.currentThread();
+        runner.setName(params.getTableId().toString());
+        inbox.bindConsumer();
         interruptGame.set(false);
         gameInProgress.set(true);
         roundInProgress.set(false);
@@ -113,6 +163,13 @@ public abstract class GameThread extends BaseGameThread {
             throw new GameInterruptedException("No table found cannot start game");
         }
         pokerTable = tableOpt.get();
+        pacing = Optional.ofNullable(pokerTable.getPacingPolicy()).orElse(defaultPacingPolicy);
+        pacer = GamePacers.forPolicy(pacing);
+        tableState = new TableState(params.getTableId());
+        tableState.setPokerTable(pokerTable);
+        if (params.getSnapshot() != null) {
+            logger.info("Table {} resumed after hibernating since {}", params.getTableId(), params.getSnapshot().hibernatedAt());
+        }
     }
 
     private void waitForMinimumPlayersToJoin() {
@@ -121,30 +178,66 @@ public abstract class GameThread extends BaseGameThread {
     }
 
     private void waitForPlayersToJoin(int minPlayerCount) {
-        int pollCount = 0;
-        List<PlayerSession> playerSessions;
-        do {
+        while (true) {
             checkGameInterrupted();
-            playerSessions = playerSessionRepository
+            processCommands();
+            long seenVersion = playersVersion;
+            List<PlayerSession> playerSessions = playerSessionRepository
                     .findConnectedPlayersByTableId(params.getTableId());
             if (playerSessions.size() >= minPlayerCount) {
+                tableState.setSeats(playerSessions, seenVersion);
                 return;
             }
-            if (pollCount % MESSAGE_POLL_DIVISOR == 0) {
+            sendLogMessage("Waiting for players to join...");
+            awaitPlayersChanged(seenVersion);
+        }
+    }
+
+    /**
+     * Applies commands until a player joins or leaves the table after {@code seenVersion} was read,
+     * re-sending the waiting message periodically without going back to the database.
+     */
+    private void awaitPlayersChanged(long seenVersion) {
+        long idleSinceNanos = System.nanoTime();
+        while (playersVersion == seenVersion) {
+            checkGameInterrupted();
+            if (!awaitCommand(WAITING_MESSAGE_INTERVAL_MS) && playersVersion == seenVersion) {
+                hibernateIfIdle(idleSinceNanos);
                 sendLogMessage("Waiting for players to join...");
             }
-            sleepInMs(DB_POLL_WAIT_MS);
-            pollCount++;
-        } while (playerSessions.size() < minPlayerCount);
+        }
+    }
+
+    /**
+     * Ends the game loop, keeping only a snapshot, if the table has been waiting long enough
+     * and no command is queued. A command that races with hibernation is refused by the closed
+     * inbox and resumes the table instead.
+     */
+    private void hibernateIfIdle(long idleSinceNanos) {
+        if (hibernateAfterMs <= 0
+                || System.nanoTime() - idleSinceNanos < TimeUnit.MILLISECONDS.toNanos(hibernateAfterMs)) {
+            return;
+        }
+        TableSnapshot snapshot = new TableSnapshot(params.getTableId(), params.getGameType(), Instant.now());
+        if (threadManager.hibernate(this, snapshot, inbox::closeIfEmpty)) {
+            throw new GameHibernatedException("Table hibernated", snapshot);
+        }
     }
 
     private void createNewRound() {
+        // the previous round must be persisted before looking up the current one
+        persister.flush(params.getTableId());
         Optional<Round> roundOpt = roundRepository
-                .findCurrentByTableId(params.getTableId());
+                .findCurrentByTableId(params.getTableId(), HistoryPartitions.activeSince());
         if (roundOpt.isPresent()) {
             currentRound = roundOpt.get();
             if (currentRound.getRoundState() != RoundState.WAITING_FOR_PLAYERS) {
-                throw new GameInterruptedException("Cannot start an existing new round not in the WAITING_FOR_PLAYERS state");
+                // left mid-play by a node that lost the table, this node holds the lease now
+                logger.warn("Abandoning round {} left in state {} on table {}",
+                        currentRound.getId(), currentRound.getRoundState(), params.getTableId());
+                currentRound.setRoundState(RoundState.FINISH);
+                roundRepository.saveAndFlush(currentRound);
+                currentRound = roundService.create(pokerTable);
             }
         } else {
             Optional<PokerTable> tableOpt = tableRepository.findById(params.getTableId());
@@ -153,6 +246,7 @@ public abstract class GameThread extends BaseGameThread {
             }
             currentRound = roundService.create(pokerTable);
         }
+        tableState.startRound(currentRound);
         sendLogMessage("New Round...");
     }
 
@@ -167,9 +261,17 @@ public abstract class GameThread extends BaseGameThread {
         return playerSessions.size() >= count;
     }
 
+    /**
+     * Gets the seated players from the table state, only going back to the database
+     * when a player has joined or left since they were last loaded.
+     */
     protected List<PlayerSession> getPlayerSessionsNotZero() {
-        List<PlayerSession> playerSessions = playerSessionRepository
-                .findConnectedPlayersByTableId(params.getTableId());
+        processCommands();
+        if (!tableState.isSeatsCurrent(playersVersion)) {
+            tableState.setSeats(playerSessionRepository
+                    .findConnectedPlayersByTableId(params.getTableId()), playersVersion);
+        }
+        List<PlayerSession> playerSessions = tableState.getSeats();
         if (CollectionUtils.isEmpty(playerSessions)) {
             throw new GameInterruptedException(NO_MORE_PLAYERS_CONNECTED);
         }
@@ -180,6 +282,7 @@ public abstract class GameThread extends BaseGameThread {
         roundInProgress.set(true);
         interruptRound.set(false);
         foldedPlayers.clear();
+        timeBankUsed.clear();
         shuffleCards();
         onInitRound();
     }
@@ -188,8 +291,8 @@ public abstract class GameThread extends BaseGameThread {
         RoundState roundState = RoundState.INIT_DEAL;
         saveRoundState(roundState);
         while (roundState != RoundState.FINISH) {
-            checkRoundInterrupted();
             try {
+                checkRoundInterrupted();
                 onRunRound(roundState);
                 roundState = getNextRoundState(roundState);
             } catch (RoundInterruptedException e) {
@@ -203,63 +306,155 @@ public abstract class GameThread extends BaseGameThread {
     }
 
     protected void shuffleCards() {
-        deckOfCards = DeckOfCardsFactory.getCards(true);
-        deckCardPointer = 0;
+        currentRound.setDeckSeed(tableState.shuffleDeck(deckPool));
     }
 
     protected Card getCard() {
-        Card card = new Card(deckOfCards.get(deckCardPointer));
-        deckCardPointer++;
-        return card;
+        return CardSet.toCard(tableState.nextCard());
+    }
+
+    protected void addPlayerCard(PlayerSession playerSession, Card card) {
+        Hand hand = tableState.addPlayerCard(playerSession, card);
+        persister.write(params.getTableId(), hand);
+    }
+
+    protected void addCommunityCard(Card card) {
+        tableState.addCommunityCard(card);
+        persister.write(params.getTableId(), currentRound);
     }
 
     private void saveRoundState(RoundState roundState) {
         currentRound.setRoundState(roundState);
-        roundRepository.saveAndFlush(currentRound);
+        persister.write(params.getTableId(), currentRound);
+        persister.checkpoint(params.getTableId(), roundState);
     }
 
-    protected void waitPlayerTurn(PlayerSession playerSession) {
-        playerTurnLatch = new CountDownLatch(1);
+    /**
+     * Sends the player their turn and applies commands until they act. The turn deadline is tracked
+     * by the node-wide {@link com.twb.pokerapp.service.game.timer.TurnTimerService}, which
+     * folds the player on expiry unless the action arrives first.
+     */
+    protected void waitPlayerTurn(PlayerSession playerSession, ActionType[] nextActions) {
+        TurnTimeout timeout = turnTimerService.schedule(pacing.getPlayerTurnWaitMs(),
+                () -> inbox.offer(this::onPlayerTurnExpired));
+        PlayerTurn turn = new PlayerTurn(++playerTurnCount, playerSession, nextActions, timeout);
+        playerTurn = turn;
+        sendPlayerTurn(turn);
         try {
-            boolean await = playerTurnLatch.await(PLAYER_TURN_WAIT_MS, TimeUnit.MILLISECONDS);
-            if (!await) {
-                CreatePlayerActionDTO createPlayerActionDTO = new CreatePlayerActionDTO();
-                createPlayerActionDTO.setAction(ActionType.FOLD);
-                playerAction(playerSession, createPlayerActionDTO);
+            while (isCurrentTurn(turn)) {
+                checkGameInterrupted();
+                awaitCommand(pacing.getPlayerTurnWaitMs());
             }
-        } catch (InterruptedException e) {
-            throw new RuntimeException("Failed to wait for player turn latch", e);
+        } finally {
+            if (isCurrentTurn(turn)) {
+                timeout.cancel();
+                playerTurn = null;
+            }
+        }
+    }
+
+    private void onPlayerTurnExpired() {
+        PlayerTurn turn = playerTurn;
+        if (turn == null || !turn.timeout().isExpired()) {
+            return; // the turn ended before the expiry was applied
+        }
+        CreatePlayerActionDTO createPlayerActionDTO = new CreatePlayerActionDTO();
+        createPlayerActionDTO.setAction(ActionType.FOLD);
+        playerAction(turn.playerSession(), createPlayerActionDTO);
+        playerTurn = null;
+    }
+
+    private void sendPlayerTurn(PlayerTurn turn) {
+        dispatcher.send(params.getTableId(), messageFactory
+                .playerTurn(turn.playerSession(), turn.actions(), turn.timeout().getRemainingMs()));
+    }
+
+    /**
+     * Extends the current turn by the time bank, once per player per round.
+     *
+     * @param username the player using their time bank
+     * @return false if the table has hibernated and must be resumed first
+     */
+    public boolean extendPlayerTurn(String username) {
+        return inbox.offer(() -> applyTimeBank(username));
+    }
+
+    private void applyTimeBank(String username) {
+        PlayerTurn turn = playerTurn;
+        if (turn == null || !isPlayerTurn(turn, username)) {
+            logger.warn("Player {} cannot use time bank as it is not their turn on table {}", username, params.getTableId());
+            return;
         }
+        if (!timeBankUsed.add(turn.playerSession().getId())) {
+            logger.warn("Player {} has already used their time bank this round on table {}", username, params.getTableId());
+            return;
+        }
+        if (turn.timeout().extend(TIME_BANK_MS)) {
+            sendPlayerTurn(turn);
+        }
+    }
+
+    /**
+     * Queues a player's action, e.g. sent over the websocket or a fold on disconnect.
+     * Folds are accepted at any time, other actions only on the player's turn.
+     *
+     * @param username  the acting player
+     * @param createDto the action
+     * @return false if the table has hibernated and must be resumed first
+     */
+    public boolean playerAction(String username, CreatePlayerActionDTO createDto) {
+        return inbox.offer(() -> applyPlayerAction(username, createDto));
     }
 
-    public void playerAction(String username, CreatePlayerActionDTO createDto) {
+    private void applyPlayerAction(String username, CreatePlayerActionDTO createDto) {
         logger.info("***************************************************************");
         logger.info("GameThread.playerAction");
         logger.info("username = {}, action = {}", username, createDto);
         logger.info("***************************************************************");
-        Optional<PlayerSession> playerSessionOpt = playerSessionRepository
-                .findByTableIdAndUsername(pokerTable.getId(), username);
+        Optional<PlayerSession> playerSessionOpt = tableState.getSeats().stream()
+                .filter(seat -> seat.getUser().getUsername().equals(username))
+                .findFirst();
         if (playerSessionOpt.isEmpty()) {
-            logger.warn("No player {} found on table {}", username, pokerTable.getId());
+            logger.warn("No player {} found on table {}", username, params.getTableId());
+            return;
+        }
+        PlayerTurn turn = playerTurn;
+        boolean onTurn = turn != null && isPlayerTurn(turn, username);
+        if (onTurn && !turn.timeout().cancel()) {
+            logger.warn("Player {} acted after their turn expired on table {}", username, params.getTableId());
+            return;
+        }
+        if (!onTurn && createDto.getAction() != ActionType.FOLD) {
+            logger.warn("Player {} acted out of turn on table {}", username, params.getTableId());
             return;
         }
         playerAction(playerSessionOpt.get(), createDto);
+        if (onTurn) {
+            playerTurn = null;
+        }
+    }
+
+    private boolean isPlayerTurn(PlayerTurn turn, String username) {
+        return turn.playerSession().getUser().getUsername().equals(username);
     }
 
     private void playerAction(PlayerSession playerSession, CreatePlayerActionDTO createDto) {
-        PlayerActionDTO actionDto = playerActionService.create(playerSession, currentRound, createDto);
+        PlayerAction playerAction = tableState.addAction(playerSession, createDto.getAction());
+        persister.write(params.getTableId(), playerAction);
+        PlayerActionDTO actionDto = playerActionService.toDto(playerAction);
         switch (createDto.getAction()) {
             case FOLD -> fold(playerSession);
             //todo: add others
         }
         dispatcher.send(params.getTableId(), messageFactory.playerAction(actionDto));
-        playerTurnLatch.countDown();
     }
 
     private void finishRound() {
         if (roundInProgress.get()) {
             saveRoundState(RoundState.FINISH);
-            dispatcher.send(params.getTableId(), messageFactory.roundFinished());
+            List<Hand> hands = tableState.getSeats().stream()
+                    .map(tableState::getHand).flatMap(Optional::stream).toList();
+            dispatcher.send(params.getTableId(), messageFactory.roundFinished(hands));
         }
         roundInProgress.set(false);
     }
@@ -268,22 +463,28 @@ public abstract class GameThread extends BaseGameThread {
         return foldedPlayers.contains(playerSession);
     }
 
-    // NOTE: called from both game thread and main thread
     private void fold(PlayerSession playerSession) {
-        synchronized (foldedPlayers) {
-            if (!foldedPlayers.contains(playerSession)) {
-                foldedPlayers.add(playerSession);
-            }
-            if (playerSessions.stream()
-                    .filter(foldedPlayers::contains).count() == 1) {
-                // there is only 1 player left in a started game
-                interruptRound.set(true);
-            }
+        if (!foldedPlayers.contains(playerSession)) {
+            foldedPlayers.add(playerSession);
+        }
+        if (tableState.getSeats().stream()
+                .filter(seat -> !foldedPlayers.contains(seat)).count() == 1) {
+            // there is only 1 player left in a started game
+            interruptRound.set(true);
         }
     }
 
+    /**
+     * Checks whether the player has no funds left to bet, they are skipped for the rest of the round's betting.
+     */
+    protected boolean isPlayerAllIn(PlayerSession playerSession) {
+        Double funds = playerSession.getFunds();
+        return funds != null && funds <= 0;
+    }
+
     private void finishGame() {
         if (gameInProgress.get()) {
+            persister.close(params.getTableId());
             dispatcher.send(params.getTableId(), messageFactory.gameFinished());
             threadManager.delete(params.getTableId());
         }
@@ -308,25 +509,65 @@ public abstract class GameThread extends BaseGameThread {
 
     protected void sleepInMs(long ms) {
         try {
-            Thread.sleep(ms);
+            pacer.pause(ms);
         } catch (InterruptedException e) {
             throw new RuntimeException("Failed to sleep for " + ms + "ms", e);
         }
     }
 
     protected void checkGameInterrupted() {
-        if (interruptGame.get() || isInterrupted()) {
+        if (leaseLost.get()) {
+            throw new LeaseLostException("Table lease lost");
+        }
+        if (!leaseService.holdsLease(params.getTableId())) {
+            // paused past the lease's local deadline, the monitor may not have noticed yet
+            leaseLost.set(true);
+            throw new LeaseLostException("Table lease expired");
+        }
+        if (interruptGame.get() || Thread.currentThread().isInterrupted()) {
             throw new GameInterruptedException("Game is interrupted");
         }
     }
 
     protected void checkRoundInterrupted() {
         checkGameInterrupted();
+        processCommands();
         if (interruptRound.get()) {
             throw new RoundInterruptedException("Round is interrupted");
         }
     }
 
+    /**
+     * Applies all queued commands without waiting.
+     */
+    private void processCommands() {
+        Runnable command;
+        while ((command = inbox.poll()) != null) {
+            command.run();
+        }
+    }
+
+    /**
+     * Waits for the next command and applies it, along with any others queued behind it.
+     *
+     * @param timeoutMs the maximum time to wait
+     * @return true if a command was applied, false on timeout
+     */
+    private boolean awaitCommand(long timeoutMs) {
+        try {
+            Runnable command = inbox.take(timeoutMs);
+            if (command == null) {
+                return false;
+            }
+            command.run();
+            processCommands();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GameInterruptedException("Game is interrupted");
+        }
+    }
+
     // *****************************************************************************************
     // Evaluation
     // *****************************************************************************************
@@ -373,10 +614,41 @@ public abstract class GameThread extends BaseGameThread {
     // Lifecycle Methods
     // ***************************************************************
 
-    @Override
+    /**
+     * Signals that a player has joined or left the table, waking the game
+     * thread if it is waiting for players. Must be called after the player
+     * session change has been committed so the game thread can see it.
+     *
+     * @return false if the table has hibernated and must be resumed first
+     */
+    public boolean onPlayersChanged() {
+        return inbox.offer(() -> playersVersion++);
+    }
+
+    /**
+     * Stops the game loop after the table's lease was lost, leaving the table to its new owner.
+     */
+    public void onLeaseLost() {
+        leaseLost.set(true);
+        interrupt();
+    }
+
     public void interrupt() {
         interruptGame.set(true);
-        super.interrupt();
+        Thread thread = runner;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private boolean isCurrentTurn(PlayerTurn turn) {
+        return playerTurn != null && playerTurn.sequence() == turn.sequence();
+    }
+
+    /**
+     * A player's turn, numbered so a turn can tell whether it is still the current one.
+     */
+    private record PlayerTurn(long sequence, PlayerSession playerSession, ActionType[] actions, TurnTimeout timeout) {
     }
 
     // ***************************************************************
@@ -1,10 +1,14 @@
 package com.twb.pokerapp.service.game.thread;
 
 import com.antkorwin.xsync.XSync;
+import com.twb.pokerapp.configuration.AsyncConfiguration;
 import com.twb.pokerapp.domain.PokerTable;
-import lombok.RequiredArgsConstructor;
+import com.twb.pokerapp.domain.enumeration.GameType;
+import com.twb.pokerapp.service.game.cluster.TableLeaseService;
+import com.twb.pokerapp.service.game.state.TableSnapshot;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.ApplicationContext;
 import org.springframework.stereotype.Component;
 
@@ -13,55 +17,152 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
 
 /**
  * Manages game threads for poker tables.
+ * <p>
+ * Only the threads running on this node are tracked here, a thread is only started once
+ * this node holds the table's lease so each table runs on exactly one node of the cluster.
+ * Hibernated tables give up their lease and only a {@link TableSnapshot} is held for them,
+ * {@link #getOrResume(UUID)} acquires the lease and starts their game thread again on demand,
+ * unless another node has taken the table over meanwhile.
  */
 @Component
-@RequiredArgsConstructor
 public class GameThreadManager {
     private static final Logger logger = LoggerFactory.getLogger(GameThreadManager.class);
     private static final Map<UUID, GameThread> POKER_GAME_RUNNABLE_MAP = new ConcurrentHashMap<>();
+    private static final Map<UUID, TableSnapshot> HIBERNATED_TABLE_MAP = new ConcurrentHashMap<>();
     private static final int GAME_START_TIMEOUT_IN_SECS = 10;
     private final XSync<UUID> mutex;
     private final ApplicationContext context;
+    private final ThreadFactory threadFactory;
+    private final TableLeaseService leaseService;
+
+    public GameThreadManager(XSync<UUID> mutex, ApplicationContext context,
+                             @Qualifier(AsyncConfiguration.GAME_THREAD_FACTORY) ThreadFactory threadFactory,
+                             TableLeaseService leaseService) {
+        this.mutex = mutex;
+        this.context = context;
+        this.threadFactory = threadFactory;
+        this.leaseService = leaseService;
+    }
 
     /**
-     * Creates a game thread for the given poker table if it does not already exist.
+     * Creates a game thread for the given poker table if it does not already exist
+     * and this node can acquire the table's lease.
      *
      * @param pokerTable the poker table
-     * @return the created or existing game thread
+     * @return the created or existing game thread, empty if another node owns the table
      */
-    public GameThread createIfNotExist(PokerTable pokerTable) {
+    public Optional<GameThread> createIfNotExist(PokerTable pokerTable) {
         return mutex.evaluate(pokerTable.getId(), () -> {
-            Optional<GameThread> threadOpt = getIfExists(pokerTable);
+            Optional<GameThread> threadOpt = getOrResume(pokerTable.getId());
             if (threadOpt.isPresent()) {
-                return threadOpt.get();
+                return threadOpt;
             }
-            GameThreadParams params = getGameThreadParams(pokerTable);
-            GameThread thread = create(params);
-            thread.start();
-            try {
-                if (!params.getStartLatch().await(GAME_START_TIMEOUT_IN_SECS, TimeUnit.SECONDS)) {
-                    throw new RuntimeException("Failed to wait for game to start");
-                }
-                POKER_GAME_RUNNABLE_MAP.put(pokerTable.getId(), thread);
-                return thread;
-            } catch (InterruptedException e) {
-                throw new RuntimeException("Exception thrown while waiting for game to start", e);
+            return start(pokerTable.getId(), pokerTable.getGameType(), null);
+        });
+    }
+
+    /**
+     * Retrieves the game thread for the given table ID, resuming it first if the table has hibernated
+     * on this node and its lease can be acquired again.
+     *
+     * @param tableId the table ID
+     * @return an Optional containing the running game thread, empty if the table is not running on this node
+     */
+    public Optional<GameThread> getOrResume(UUID tableId) {
+        GameThread thread = POKER_GAME_RUNNABLE_MAP.get(tableId);
+        if (thread != null) {
+            return Optional.of(thread);
+        }
+        if (!HIBERNATED_TABLE_MAP.containsKey(tableId)) {
+            return Optional.empty();
+        }
+        return mutex.evaluate(tableId, () -> {
+            GameThread running = POKER_GAME_RUNNABLE_MAP.get(tableId);
+            if (running != null) {
+                return Optional.of(running);
             }
+            TableSnapshot snapshot = HIBERNATED_TABLE_MAP.remove(tableId);
+            if (snapshot == null) {
+                return Optional.empty();
+            }
+            return start(tableId, snapshot.gameType(), snapshot);
         });
     }
 
     /**
-     * Deletes the game thread for the given table ID.
+     * Swaps a waiting game thread for a snapshot, called from the game thread itself.
+     *
+     * @param thread     the game thread
+     * @param snapshot   the snapshot to keep
+     * @param closeInbox closes the thread's inbox, false if commands are still queued
+     * @return true if the table hibernated and the game thread must end
+     */
+    public boolean hibernate(GameThread thread, TableSnapshot snapshot, BooleanSupplier closeInbox) {
+        UUID tableId = snapshot.tableId();
+        return mutex.evaluate(tableId, () -> {
+            if (POKER_GAME_RUNNABLE_MAP.get(tableId) != thread || !closeInbox.getAsBoolean()) {
+                return false;
+            }
+            POKER_GAME_RUNNABLE_MAP.remove(tableId);
+            HIBERNATED_TABLE_MAP.put(tableId, snapshot);
+            return true;
+        });
+    }
+
+    /**
+     * Releases a hibernated table's lease, called from its game thread once its writes are flushed, so
+     * whichever node next has a player join can run the table. The lease is kept if the table has been
+     * resumed meanwhile.
+     *
+     * @param snapshot the snapshot the table hibernated with
+     */
+    public void onHibernated(TableSnapshot snapshot) {
+        UUID tableId = snapshot.tableId();
+        mutex.execute(tableId, () -> {
+            if (snapshot.equals(HIBERNATED_TABLE_MAP.get(tableId))) {
+                leaseService.release(tableId);
+            }
+        });
+    }
+
+    private Optional<GameThread> start(UUID tableId, GameType gameType, TableSnapshot snapshot) {
+        if (!leaseService.tryAcquire(tableId)) {
+            logger.info("Poker Table {} is owned by another node", tableId);
+            return Optional.empty();
+        }
+        GameThreadParams params = getGameThreadParams(tableId, gameType, snapshot);
+        GameThread thread = create(params);
+        threadFactory.newThread(thread).start();
+        try {
+            if (!params.getStartLatch().await(GAME_START_TIMEOUT_IN_SECS, TimeUnit.SECONDS)) {
+                thread.interrupt();
+                leaseService.release(tableId);
+                throw new RuntimeException("Failed to wait for game to start");
+            }
+            POKER_GAME_RUNNABLE_MAP.put(tableId, thread);
+            return Optional.of(thread);
+        } catch (InterruptedException e) {
+            thread.interrupt();
+            leaseService.release(tableId);
+            throw new RuntimeException("Exception thrown while waiting for game to start", e);
+        }
+    }
+
+    /**
+     * Deletes the game thread for the given table ID and releases the table's lease.
      *
      * @param tableId the table ID
      * @return true if the game thread was deleted, false otherwise
      */
     public boolean delete(UUID tableId) {
         return mutex.evaluate(tableId, () -> {
+            leaseService.release(tableId);
             Optional<GameThread> threadOpt = getIfExists(tableId);
             if (threadOpt.isPresent()) {
                 POKER_GAME_RUNNABLE_MAP.remove(tableId);
@@ -71,19 +172,50 @@ public class GameThreadManager {
         });
     }
 
+    /**
+     * Stops the table's game thread after its lease was lost, another node may already be running it.
+     *
+     * @param tableId the table ID
+     */
+    public void onLeaseLost(UUID tableId) {
+        HIBERNATED_TABLE_MAP.remove(tableId);
+        GameThread thread = POKER_GAME_RUNNABLE_MAP.remove(tableId);
+        if (thread != null) {
+            thread.onLeaseLost();
+        }
+    }
+
+    /**
+     * Forgets the table's game thread after it stopped itself past its lease's local deadline, releasing
+     * the lease if it has not been taken over so the table can be started again.
+     *
+     * @param thread  the stopped game thread
+     * @param tableId the table ID
+     */
+    public void onLeaseExpired(GameThread thread, UUID tableId) {
+        mutex.execute(tableId, () -> {
+            if (POKER_GAME_RUNNABLE_MAP.remove(tableId, thread)) {
+                leaseService.release(tableId);
+            }
+        });
+    }
+
     // -------------------------------------------------------------------------------------
 
     /**
      * Retrieves game thread parameters for the given poker table.
      *
-     * @param pokerTable the poker table
+     * @param tableId  the table ID
+     * @param gameType the game type
+     * @param snapshot the snapshot when resuming a hibernated table, otherwise null
      * @return the game thread parameters
      */
-    private GameThreadParams getGameThreadParams(PokerTable pokerTable) {
+    private GameThreadParams getGameThreadParams(UUID tableId, GameType gameType, TableSnapshot snapshot) {
         return GameThreadParams.builder()
-                .tableId(pokerTable.getId())
-                .gameType(pokerTable.getGameType())
+                .tableId(tableId)
+                .gameType(gameType)
                 .startLatch(new CountDownLatch(1))
+                .snapshot(snapshot)
                 .build();
     }
 
@@ -115,12 +247,11 @@ public class GameThreadManager {
      * @return an Optional containing the game thread if it exists, otherwise empty
      */
     public Optional<GameThread> getIfExists(UUID tableId) {
-        return mutex.evaluate(tableId, () -> {
-            if (!POKER_GAME_RUNNABLE_MAP.containsKey(tableId)) {
-                logger.warn("Poker Table {} doesn't have a game thread running.", tableId);
-                return Optional.empty();
-            }
-            return Optional.of(POKER_GAME_RUNNABLE_MAP.get(tableId));
-        });
+        GameThread thread = POKER_GAME_RUNNABLE_MAP.get(tableId);
+        if (thread == null) {
+            // expected when another node owns the table
+            logger.debug("Poker Table {} doesn't have a game thread running on this node.", tableId);
+        }
+        return Optional.ofNullable(thread);
     }
 }
@@ -1,6 +1,7 @@
 package com.twb.pokerapp.service.game.thread;
 
 import com.twb.pokerapp.domain.enumeration.GameType;
+import com.twb.pokerapp.service.game.state.TableSnapshot;
 import lombok.Builder;
 import lombok.Getter;
 
@@ -13,4 +14,5 @@ public class GameThreadParams {
     private GameType gameType;
     private UUID tableId;
     private CountDownLatch startLatch;
+    private TableSnapshot snapshot; // set when resuming a hibernated table
 }
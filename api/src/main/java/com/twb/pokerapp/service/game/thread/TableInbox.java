@@ -0,0 +1,130 @@
+package com.twb.pokerapp.service.game.thread;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free multi-producer single-consumer command queue owned by a table's game thread.
+ * <p>
+ * Websocket threads and the turn timer {@link #offer(Runnable)} commands and return straight away,
+ * the game thread is the only consumer and applies them in arrival order, so table state is only
+ * ever mutated from one thread. Producers link a node with a single atomic swap (Vyukov's
+ * intrusive MPSC queue) and unpark the consumer, the consumer never takes a lock.
+ * <p>
+ * The consumer can {@link #closeIfEmpty() close} the inbox when the table hibernates, after which
+ * {@link #offer(Runnable)} refuses commands so the caller can resume the table and retry.
+ */
+public final class TableInbox {
+    private final AtomicReference<Node> head; // producers swap in new nodes here
+    private Node tail; // consumer only
+    private volatile Thread consumer;
+    private final AtomicInteger offering = new AtomicInteger();
+    private volatile boolean closed;
+
+    public TableInbox() {
+        Node stub = new Node(null);
+        this.head = new AtomicReference<>(stub);
+        this.tail = stub;
+    }
+
+    /**
+     * Binds the inbox to the calling thread, which becomes the only thread allowed to poll it.
+     */
+    public void bindConsumer() {
+        consumer = Thread.currentThread();
+    }
+
+    /**
+     * Enqueues a command to be applied by the game thread. Safe to call from any thread.
+     *
+     * @param command the command
+     * @return true if queued, false if the inbox is closed
+     */
+    public boolean offer(Runnable command) {
+        offering.incrementAndGet();
+        try {
+            if (closed) {
+                return false;
+            }
+            Node node = new Node(command);
+            Node previous = head.getAndSet(node);
+            previous.next = node;
+        } finally {
+            offering.decrementAndGet();
+        }
+        Thread thread = consumer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+        return true;
+    }
+
+    /**
+     * Closes the inbox if there are no commands left to apply (consumer only). Producers mid-offer
+     * are waited out, so a command is either queued before the check or refused.
+     *
+     * @return true if closed, false if commands are still queued (the inbox stays open)
+     */
+    public boolean closeIfEmpty() {
+        closed = true;
+        while (offering.get() != 0) {
+            Thread.onSpinWait();
+        }
+        if (tail.next == null) {
+            return true;
+        }
+        closed = false;
+        return false;
+    }
+
+    /**
+     * Returns the next command, or null if there is none (consumer only).
+     */
+    public Runnable poll() {
+        Node next = tail.next;
+        if (next == null) {
+            return null;
+        }
+        Runnable command = next.command;
+        next.command = null;
+        tail = next;
+        return command;
+    }
+
+    /**
+     * Waits for the next command (consumer only).
+     *
+     * @param timeoutMs the maximum time to wait
+     * @return the next command, or null if none arrived in time
+     * @throws InterruptedException if the game thread is interrupted while waiting
+     */
+    public Runnable take(long timeoutMs) throws InterruptedException {
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (true) {
+            Runnable command = poll();
+            if (command != null) {
+                return command;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            long remainingNanos = deadlineNanos - System.nanoTime();
+            if (remainingNanos <= 0) {
+                return null;
+            }
+            // a producer that linked its node before we parked has already left us a permit
+            LockSupport.parkNanos(this, remainingNanos);
+        }
+    }
+
+    private static final class Node {
+        private volatile Node next;
+        private Runnable command;
+
+        private Node(Runnable command) {
+            this.command = command;
+        }
+    }
+}
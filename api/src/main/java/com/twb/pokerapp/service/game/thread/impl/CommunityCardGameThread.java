@@ -0,0 +1,237 @@
+package com.twb.pokerapp.service.game.thread.impl;
+
+import com.twb.pokerapp.domain.Card;
+import com.twb.pokerapp.domain.Hand;
+import com.twb.pokerapp.domain.PlayerAction;
+import com.twb.pokerapp.domain.PlayerSession;
+import com.twb.pokerapp.domain.enumeration.ActionType;
+import com.twb.pokerapp.domain.enumeration.CardType;
+import com.twb.pokerapp.domain.enumeration.RoundState;
+import com.twb.pokerapp.service.eval.dto.EvalPlayerHandDTO;
+import com.twb.pokerapp.service.game.CardSet;
+import com.twb.pokerapp.service.game.thread.GameThread;
+import com.twb.pokerapp.service.game.thread.GameThreadParams;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The rounds shared by the community card games: hole cards, then a betting round before the flop and
+ * after the flop, turn and river, then a showdown. Games differ in the hole cards dealt and how a
+ * player's hand is made from their hole cards and the community cards.
+ */
+public abstract class CommunityCardGameThread extends GameThread {
+
+    protected CommunityCardGameThread(GameThreadParams params) {
+        super(params);
+    }
+
+    @Override
+    protected void onInitRound() {
+        determineNextDealer();
+    }
+
+    @Override
+    protected void onRunRound(RoundState roundState) {
+        switch (roundState) {
+            case INIT_DEAL -> initDeal();
+            case INIT_DEAL_BET, FLOP_DEAL_BET, TURN_DEAL_BET, RIVER_DEAL_BET -> waitAllPlayerTurns();
+            case FLOP_DEAL -> dealFlop();
+            case TURN_DEAL -> dealTurn();
+            case RIVER_DEAL -> dealRiver();
+            case EVAL -> evaluate();
+            case WAITING_FOR_PLAYERS, FINISH -> throw new IllegalStateException("Not a running round state: " + roundState);
+        }
+    }
+
+    @Override
+    protected RoundState getNextRoundState(RoundState roundState) {
+        return roundState.nextTexasHoldemState();
+    }
+
+    private void initDeal() {
+        for (CardType cardType : getPlayerCardTypes()) {
+            for (PlayerSession playerSession : tableState.getSeats()) {
+                if (!isPlayerFolded(playerSession)) { // cannot fold before all cards are dealt ?
+                    checkRoundInterrupted();
+                    dealPlayerCard(cardType, playerSession);
+                }
+            }
+        }
+    }
+
+    private void waitAllPlayerTurns() {
+        PlayerSession previousPlayer = null;
+        for (PlayerSession currentPlayer : tableState.getSeats()) {
+            if (!isPlayerFolded(currentPlayer) && !isPlayerAllIn(currentPlayer)) {
+                checkRoundInterrupted();
+                ActionType[] nextActions = getNextActions(previousPlayer);
+                previousPlayer = currentPlayer;
+                waitPlayerTurn(currentPlayer, nextActions);
+            }
+        }
+    }
+
+    private ActionType[] getNextActions(PlayerSession previousPlayer) {
+        if (previousPlayer != null) {
+            Optional<PlayerAction> previousActionOpt = tableState.getLastAction(previousPlayer);
+            if (previousActionOpt.isPresent()) {
+                PlayerAction playerAction = previousActionOpt.get();
+                return ActionType.getNextActions(playerAction.getActionType());
+            }
+        }
+        return ActionType.getActionTypes();
+    }
+
+    private void dealPlayerCard(CardType cardType, PlayerSession playerSession) {
+        Card card = getCard();
+        card.setCardType(cardType);
+
+        addPlayerCard(playerSession, card);
+        dispatcher.send(params.getTableId(), messageFactory.initDeal(playerSession, card));
+
+        sleepInMs(pacing.getDealWaitMs());
+    }
+
+    private void dealFlop() {
+        for (CardType cardType : CardType.FLOP_CARDS) {
+            checkRoundInterrupted();
+            dealCommunityCard(cardType);
+        }
+        onCommunityCardsDealt();
+    }
+
+    private void dealTurn() {
+        dealCommunityCard(CardType.TURN_CARD);
+        onCommunityCardsDealt();
+    }
+
+    private void dealRiver() {
+        dealCommunityCard(CardType.RIVER_CARD);
+        onCommunityCardsDealt();
+    }
+
+    private void dealCommunityCard(CardType cardType) {
+        Card card = getCard();
+        card.setCardType(cardType);
+
+        addCommunityCard(card);
+        dispatcher.send(params.getTableId(), messageFactory.communityCardDeal(card));
+
+        sleepInMs(pacing.getDealWaitMs());
+    }
+
+    /**
+     * Called once the flop, turn or river has been dealt, sends each player their current hand strength.
+     */
+    protected void onCommunityCardsDealt() {
+        sendHandStrengths();
+    }
+
+    private void sendHandStrengths() {
+        long communityCards = tableState.getCommunityCards();
+        for (PlayerSession playerSession : tableState.getSeats()) {
+            long holeCards = tableState.getHoleCards(playerSession);
+            if (!isPlayerFolded(playerSession) && holeCards != CardSet.EMPTY) {
+                int rank = getCurrentRank(communityCards, holeCards);
+                dispatcher.send(params.getTableId(), playerSession.getUser().getUsername(),
+                        messageFactory.handStrength(rank));
+            }
+        }
+    }
+
+    private void determineNextDealer() {
+        List<PlayerSession> playerSessions = getPlayerSessionsNotZero();
+        playerSessions = dealerService.nextDealerReorder(params.getTableId(), playerSessions);
+        PlayerSession currentDealer = dealerService.getCurrentDealer(playerSessions);
+        tableState.setSeats(playerSessions, currentDealer);
+        dispatcher.send(params.getTableId(), messageFactory.dealerDetermined(currentDealer));
+    }
+
+    private void evaluate() {
+        List<PlayerSession> playersNotFolded = tableState.getSeats().stream()
+                .filter(playerSession -> !foldedPlayers.contains(playerSession)).toList();
+        if (playersNotFolded.size() == 1) {
+            evaluateLastPlayerStanding(playersNotFolded);
+        } else {
+            evaluateMultiPlayersStanding(playersNotFolded);
+        }
+        sleepInMs(pacing.getEvaluationWaitMs());
+    }
+
+    private void evaluateLastPlayerStanding(List<PlayerSession> playersNotFolded) {
+        PlayerSession winner = playersNotFolded.getFirst();
+        Optional<Hand> winnerHandOpt = tableState.getHand(winner);
+        if (winnerHandOpt.isPresent()) {
+            Hand hand = winnerHandOpt.get();
+            hand.setWinner(true);
+            persister.write(params.getTableId(), hand);
+        }
+        for (PlayerSession foldedPlayer : foldedPlayers) {
+            Optional<Hand> foldedHandOpt = tableState.getHand(foldedPlayer);
+            if (foldedHandOpt.isPresent()) {
+                Hand hand = foldedHandOpt.get();
+                hand.setWinner(false);
+                persister.write(params.getTableId(), hand);
+            }
+        }
+        sendLogMessage(String.format("%s wins round", winner.getUser().getUsername()));
+    }
+
+    private void evaluateMultiPlayersStanding(List<PlayerSession> playersNotFolded) {
+        long communityCards = tableState.getCommunityCards();
+
+        List<EvalPlayerHandDTO> playerHandsList = new ArrayList<>();
+        for (PlayerSession playerSession : playersNotFolded) {
+
+            if (tableState.getHand(playerSession).isPresent()) {
+                EvalPlayerHandDTO playerHand = new EvalPlayerHandDTO();
+                playerHand.setPlayerSession(playerSession);
+                playerHand.setHoleCards(tableState.getHoleCards(playerSession));
+                playerHandsList.add(playerHand);
+            }
+        }
+        evaluateHands(communityCards, playerHandsList);
+
+        savePlayerHandEvaluation(playerHandsList);
+
+        List<EvalPlayerHandDTO> winners =
+                playerHandsList.stream().filter(EvalPlayerHandDTO::isWinner).toList();
+
+        handleWinners(winners);
+    }
+
+    //todo: move this into handEvaluator (?)
+    private void savePlayerHandEvaluation(List<EvalPlayerHandDTO> playerHandsList) {
+        for (EvalPlayerHandDTO playerHand : playerHandsList) {
+            Optional<Hand> handOpt = tableState.getHand(playerHand.getPlayerSession());
+            if (handOpt.isPresent()) {
+                Hand hand = handOpt.get();
+                hand.setHandType(playerHand.getHandType());
+                hand.setWinner(playerHand.isWinner());
+                hand.setBestFive(playerHand.getBestFive());
+                persister.write(params.getTableId(), hand);
+            }
+        }
+    }
+
+    // *****************************************************************************************
+    // Abstract Methods
+    // *****************************************************************************************
+
+    /**
+     * Returns the hole cards dealt to each player, in the order they are dealt.
+     */
+    protected abstract List<CardType> getPlayerCardTypes();
+
+    /**
+     * Returns the rank of the best hand the player can make from the community cards dealt so far.
+     */
+    protected abstract int getCurrentRank(long communityCards, long holeCards);
+
+    /**
+     * Ranks the hands at the showdown and marks the winners.
+     */
+    protected abstract void evaluateHands(long communityCards, List<EvalPlayerHandDTO> playerHandsList);
+}
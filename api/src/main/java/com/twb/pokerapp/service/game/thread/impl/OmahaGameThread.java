@@ -0,0 +1,38 @@
+package com.twb.pokerapp.service.game.thread.impl;
+
+import com.twb.pokerapp.domain.enumeration.CardType;
+import com.twb.pokerapp.service.eval.dto.EvalPlayerHandDTO;
+import com.twb.pokerapp.service.game.thread.GameThreadParams;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Omaha: four hole cards each, and a hand must use exactly two of them with exactly
+ * three of the community cards. Actions carry no bet amounts yet, so there is no pot-limit betting.
+ */
+@Component
+@Scope(value = ConfigurableBeanFactory.SCOPE_PROTOTYPE)
+public class OmahaGameThread extends CommunityCardGameThread {
+
+    public OmahaGameThread(GameThreadParams params) {
+        super(params);
+    }
+
+    @Override
+    protected List<CardType> getPlayerCardTypes() {
+        return CardType.OMAHA_PLAYER_CARDS;
+    }
+
+    @Override
+    protected int getCurrentRank(long communityCards, long holeCards) {
+        return handEvaluator.getCurrentOmahaRank(communityCards, holeCards);
+    }
+
+    @Override
+    protected void evaluateHands(long communityCards, List<EvalPlayerHandDTO> playerHandsList) {
+        handEvaluator.evaluateOmaha(communityCards, playerHandsList);
+    }
+}
@@ -0,0 +1,95 @@
+package com.twb.pokerapp.service.game.timer;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Handle to a pending player turn deadline scheduled on the {@link TurnTimerService}.
+ * <p>
+ * Exactly one of {@link #cancel()} (the player acted in time) and expiry (the task runs) wins,
+ * so the caller can use the result of {@link #cancel()} to decide whether a late action still counts.
+ */
+public final class TurnTimeout {
+    private static final int ST_PENDING = 0;
+    private static final int ST_CANCELLED = 1;
+    private static final int ST_EXPIRED = 2;
+
+    private final Runnable task;
+    private final AtomicInteger state = new AtomicInteger(ST_PENDING);
+    private long deadlineNanos; // guarded by this
+
+    // *****************************************************************************************
+    // Wheel Fields (only touched by the timer thread)
+    // *****************************************************************************************
+    long remainingRounds;
+    TurnTimeout next;
+    TurnTimeout prev;
+    TurnTimerService.Bucket bucket;
+
+    TurnTimeout(Runnable task, long deadlineNanos) {
+        this.task = task;
+        this.deadlineNanos = deadlineNanos;
+    }
+
+    /**
+     * Cancels the deadline.
+     *
+     * @return true if cancelled, false if the deadline has already expired (or was already cancelled)
+     */
+    public boolean cancel() {
+        return state.compareAndSet(ST_PENDING, ST_CANCELLED);
+    }
+
+    /**
+     * Pushes the deadline back, e.g. when a player uses their time bank.
+     *
+     * @param extensionMs the time to add to the deadline
+     * @return true if extended, false if the deadline has already expired or been cancelled
+     */
+    public synchronized boolean extend(long extensionMs) {
+        if (state.get() != ST_PENDING) {
+            return false;
+        }
+        deadlineNanos += TimeUnit.MILLISECONDS.toNanos(extensionMs);
+        return true;
+    }
+
+    /**
+     * Returns the time left before the deadline expires, zero if expired or cancelled.
+     */
+    public long getRemainingMs() {
+        if (state.get() != ST_PENDING) {
+            return 0;
+        }
+        long remainingNanos = getDeadlineNanos() - System.nanoTime();
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(remainingNanos));
+    }
+
+    public boolean isCancelled() {
+        return state.get() == ST_CANCELLED;
+    }
+
+    public boolean isExpired() {
+        return state.get() == ST_EXPIRED;
+    }
+
+    synchronized long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    /**
+     * Called by the timer thread once the deadline's bucket comes round.
+     *
+     * @return true if the deadline expired and the task should be run
+     */
+    synchronized boolean expire(long nowNanos) {
+        if (deadlineNanos > nowNanos) {
+            return false; // extended since it was bucketed
+        }
+        return state.compareAndSet(ST_PENDING, ST_EXPIRED);
+    }
+
+    Runnable getTask() {
+        return task;
+    }
+}
@@ -0,0 +1,197 @@
+package com.twb.pokerapp.service.game.timer;
+
+import com.twb.pokerapp.configuration.AsyncConfiguration;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.concurrent.*;
+
+/**
+ * Node-wide hashed timing wheel for player turn deadlines.
+ * <p>
+ * A single timer thread advances the wheel every {@code tick-ms}, scheduling and cancelling are
+ * O(1) and lock-free for the callers, so hundreds of thousands of tables can have a pending turn
+ * without each parking a thread on its own timed wait. Deadlines fire at most one tick late.
+ * Expired tasks are run on the game thread factory so a slow table cannot hold up the wheel.
+ */
+@Component
+public class TurnTimerService {
+    private static final Logger logger = LoggerFactory.getLogger(TurnTimerService.class);
+    private static final String TIMER_THREAD_NAME = "turn-timer";
+
+    private final ExecutorService expiryExecutor;
+    private final Queue<TurnTimeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private Bucket[] wheel;
+    private int mask;
+    private long tickNanos;
+    private long startNanos;
+    private long tick;
+    private Thread timerThread;
+    private volatile boolean running;
+
+    @Value("${app.game.turn-timer.tick-ms:100}")
+    private long tickMs;
+
+    @Value("${app.game.turn-timer.wheel-size:512}")
+    private int wheelSize;
+
+    public TurnTimerService(@Qualifier(AsyncConfiguration.GAME_THREAD_FACTORY) ThreadFactory threadFactory) {
+        this.expiryExecutor = Executors.newThreadPerTaskExecutor(threadFactory);
+    }
+
+    @PostConstruct
+    public void init() {
+        int size = Integer.highestOneBit(Math.max(wheelSize, 2) - 1) << 1; // round up to power of two
+        wheel = new Bucket[size];
+        for (int index = 0; index < size; index++) {
+            wheel[index] = new Bucket();
+        }
+        mask = size - 1;
+        tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMs);
+        startNanos = System.nanoTime();
+        running = true;
+        timerThread = Thread.ofPlatform().name(TIMER_THREAD_NAME).daemon(true).start(this::runTimer);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        running = false;
+        timerThread.interrupt();
+        expiryExecutor.shutdownNow();
+    }
+
+    /**
+     * Schedules a task to run once the timeout elapses, unless cancelled first.
+     *
+     * @param timeoutMs the time until the deadline
+     * @param task      the task to run on expiry
+     * @return a handle to cancel, extend or query the deadline
+     */
+    public TurnTimeout schedule(long timeoutMs, Runnable task) {
+        long deadlineNanos = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        TurnTimeout timeout = new TurnTimeout(task, deadlineNanos);
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    // *****************************************************************************************
+    // Timer Thread
+    // *****************************************************************************************
+
+    private void runTimer() {
+        while (running) {
+            long nowNanos = waitForNextTick();
+            if (nowNanos < 0) {
+                return;
+            }
+            transferPendingTimeouts();
+            wheel[(int) (tick & mask)].expireTimeouts(nowNanos);
+            tick++;
+        }
+    }
+
+    private long waitForNextTick() {
+        long tickDeadline = startNanos + (tick + 1) * tickNanos;
+        while (true) {
+            long nowNanos = System.nanoTime();
+            long sleepNanos = tickDeadline - nowNanos;
+            if (sleepNanos <= 0) {
+                return nowNanos;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepNanos);
+            } catch (InterruptedException e) {
+                if (!running) {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    private void transferPendingTimeouts() {
+        TurnTimeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (!timeout.isCancelled()) {
+                place(timeout, tick);
+            }
+        }
+    }
+
+    private void place(TurnTimeout timeout, long earliestTick) {
+        long calculated = (timeout.getDeadlineNanos() - startNanos) / tickNanos;
+        timeout.remainingRounds = Math.max(0, (calculated - tick) / wheel.length);
+        long ticks = Math.max(calculated, earliestTick); // never schedule in the past
+        wheel[(int) (ticks & mask)].add(timeout);
+    }
+
+    private void runExpired(TurnTimeout timeout) {
+        try {
+            expiryExecutor.execute(timeout.getTask());
+        } catch (RejectedExecutionException e) {
+            logger.warn("Turn timer is shutting down, dropping expired turn", e);
+        }
+    }
+
+    /**
+     * Intrusive doubly linked list of timeouts, only touched by the timer thread.
+     */
+    final class Bucket {
+        private TurnTimeout head;
+        private TurnTimeout tail;
+
+        void add(TurnTimeout timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void expireTimeouts(long nowNanos) {
+            TurnTimeout timeout = head;
+            while (timeout != null) {
+                TurnTimeout next = timeout.next;
+                if (timeout.isCancelled()) {
+                    remove(timeout);
+                } else if (timeout.remainingRounds > 0) {
+                    timeout.remainingRounds--;
+                } else {
+                    remove(timeout);
+                    if (timeout.expire(nowNanos)) {
+                        runExpired(timeout);
+                    } else if (!timeout.isCancelled()) {
+                        place(timeout, tick + 1); // deadline was extended
+                    }
+                }
+                timeout = next;
+            }
+        }
+
+        private void remove(TurnTimeout timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            }
+            if (timeout == head) {
+                head = timeout.next;
+            }
+            if (timeout == tail) {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+}
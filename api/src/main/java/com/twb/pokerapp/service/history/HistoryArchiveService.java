@@ -0,0 +1,228 @@
+package com.twb.pokerapp.service.history;
+
+import com.twb.pokerapp.domain.enumeration.HandType;
+import com.twb.pokerapp.dto.history.ArchivedHandDTO;
+import com.twb.pokerapp.exception.NotFoundException;
+import com.twb.pokerapp.mapper.CardMapper;
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoField;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Reads and writes the archive of detached history partitions, one gzipped CSV per table and month
+ * under {@code archive-dir}, for example {@code archive/2024-07/hand.csv.gz}.
+ * <p>
+ * Archived hands are looked up by scanning the month's file, which is fine for the occasional dispute
+ * or audit it is meant for but not as a replacement for the live tables.
+ */
+@Component
+@RequiredArgsConstructor
+public class HistoryArchiveService {
+    private static final String FILE_SUFFIX = ".csv.gz";
+    private static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    /**
+     * How Postgres writes a {@code timestamptz}, for example {@code 2024-07-01 09:30:00.123+00}.
+     */
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = new DateTimeFormatterBuilder()
+            .appendPattern("yyyy-MM-dd HH:mm:ss")
+            .appendFraction(ChronoField.NANO_OF_SECOND, 0, 9, true)
+            .appendOffset("+HH:mm", "+00")
+            .toFormatter();
+
+    private final CardMapper cardMapper;
+
+    @Value("${app.history.archive-dir:archive}")
+    private String archiveDir;
+
+    /**
+     * Returns the months with archived hands, oldest first.
+     */
+    public List<YearMonth> getArchivedMonths() {
+        Path dir = Path.of(archiveDir);
+        if (!Files.isDirectory(dir)) {
+            return List.of();
+        }
+        List<YearMonth> months = new ArrayList<>();
+        try (DirectoryStream<Path> monthDirs = Files.newDirectoryStream(dir)) {
+            for (Path monthDir : monthDirs) {
+                try {
+                    YearMonth month = YearMonth.parse(monthDir.getFileName().toString(), MONTH_FORMAT);
+                    if (Files.exists(archiveFile(month, HistoryPartitions.HAND))) {
+                        months.add(month);
+                    }
+                } catch (DateTimeParseException e) {
+                    // not a month directory
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        Collections.sort(months);
+        return months;
+    }
+
+    /**
+     * Finds archived hands of a month by round, player session or both.
+     *
+     * @param month           the month the rounds started in
+     * @param roundId         the round ID, null for any round
+     * @param playerSessionId the player session ID, null for any player session
+     * @return the matching hands in the order they were archived
+     * @throws IllegalArgumentException if neither ID is given
+     * @throws NotFoundException        if the month hasn't been archived
+     */
+    public List<ArchivedHandDTO> getHands(YearMonth month, UUID roundId, UUID playerSessionId) {
+        if (roundId == null && playerSessionId == null) {
+            throw new IllegalArgumentException("A round or player session ID is required");
+        }
+        Path file = archiveFile(month, HistoryPartitions.HAND);
+        if (!Files.exists(file)) {
+            throw new NotFoundException("No archived hands for " + MONTH_FORMAT.format(month));
+        }
+        List<ArchivedHandDTO> hands = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String header = reader.readLine();
+            if (header == null) {
+                return hands;
+            }
+            Map<String, Integer> columns = new HashMap<>();
+            List<String> names = parseCsvLine(header);
+            for (int index = 0; index < names.size(); index++) {
+                columns.put(names.get(index), index);
+            }
+            String roundIdStr = roundId == null ? null : roundId.toString();
+            String playerSessionIdStr = playerSessionId == null ? null : playerSessionId.toString();
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                List<String> row = parseCsvLine(line);
+                if ((roundIdStr == null || roundIdStr.equals(row.get(columns.get("round_id"))))
+                        && (playerSessionIdStr == null || playerSessionIdStr.equals(row.get(columns.get("player_session_id"))))) {
+                    hands.add(toHand(row, columns));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return hands;
+    }
+
+    /**
+     * Copies a detached partition to its archive file, replacing any earlier copy, so the partition can be dropped.
+     * The connection's time zone should be UTC so timestamps are written with a zero offset.
+     *
+     * @param connection a connection to the Postgres database
+     * @param partition  the partition to copy
+     * @param table      the history table the partition belonged to
+     * @param month      the partition's month
+     * @return the archive file
+     */
+    public Path export(Connection connection, String partition, String table, YearMonth month)
+            throws SQLException, IOException {
+        Path file = archiveFile(month, table);
+        Files.createDirectories(file.getParent());
+        Path tempFile = Files.createTempFile(file.getParent(), table, ".tmp");
+        try {
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tempFile))) {
+                connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyOut("COPY " + partition + " TO STDOUT WITH (FORMAT csv, HEADER)", out);
+            }
+            // a file only ever holds a complete partition
+            Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+        return file;
+    }
+
+    public Path archiveFile(YearMonth month, String table) {
+        return Path.of(archiveDir).resolve(MONTH_FORMAT.format(month)).resolve(table + FILE_SUFFIX);
+    }
+
+    // *****************************************************************************************
+    // Helpers
+    // *****************************************************************************************
+
+    private ArchivedHandDTO toHand(List<String> row, Map<String, Integer> columns) {
+        ArchivedHandDTO hand = new ArchivedHandDTO();
+        hand.setId(UUID.fromString(row.get(columns.get("id"))));
+        hand.setRoundId(UUID.fromString(row.get(columns.get("round_id"))));
+        hand.setPlayerSessionId(UUID.fromString(row.get(columns.get("player_session_id"))));
+        hand.setRoundStartedAt(parseTimestamp(row.get(columns.get("round_started_at"))));
+
+        String handType = row.get(columns.get("hand_type"));
+        hand.setHandType(handType == null ? null : HandType.valueOf(handType));
+        String winner = row.get(columns.get("winner"));
+        hand.setWinner(winner == null ? null : winner.equals("t"));
+        hand.setCards(cardMapper.holeCardsToDto(Integer.parseInt(row.get(columns.get("hole_cards")))));
+        String bestFive = row.get(columns.get("best_five"));
+        if (bestFive != null) {
+            hand.setBestFive(cardMapper.cardSetToDto(Long.parseLong(bestFive)));
+        }
+        return hand;
+    }
+
+    static Instant parseTimestamp(String value) {
+        return TIMESTAMP_FORMAT.parse(value, Instant::from);
+    }
+
+    /**
+     * Splits a line of Postgres CSV, where an unquoted empty field is null. None of the history
+     * columns hold line breaks, so a row is always one line.
+     */
+    static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean inQuotes = false;
+        for (int index = 0; index < line.length(); index++) {
+            char c = line.charAt(index);
+            if (inQuotes) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (index + 1 < line.length() && line.charAt(index + 1) == '"') {
+                    field.append('"');
+                    index++;
+                } else {
+                    inQuotes = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+                inQuotes = true;
+            } else if (c == ',') {
+                fields.add(quoted || !field.isEmpty() ? field.toString() : null);
+                field.setLength(0);
+                quoted = false;
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(quoted || !field.isEmpty() ? field.toString() : null);
+        return fields;
+    }
+}
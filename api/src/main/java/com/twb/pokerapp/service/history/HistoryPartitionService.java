@@ -0,0 +1,309 @@
+package com.twb.pokerapp.service.history;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Maintains the monthly partitions of the hand history tables (see {@link HistoryPartitions}).
+ * <p>
+ * On startup, then every {@code maintenance-interval-ms}, partitions are created for the current month
+ * and {@code partitions-ahead} months after it, so rounds never start without a partition to go in. Rounds
+ * that did, and were stored in the DEFAULT partition, get their month's partition and are moved into it.
+ * Months older than {@code archive-after-months} are archived: their unfinished rounds are finished, then
+ * each table's partition (referencing tables first, so the foreign keys allow it) is detached, exported
+ * with {@link HistoryArchiveService#export} and dropped. Archiving picks up from any step it was
+ * interrupted at, and only one node does the work at a time, guarded by a Postgres advisory lock.
+ */
+@Component
+@RequiredArgsConstructor
+public class HistoryPartitionService {
+    private static final Logger logger = LoggerFactory.getLogger(HistoryPartitionService.class);
+    private static final String MAINTENANCE_THREAD_NAME = "history-partition-maintenance";
+    private static final long ADVISORY_LOCK_KEY = 0x706f6b6572L; // "poker", any key unique to this job
+
+    private final JdbcTemplate jdbcTemplate;
+    private final HistoryArchiveService archiveService;
+    private ScheduledExecutorService maintenanceExecutor;
+    private ScheduledFuture<?> maintenanceTask;
+
+    @Value("${app.history.partitions-ahead:2}")
+    private int partitionsAhead;
+
+    @Value("${app.history.archive-after-months:6}") // 0 to never archive
+    private int archiveAfterMonths;
+
+    @Value("${app.history.maintenance-interval-ms:3600000}") // 1 hour
+    private long maintenanceIntervalMs;
+
+    @Value("${app.history.lock-timeout-ms:5000}")
+    private long lockTimeoutMs;
+
+    @PostConstruct
+    public void init() {
+        // partitions first so no round is started before its month's partition exists
+        maintain(false);
+        maintenanceExecutor = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name(MAINTENANCE_THREAD_NAME).daemon(true).factory());
+        maintenanceTask = maintenanceExecutor.scheduleWithFixedDelay(() -> maintain(archiveAfterMonths > 0),
+                maintenanceIntervalMs, maintenanceIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        maintenanceTask.cancel(false);
+        maintenanceExecutor.shutdownNow();
+    }
+
+    private void maintain(boolean archive) {
+        try {
+            jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+                if (!tryLock(connection)) {
+                    logger.debug("History partitions are being maintained by another node");
+                    return null;
+                }
+                try {
+                    execute(connection, "SET lock_timeout = " + lockTimeoutMs);
+                    execute(connection, "SET TIME ZONE 'UTC'");
+                    YearMonth currentMonth = YearMonth.now(ZoneOffset.UTC);
+                    createPartitions(connection, currentMonth);
+                    if (archive) {
+                        archivePartitions(connection, currentMonth.minusMonths(archiveAfterMonths));
+                    }
+                } finally {
+                    execute(connection, "RESET lock_timeout");
+                    execute(connection, "RESET TIME ZONE");
+                    unlock(connection);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            logger.error("Failed to maintain history partitions", e);
+        }
+    }
+
+    private void createPartitions(Connection connection, YearMonth currentMonth) throws SQLException {
+        Map<String, Boolean> partitions = findPartitions(connection);
+        TreeSet<YearMonth> months = new TreeSet<>(findDefaultMonths(connection));
+        for (int ahead = 0; ahead <= partitionsAhead; ahead++) {
+            months.add(currentMonth.plusMonths(ahead));
+        }
+        for (YearMonth month : months) {
+            List<String> missing = HistoryPartitions.TABLES.reversed().stream()
+                    .filter(table -> !partitions.containsKey(HistoryPartitions.partitionName(table, month)))
+                    .toList();
+            if (missing.isEmpty()) {
+                continue;
+            }
+            inTransaction(connection, () -> {
+                // a partition can't be created while the DEFAULT partition holds rows of its month
+                List<String> moved = moveOutOfDefault(connection, month);
+                for (String table : missing) {
+                    execute(connection, "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')"
+                            .formatted(HistoryPartitions.partitionName(table, month), table,
+                                    HistoryPartitions.monthStart(month), HistoryPartitions.monthStart(month.plusMonths(1))));
+                }
+                for (String table : moved) {
+                    execute(connection, "INSERT INTO %s SELECT * FROM %s".formatted(table, movedTableName(table)));
+                }
+            });
+            missing.forEach(table -> logger.info("Created history partition {}", HistoryPartitions.partitionName(table, month)));
+        }
+    }
+
+    /**
+     * Copies the month's rows out of the DEFAULT partitions into temporary tables dropped on commit,
+     * then deletes them, referencing tables first.
+     *
+     * @return the tables rows were moved out of, referenced tables first so they can be inserted back in order
+     */
+    private List<String> moveOutOfDefault(Connection connection, YearMonth month) throws SQLException {
+        if (!hasDefaultPartitions(connection)) {
+            return List.of();
+        }
+        List<String> moved = new ArrayList<>();
+        for (String table : HistoryPartitions.TABLES) {
+            String defaultPartition = HistoryPartitions.defaultPartitionName(table);
+            String monthFilter = "%s >= '%s' AND %s < '%s'".formatted(
+                    HistoryPartitions.partitionKey(table), HistoryPartitions.monthStart(month),
+                    HistoryPartitions.partitionKey(table), HistoryPartitions.monthStart(month.plusMonths(1)));
+            execute(connection, "CREATE TEMPORARY TABLE %s ON COMMIT DROP AS SELECT * FROM %s WHERE %s"
+                    .formatted(movedTableName(table), defaultPartition, monthFilter));
+            int rows = executeUpdate(connection, "DELETE FROM %s WHERE %s".formatted(defaultPartition, monthFilter));
+            if (rows > 0) {
+                logger.warn("Moving {} rows of {} out of {}", rows, month, defaultPartition);
+            }
+            moved.addFirst(table);
+        }
+        return moved;
+    }
+
+    /**
+     * @return the months of rounds in the DEFAULT partition, started in a month that had no partition
+     */
+    private Set<YearMonth> findDefaultMonths(Connection connection) throws SQLException {
+        Set<YearMonth> months = new HashSet<>();
+        if (!hasDefaultPartitions(connection)) {
+            return months;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT DISTINCT date_trunc('month', %s) FROM %s".formatted(
+                     HistoryPartitions.partitionKey(HistoryPartitions.ROUND),
+                     HistoryPartitions.defaultPartitionName(HistoryPartitions.ROUND)))) {
+            while (resultSet.next()) {
+                months.add(HistoryPartitions.monthOf(resultSet.getObject(1, OffsetDateTime.class).toInstant()));
+            }
+        }
+        return months;
+    }
+
+    private boolean hasDefaultPartitions(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT to_regclass(?) IS NOT NULL")) {
+            statement.setString(1, HistoryPartitions.defaultPartitionName(HistoryPartitions.ROUND));
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private static String movedTableName(String table) {
+        return "moved_" + table;
+    }
+
+    /**
+     * @param before the first month to keep
+     */
+    private void archivePartitions(Connection connection, YearMonth before) throws SQLException {
+        Map<String, Boolean> partitions = findPartitions(connection);
+        TreeSet<YearMonth> months = new TreeSet<>();
+        for (String partition : partitions.keySet()) {
+            HistoryPartitions.monthOf(partition)
+                    .filter(month -> month.isBefore(before))
+                    .ifPresent(months::add);
+        }
+        for (YearMonth month : months) {
+            archiveMonth(connection, month, partitions);
+        }
+    }
+
+    private void archiveMonth(Connection connection, YearMonth month, Map<String, Boolean> partitions) throws SQLException {
+        String roundPartition = HistoryPartitions.partitionName(HistoryPartitions.ROUND, month);
+        if (partitions.containsKey(roundPartition)) {
+            // rounds left behind by a crash, which the live queries no longer look at
+            execute(connection, "UPDATE " + roundPartition + " SET round_state = 'FINISH' WHERE round_state <> 'FINISH'");
+        }
+        for (String table : HistoryPartitions.TABLES) {
+            String partition = HistoryPartitions.partitionName(table, month);
+            Boolean attached = partitions.get(partition);
+            if (attached == null) {
+                continue;
+            }
+            if (attached) {
+                execute(connection, "ALTER TABLE " + table + " DETACH PARTITION " + partition);
+            }
+            try {
+                archiveService.export(connection, partition, table, month);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to export " + partition, e);
+            }
+            execute(connection, "DROP TABLE " + partition);
+            logger.info("Archived history partition {}", partition);
+        }
+    }
+
+    /**
+     * @return the history partitions, attached or left detached by an interrupted archive, by whether they are attached
+     */
+    private Map<String, Boolean> findPartitions(Connection connection) throws SQLException {
+        Map<String, Boolean> partitions = new TreeMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT c.relname, c.relispartition " +
+                     "FROM pg_class c JOIN pg_namespace n ON n.oid = c.relnamespace " +
+                     "WHERE n.nspname = current_schema() AND c.relkind = 'r'")) {
+            while (resultSet.next()) {
+                String name = resultSet.getString(1);
+                Optional<YearMonth> month = HistoryPartitions.monthOf(name);
+                if (month.isPresent()) {
+                    partitions.put(name, resultSet.getBoolean(2));
+                }
+            }
+        }
+        return partitions;
+    }
+
+    private boolean tryLock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_try_advisory_lock(?)")) {
+            statement.setLong(1, ADVISORY_LOCK_KEY);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private void unlock(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT pg_advisory_unlock(?)")) {
+            statement.setLong(1, ADVISORY_LOCK_KEY);
+            statement.execute();
+        }
+    }
+
+    private void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private int executeUpdate(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            return statement.executeUpdate(sql);
+        }
+    }
+
+    private void inTransaction(Connection connection, SqlWork work) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            work.run();
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    @FunctionalInterface
+    private interface SqlWork {
+        void run() throws SQLException;
+    }
+}
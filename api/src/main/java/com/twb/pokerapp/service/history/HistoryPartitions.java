@@ -0,0 +1,118 @@
+package com.twb.pokerapp.service.history;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Naming and bounds of the monthly partitions of the hand history tables, {@code round} partitioned by
+ * its start and {@code hand} and {@code player_action} by the start of their round, so all rows of a
+ * round are in the same UTC month, named for example {@code hand_p2024_07}. Each table also has a DEFAULT
+ * partition, for example {@code hand_default}, for rounds started in a month without a partition.
+ * <p>
+ * The primary keys include the partition key, and the entities mark it with {@link org.hibernate.annotations.PartitionKey}
+ * so Hibernate's UPDATEs and DELETEs name it and touch a single partition. Lookups by id alone, such as the
+ * SELECT before a merge, still probe each partition's primary key index, which is cheap with a handful of months attached.
+ */
+public final class HistoryPartitions {
+    public static final String ROUND = "round";
+    public static final String HAND = "hand";
+    public static final String PLAYER_ACTION = "player_action";
+
+    /**
+     * Referencing tables first, the order partitions of a month are detached and dropped in.
+     */
+    public static final List<String> TABLES = List.of(PLAYER_ACTION, HAND, ROUND);
+
+    private static final String DEFAULT_SUFFIX = "_default";
+    private static final DateTimeFormatter SUFFIX_FORMAT = DateTimeFormatter.ofPattern("'_p'yyyy_MM");
+    private static final Pattern PARTITION_PATTERN = Pattern.compile("^(round|hand|player_action)_p(\\d{4})_(\\d{2})$");
+
+    private HistoryPartitions() {
+    }
+
+    /**
+     * Returns the partition of the table holding rounds started in the month.
+     */
+    public static String partitionName(String table, YearMonth month) {
+        if (!TABLES.contains(table)) {
+            throw new IllegalArgumentException("Not a history table: " + table);
+        }
+        return table + SUFFIX_FORMAT.format(month);
+    }
+
+    /**
+     * Returns the table's DEFAULT partition, which holds rounds started in a month without a partition.
+     */
+    public static String defaultPartitionName(String table) {
+        if (!TABLES.contains(table)) {
+            throw new IllegalArgumentException("Not a history table: " + table);
+        }
+        return table + DEFAULT_SUFFIX;
+    }
+
+    /**
+     * Returns the column the table is partitioned by, the start of the row's round.
+     */
+    public static String partitionKey(String table) {
+        if (!TABLES.contains(table)) {
+            throw new IllegalArgumentException("Not a history table: " + table);
+        }
+        return ROUND.equals(table) ? "started_at" : "round_started_at";
+    }
+
+    /**
+     * Returns the month of a partition name, empty if it isn't a history partition.
+     */
+    public static Optional<YearMonth> monthOf(String partitionName) {
+        Matcher matcher = PARTITION_PATTERN.matcher(partitionName);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        int month = Integer.parseInt(matcher.group(3));
+        if (month < 1 || month > 12) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.of(Integer.parseInt(matcher.group(2)), month));
+    }
+
+    /**
+     * Returns the table a history partition belongs to.
+     */
+    public static String tableOf(String partitionName) {
+        Matcher matcher = PARTITION_PATTERN.matcher(partitionName);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a history partition: " + partitionName);
+        }
+        return matcher.group(1);
+    }
+
+    /**
+     * Returns the inclusive lower bound of the month's partitions.
+     */
+    public static Instant monthStart(YearMonth month) {
+        return month.atDay(1).atStartOfDay(ZoneOffset.UTC).toInstant();
+    }
+
+    public static YearMonth monthOf(Instant instant) {
+        return YearMonth.from(instant.atOffset(ZoneOffset.UTC));
+    }
+
+    /**
+     * The earliest start of a round still in play, the start of the previous month so a round started
+     * just before the turn of a month is still found. Queries for unfinished rounds bound the start by
+     * this so Postgres only scans the latest partitions.
+     */
+    public static Instant activeSince() {
+        return activeSince(Instant.now());
+    }
+
+    public static Instant activeSince(Instant now) {
+        return monthStart(monthOf(now).minusMonths(1));
+    }
+}
@@ -0,0 +1,48 @@
+package com.twb.pokerapp.web.rest;
+
+import com.twb.pokerapp.dto.analysis.CreateEquityAnalysisDTO;
+import com.twb.pokerapp.dto.analysis.EquityAnalysisDTO;
+import com.twb.pokerapp.dto.analysis.PreflopAnalysisDTO;
+import com.twb.pokerapp.service.AnalysisService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping("/analysis")
+@RequiredArgsConstructor
+public class AnalysisResource {
+    private final AnalysisService service;
+
+    @PostMapping("/equity")
+    public CompletableFuture<ResponseEntity<EquityAnalysisDTO>> getEquity(@RequestBody CreateEquityAnalysisDTO createDto) {
+        try {
+            return service.getEquity(createDto)
+                    .thenApply(result -> new ResponseEntity<>(result, HttpStatus.OK));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage(), e);
+        }
+    }
+
+    @GetMapping("/preflop")
+    public ResponseEntity<PreflopAnalysisDTO> getPreflopEquity(@RequestParam List<String> hands) {
+        try {
+            return new ResponseEntity<>(service.getPreflopEquity(hands), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.twb.pokerapp.web.rest;
+
+import com.twb.pokerapp.dto.history.ArchivedHandDTO;
+import com.twb.pokerapp.exception.NotFoundException;
+import com.twb.pokerapp.service.history.HistoryArchiveService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/admin/archive")
+@RequiredArgsConstructor
+public class HistoryArchiveResource {
+    private final HistoryArchiveService service;
+
+    @GetMapping
+    public ResponseEntity<List<YearMonth>> getArchivedMonths() {
+        return new ResponseEntity<>(service.getArchivedMonths(), HttpStatus.OK);
+    }
+
+    @GetMapping("/{month}/hands")
+    public ResponseEntity<List<ArchivedHandDTO>> getHands(@PathVariable("month") YearMonth month,
+                                                          @RequestParam(required = false) UUID roundId,
+                                                          @RequestParam(required = false) UUID playerSessionId) {
+        try {
+            return new ResponseEntity<>(service.getHands(month, roundId, playerSessionId), HttpStatus.OK);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (NotFoundException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        }
+    }
+}
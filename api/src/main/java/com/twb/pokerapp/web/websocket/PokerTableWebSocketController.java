@@ -33,6 +33,7 @@ public class PokerTableWebSocketController {
 
     private static final String SEND_CHAT_MESSAGE = "/sendChatMessage";
     private static final String SEND_PLAYER_ACTION = "/sendPlayerAction";
+    private static final String SEND_TIME_BANK = "/sendTimeBank";
     private static final String SEND_DISCONNECT_PLAYER = "/sendDisconnectPlayer";
 
     private static final String POKER_TABLE_ID = "tableId";
@@ -75,6 +76,12 @@ public class PokerTableWebSocketController {
         pokerTableGameService.onPlayerAction(tableId, principal.getName(), action);
     }
 
+    @MessageMapping(INBOUND_MESSAGE_PREFIX + SEND_TIME_BANK)
+    public void sendTimeBank(Principal principal,
+                             @DestinationVariable(POKER_TABLE_ID) UUID tableId) {
+        pokerTableGameService.onTimeBank(tableId, principal.getName());
+    }
+
     // not returning here as called from multiple places
     @MessageMapping(INBOUND_MESSAGE_PREFIX + SEND_DISCONNECT_PLAYER)
     public void sendDisconnectPlayer(Principal principal,
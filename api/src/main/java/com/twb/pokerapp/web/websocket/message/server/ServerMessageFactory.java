@@ -1,17 +1,21 @@
 package com.twb.pokerapp.web.websocket.message.server;
 
 import com.twb.pokerapp.domain.Card;
+import com.twb.pokerapp.domain.Hand;
 import com.twb.pokerapp.domain.PlayerSession;
 import com.twb.pokerapp.domain.enumeration.ActionType;
 import com.twb.pokerapp.dto.playeraction.PlayerActionDTO;
 import com.twb.pokerapp.dto.playersession.PlayerSessionDTO;
 import com.twb.pokerapp.mapper.CardMapper;
 import com.twb.pokerapp.mapper.PlayerSessionMapper;
+import com.twb.pokerapp.service.eval.HandRanks;
+import com.twb.pokerapp.service.eval.dto.EquityDTO;
 import com.twb.pokerapp.web.websocket.message.server.payload.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Component
@@ -52,15 +56,50 @@ public class ServerMessageFactory {
         return ServerMessageDTO.create(ServerMessageType.DEAL_COMMUNITY, payload);
     }
 
-    public ServerMessageDTO playerTurn(PlayerSession playerSession, ActionType[] actions) {
+    public ServerMessageDTO handStrength(int rank) {
+        HandStrengthDTO payload = new HandStrengthDTO();
+        payload.setHandType(HandRanks.getHandType(rank));
+        payload.setRank(rank);
+        return ServerMessageDTO.create(ServerMessageType.HAND_STRENGTH, payload);
+    }
+
+    public ServerMessageDTO equityUpdate(List<String> usernames, EquityDTO equity) {
+        List<PlayerEquityDTO> equities = new ArrayList<>();
+        for (int hand = 0; hand < usernames.size(); hand++) {
+            PlayerEquityDTO playerEquity = new PlayerEquityDTO();
+            playerEquity.setUsername(usernames.get(hand));
+            playerEquity.setWin(equity.getWin(hand));
+            playerEquity.setTie(equity.getTie(hand));
+            playerEquity.setLose(equity.getLose(hand));
+            equities.add(playerEquity);
+        }
+        EquityUpdateDTO payload = new EquityUpdateDTO();
+        payload.setEquities(equities);
+        payload.setSamples(equity.getSamples());
+        payload.setExhaustive(equity.isExhaustive());
+        return ServerMessageDTO.create(ServerMessageType.EQUITY_UPDATE, payload);
+    }
+
+    public ServerMessageDTO playerTurn(PlayerSession playerSession, ActionType[] actions, long remainingMs) {
         PlayerTurnDTO payload = new PlayerTurnDTO();
         payload.setPlayerSession(playerSessionMapper.modelToDto(playerSession));
         payload.setActions(actions);
+        payload.setRemainingMs(remainingMs);
         return ServerMessageDTO.create(ServerMessageType.PLAYER_TURN, payload);
     }
 
-    public ServerMessageDTO roundFinished() {
+    public ServerMessageDTO roundFinished(List<Hand> hands) {
         RoundFinishedDTO payload = new RoundFinishedDTO();
+        for (Hand hand : hands) {
+            PlayerHandResultDTO result = new PlayerHandResultDTO();
+            result.setUsername(hand.getPlayerSession().getUser().getUsername());
+            result.setHandType(hand.getHandType());
+            result.setWinner(hand.getWinner());
+            if (hand.getBestFive() != null) {
+                result.getBestFive().addAll(cardMapper.cardSetToDto(hand.getBestFive()));
+            }
+            payload.getHands().add(result);
+        }
         return ServerMessageDTO.create(ServerMessageType.ROUND_FINISHED, payload);
     }
 
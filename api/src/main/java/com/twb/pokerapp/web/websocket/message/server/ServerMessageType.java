@@ -34,6 +34,18 @@ public enum ServerMessageType {
      */
     DEAL_COMMUNITY,
 
+    /*
+     * Sent privately to each player still in the round once
+     * community cards are dealt, with the best hand they hold
+     */
+    HAND_STRENGTH,
+
+    /*
+     * Sent privately to each listener when two or more players are
+     * all-in, with each player's chance to win, tie or lose
+     */
+    EQUITY_UPDATE,
+
     /*
      * Used to notify all players of the current player turn
      */
@@ -94,6 +106,10 @@ public enum ServerMessageType {
                 return DealPlayerCardDTO.class;
             case DEAL_COMMUNITY:
                 return DealCommunityCardDTO.class;
+            case HAND_STRENGTH:
+                return HandStrengthDTO.class;
+            case EQUITY_UPDATE:
+                return EquityUpdateDTO.class;
             case PLAYER_TURN:
                 return PlayerTurnDTO.class;
             case PLAYER_ACTION:
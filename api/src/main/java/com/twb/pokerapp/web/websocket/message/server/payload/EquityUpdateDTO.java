@@ -0,0 +1,12 @@
+package com.twb.pokerapp.web.websocket.message.server.payload;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class EquityUpdateDTO {
+    private List<PlayerEquityDTO> equities;
+    private long samples;
+    private boolean exhaustive;
+}
@@ -0,0 +1,10 @@
+package com.twb.pokerapp.web.websocket.message.server.payload;
+
+import com.twb.pokerapp.domain.enumeration.HandType;
+import lombok.Data;
+
+@Data
+public class HandStrengthDTO {
+    private HandType handType;
+    private int rank;
+}
@@ -0,0 +1,11 @@
+package com.twb.pokerapp.web.websocket.message.server.payload;
+
+import lombok.Data;
+
+@Data
+public class PlayerEquityDTO {
+    private String username;
+    private double win;
+    private double tie;
+    private double lose;
+}
@@ -0,0 +1,16 @@
+package com.twb.pokerapp.web.websocket.message.server.payload;
+
+import com.twb.pokerapp.domain.enumeration.HandType;
+import com.twb.pokerapp.dto.card.CardDTO;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class PlayerHandResultDTO {
+    private String username;
+    private HandType handType;
+    private Boolean winner;
+    private List<CardDTO> bestFive = new ArrayList<>(); // empty unless the hand went to a showdown
+}
@@ -2,6 +2,10 @@ package com.twb.pokerapp.web.websocket.message.server.payload;
 
 import lombok.Data;
 
+import java.util.ArrayList;
+import java.util.List;
+
 @Data
 public class RoundFinishedDTO {
+    private List<PlayerHandResultDTO> hands = new ArrayList<>();
 }
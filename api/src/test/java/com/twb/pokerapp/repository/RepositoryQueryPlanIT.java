@@ -0,0 +1,211 @@
+package com.twb.pokerapp.repository;
+
+import com.twb.pokerapp.service.history.HistoryPartitions;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Seeds a Postgres container with a few years of play and checks, with {@code EXPLAIN}, that the SQL
+ * Hibernate generates for each repository query is answered from an index rather than a sequential scan.
+ * All of the history is seeded into the current month, the next month's and DEFAULT partitions the migration
+ * also creates stay empty, and a sequential scan of an empty partition is allowed.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "com.twb.pokerapp.repository.RepositoryQueryPlanIT$CapturingInspector")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanIT {
+    private static final String DB_IMAGE = "postgres:13.1-alpine";
+
+    private static final int TABLES = 5_000;
+    private static final int USERS = 50_000;
+    private static final int SESSIONS = 100_000;
+    private static final int CONNECTED_SESSIONS = 2 * TABLES;
+    private static final int ROUNDS = 500_000;
+    private static final int HANDS = 2_000_000; // 4 million packed cards
+    private static final int ACTIONS = 4_000_000;
+    // the current month the migration partitioned, older months have no partitions until the application creates them
+    private static final String MONTH_START = "date_trunc('month', now() AT TIME ZONE 'UTC') AT TIME ZONE 'UTC'";
+
+    private static final PostgreSQLContainer<?> DB_CONTAINER = new PostgreSQLContainer<>(DB_IMAGE);
+
+    static {
+        DB_CONTAINER.start();
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlayerSessionRepository playerSessionRepository;
+
+    @Autowired
+    private HandRepository handRepository;
+
+    @Autowired
+    private PlayerActionRepository playerActionRepository;
+
+    @Autowired
+    private RoundRepository roundRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private UUID tableId;
+    private UUID sessionId;
+    private String username;
+    private UUID roundId;
+    private OffsetDateTime roundStartedAt;
+    private List<String> emptyPartitions;
+
+    @DynamicPropertySource
+    static void datasourceProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", DB_CONTAINER::getJdbcUrl);
+        registry.add("spring.datasource.username", DB_CONTAINER::getUsername);
+        registry.add("spring.datasource.password", DB_CONTAINER::getPassword);
+    }
+
+    @BeforeAll
+    public void seed() {
+        // ids are md5s of a prefix and row number, so rows can refer to each other without a lookup
+        jdbcTemplate.execute("""
+                INSERT INTO poker_table (id, name, game_type)
+                SELECT md5('t' || n)::uuid, 'Poker Table ' || n, 'TEXAS_HOLDEM'
+                FROM generate_series(1, %d) n""".formatted(TABLES));
+        jdbcTemplate.execute("""
+                INSERT INTO app_user (id, username, groups)
+                SELECT md5('u' || n)::uuid, 'user' || n, '[]'::jsonb
+                FROM generate_series(1, %d) n""".formatted(USERS));
+        jdbcTemplate.execute("""
+                INSERT INTO player_session (id, user_id, poker_table_id, position, session_state, connection_type)
+                SELECT md5('s' || n)::uuid, md5('u' || (n %% %d + 1))::uuid, md5('t' || (n %% %d + 1))::uuid,
+                       (n / %d) %% 6 + 1,
+                       CASE WHEN n > %d THEN 'CONNECTED' ELSE 'DISCONNECTED' END,
+                       CASE WHEN n %% 10 = 0 THEN 'LISTENER' ELSE 'PLAYER' END
+                FROM generate_series(1, %d) n"""
+                .formatted(USERS, TABLES, TABLES, SESSIONS - CONNECTED_SESSIONS, SESSIONS));
+        jdbcTemplate.execute("""
+                INSERT INTO round (id, poker_table_id, round_state, started_at)
+                SELECT md5('r' || n)::uuid, md5('t' || (n %% %d + 1))::uuid,
+                       CASE WHEN n > %d THEN 'FLOP_DEAL_BET' ELSE 'FINISH' END, %s
+                FROM generate_series(1, %d) n""".formatted(TABLES, ROUNDS - TABLES, MONTH_START, ROUNDS));
+        jdbcTemplate.execute("""
+                INSERT INTO hand (id, player_session_id, round_id, hand_type, winner, hole_cards, round_started_at)
+                SELECT md5('h' || n)::uuid, md5('s' || (n %% %d + 1))::uuid, md5('r' || (n / 4 %% %d + 1))::uuid,
+                       'PAIR', n %% 4 = 0, n %% 52 + 1 + ((n + 7) %% 52 + 1) * 64, %s
+                FROM generate_series(1, %d) n""".formatted(SESSIONS, ROUNDS, MONTH_START, HANDS));
+        jdbcTemplate.execute("""
+                INSERT INTO player_action (id, player_session_id, round_id, round_state, action_type,
+                                           round_started_at)
+                SELECT md5('a' || n)::uuid, md5('s' || (n %% %d + 1))::uuid, md5('r' || (n / 8 %% %d + 1))::uuid,
+                       'FLOP_DEAL_BET', 'CHECK', %s
+                FROM generate_series(1, %d) n""".formatted(SESSIONS, ROUNDS, MONTH_START, ACTIONS));
+        jdbcTemplate.execute("ANALYZE");
+
+        tableId = uuid("SELECT poker_table_id FROM round WHERE round_state <> 'FINISH' LIMIT 1");
+        sessionId = uuid("SELECT id FROM player_session WHERE poker_table_id = '" + tableId + "' LIMIT 1");
+        username = jdbcTemplate.queryForObject("SELECT u.username FROM app_user u "
+                + "JOIN player_session s ON s.user_id = u.id WHERE s.id = '" + sessionId + "'", String.class);
+        roundId = uuid("SELECT round_id FROM hand WHERE player_session_id = '" + sessionId + "' LIMIT 1");
+        roundStartedAt = jdbcTemplate.queryForObject("SELECT started_at FROM round WHERE id = '" + roundId + "'",
+                OffsetDateTime.class);
+        emptyPartitions = jdbcTemplate.queryForList("SELECT c.relname FROM pg_inherits i "
+                + "JOIN pg_class c ON c.oid = i.inhrelid JOIN pg_class p ON p.oid = i.inhparent "
+                + "WHERE p.relname IN ('round', 'hand', 'player_action') AND c.relkind = 'r'", String.class)
+                .stream()
+                .filter(partition -> Boolean.FALSE.equals(jdbcTemplate.queryForObject(
+                        "SELECT EXISTS (SELECT 1 FROM " + partition + ")", Boolean.class)))
+                .toList();
+    }
+
+    @Test
+    public void testPlayerSessionQueries() {
+        assertIndexScan(() -> playerSessionRepository.findByTableIdAndUsername(tableId, username), tableId, username);
+        assertIndexScan(() -> playerSessionRepository.findConnectedById(sessionId), sessionId);
+        assertIndexScan(() -> playerSessionRepository.findByTableId(tableId), tableId);
+        assertIndexScan(() -> playerSessionRepository.findConnectedByTableId(tableId), tableId);
+        assertIndexScan(() -> playerSessionRepository.findConnectedPlayersByTableId(tableId), tableId);
+        assertIndexScan(() -> playerSessionRepository.findConnectedPlayersByTableIdNoLock(tableId), tableId);
+        assertIndexScan(() -> playerSessionRepository.findConnectedListenerUsernamesByTableId(tableId), tableId);
+        assertIndexScan(() -> playerSessionRepository.resetDealerForTableId(tableId), tableId);
+        assertIndexScan(() -> playerSessionRepository.setDealer(sessionId), sessionId);
+        assertIndexScan(() -> playerSessionRepository.resetCurrentForTableId(tableId), tableId);
+        assertIndexScan(() -> playerSessionRepository.setCurrent(sessionId), sessionId);
+    }
+
+    @Test
+    public void testHandQueries() {
+        assertIndexScan(() -> handRepository.findHandForRound(sessionId, roundId, roundStartedAt.toInstant()),
+                sessionId, roundId, roundStartedAt);
+    }
+
+    @Test
+    public void testPlayerActionQueries() {
+        assertIndexScan(() -> playerActionRepository.findByRoundAndPlayerSession(roundId, sessionId), roundId, sessionId);
+    }
+
+    @Test
+    public void testRoundQueries() {
+        assertIndexScan(() -> roundRepository.findByTableId(tableId), tableId);
+        OffsetDateTime since = HistoryPartitions.activeSince().atOffset(ZoneOffset.UTC);
+        assertIndexScan(() -> roundRepository.findAllNotFinished(since.toInstant()), since);
+        assertIndexScan(() -> roundRepository.findCurrentByTableId(tableId, since.toInstant()), tableId, since);
+    }
+
+    @Test
+    public void testUserQueries() {
+        assertIndexScan(() -> userRepository.findByUsername(username), username);
+    }
+
+    // *****************************************************************************************
+    // Helpers
+    // *****************************************************************************************
+
+    /**
+     * Runs the query to capture the SQL Hibernate sends, then explains that SQL with the same parameters
+     * (timestamps as {@link OffsetDateTime}, which the driver binds as {@code timestamptz}).
+     */
+    private void assertIndexScan(Runnable query, Object... parameters) {
+        CapturingInspector.STATEMENTS.clear();
+        query.run();
+        assertFalse(CapturingInspector.STATEMENTS.isEmpty(), "No SQL was captured");
+        String sql = CapturingInspector.STATEMENTS.getLast();
+
+        List<String> plan = jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parameters);
+        String planText = sql + "\n" + String.join("\n", plan);
+        assertTrue(plan.stream().filter(line -> line.contains("Seq Scan"))
+                .allMatch(line -> emptyPartitions.stream().anyMatch(partition -> line.contains(" on " + partition + " "))), planText);
+        assertTrue(plan.stream().anyMatch(line -> line.contains("Index")), planText);
+    }
+
+    private UUID uuid(String sql) {
+        return jdbcTemplate.queryForObject(sql, UUID.class);
+    }
+
+    public static class CapturingInspector implements StatementInspector {
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
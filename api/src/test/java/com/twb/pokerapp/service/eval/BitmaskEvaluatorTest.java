@@ -0,0 +1,100 @@
+package com.twb.pokerapp.service.eval;
+
+import com.twb.pokerapp.service.game.CardSet;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BitmaskEvaluatorTest {
+
+    @Test
+    public void testEveryFiveCardHand() {
+        // number of five card hands in each category, high card to straight flush
+        int[] expected = {1_302_540, 1_098_240, 123_552, 54_912, 10_200, 5_108, 3_744, 624, 40};
+        int[] counts = new int[expected.length];
+        BitSet ranks = new BitSet();
+        for (int a = 0; a < CardSet.DECK_SIZE; a++) {
+            for (int b = a + 1; b < CardSet.DECK_SIZE; b++) {
+                for (int c = b + 1; c < CardSet.DECK_SIZE; c++) {
+                    for (int d = c + 1; d < CardSet.DECK_SIZE; d++) {
+                        for (int e = d + 1; e < CardSet.DECK_SIZE; e++) {
+                            int rank = BitmaskEvaluator.getRank(CardSet.of(a, b, c, d, e));
+                            counts[HandRanks.getCategory(rank)]++;
+                            ranks.set(rank);
+                        }
+                    }
+                }
+            }
+        }
+        assertArrayEquals(expected, counts);
+        assertEquals(HandRanks.MAX_RANK, ranks.cardinality()); // every rank is reached
+        assertEquals(1, ranks.nextSetBit(0));
+    }
+
+    @Test
+    public void testMatchesRankEvaluatorAndBestFiveCards() {
+        RankEvaluator evaluator = new JavaRankEvaluator();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int hand = 0; hand < 100_000; hand++) {
+            int[] cards = random.ints(0, CardSet.DECK_SIZE).distinct().limit(7).toArray();
+            long seven = CardSet.of(cards);
+            assertEquals(evaluator.getRank(seven), BitmaskEvaluator.getRank(seven), CardSet.toString(seven));
+
+            long six = CardSet.without(seven, cards[6]);
+            assertEquals(bestFive(six), BitmaskEvaluator.getRank(six), CardSet.toString(six));
+        }
+    }
+
+    @Test
+    public void testBestFiveCardsMakeTheRank() {
+        SplittableRandom random = new SplittableRandom(7);
+        long[] bestFive = new long[1];
+        for (int hand = 0; hand < 100_000; hand++) {
+            int size = BitmaskEvaluator.MIN_CARDS + hand % 3;
+            long cards = CardSet.of(random.ints(0, CardSet.DECK_SIZE).distinct().limit(size).toArray());
+            int rank = BitmaskEvaluator.getRank(cards, bestFive, 0);
+            assertEquals(BitmaskEvaluator.MIN_CARDS, CardSet.size(bestFive[0]), CardSet.toString(cards));
+            assertEquals(bestFive[0], bestFive[0] & cards, CardSet.toString(cards));
+            assertEquals(rank, BitmaskEvaluator.getRank(bestFive[0]), CardSet.toString(cards));
+        }
+    }
+
+    @Test
+    public void testBatchBestFiveCards() {
+        HandBatch batch = new HandBatch(1);
+        batch.setBoard(CardSet.parse("Ah Kh Qh 7c 2d"));
+        int flush = batch.addHand(CardSet.parse("Jh 3h"));
+        int straight = batch.addHand(CardSet.parse("Js Td"));
+        BitmaskEvaluator.evaluate(batch);
+
+        assertEquals(CardSet.parse("Ah Kh Qh Jh 3h"), batch.getBestFive(flush));
+        assertEquals(CardSet.parse("Ah Kh Qh Js Td"), batch.getBestFive(straight));
+        assertEquals(HandRanks.STRAIGHT, batch.getCategory(straight));
+
+        // ranked by another evaluator, as at a showdown
+        int flushRank = batch.getRank(flush);
+        batch.clear();
+        batch.addHand(CardSet.parse("Jh 3h"));
+        new JavaRankEvaluator().evaluate(batch);
+        BitmaskEvaluator.findBestFive(batch);
+        assertEquals(flushRank, batch.getRank(0));
+        assertEquals(CardSet.parse("Ah Kh Qh Jh 3h"), batch.getBestFive(0));
+    }
+
+    @Test
+    public void testHandSize() {
+        assertThrows(IllegalArgumentException.class, () -> BitmaskEvaluator.getRank(CardSet.of(0, 1, 2, 3)));
+        assertThrows(IllegalArgumentException.class, () -> BitmaskEvaluator.getRank(CardSet.FULL_DECK));
+    }
+
+    private static int bestFive(long cards) {
+        int best = 0;
+        for (long rest = cards; rest != 0; rest = CardSet.removeFirst(rest)) {
+            best = Math.max(best, BitmaskEvaluator.getRank(CardSet.without(cards, CardSet.first(rest))));
+        }
+        return best;
+    }
+}
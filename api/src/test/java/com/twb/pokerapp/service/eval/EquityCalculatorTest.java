@@ -0,0 +1,79 @@
+package com.twb.pokerapp.service.eval;
+
+import com.twb.pokerapp.domain.enumeration.RankType;
+import com.twb.pokerapp.domain.enumeration.SuitType;
+import com.twb.pokerapp.service.eval.dto.EquityDTO;
+import com.twb.pokerapp.service.game.CardSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EquityCalculatorTest {
+
+    private EquityCalculator calculator;
+
+    @BeforeEach
+    public void setUp() {
+        calculator = new EquityCalculator(new JavaRankEvaluator());
+        ReflectionTestUtils.setField(calculator, "exhaustiveLimit", 1000L);
+        ReflectionTestUtils.setField(calculator, "samples", 200_000);
+        ReflectionTestUtils.setField(calculator, "budgetMs", 60_000L);
+        ReflectionTestUtils.setField(calculator, "cacheSize", 16);
+        calculator.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        calculator.destroy();
+    }
+
+    @Test
+    public void testHeadsUpTurnIsExhaustive() {
+        long board = CardSet.of(card(RankType.DEUCE, SuitType.CLUBS), card(RankType.SEVEN, SuitType.DIAMONDS),
+                card(RankType.NINE, SuitType.HEARTS), card(RankType.KING, SuitType.SPADES));
+        long aces = CardSet.of(card(RankType.ACE, SuitType.CLUBS), card(RankType.ACE, SuitType.DIAMONDS));
+        long kings = CardSet.of(card(RankType.KING, SuitType.CLUBS), card(RankType.KING, SuitType.DIAMONDS));
+
+        EquityDTO equity = calculator.calculate(board, new long[]{aces, kings}).join();
+
+        assertTrue(equity.isExhaustive());
+        assertEquals(44, equity.getSamples());
+        assertArrayEquals(new long[]{2, 42}, equity.getWins()); // only the two aces left save the aces
+        assertArrayEquals(new long[]{0, 0}, equity.getTies());
+        assertEquals(42.0 / 44, equity.getLose(0), 1e-9);
+    }
+
+    @Test
+    public void testPreflopIsSampled() {
+        long aces = CardSet.of(card(RankType.ACE, SuitType.CLUBS), card(RankType.ACE, SuitType.DIAMONDS));
+        long kings = CardSet.of(card(RankType.KING, SuitType.HEARTS), card(RankType.KING, SuitType.SPADES));
+
+        EquityDTO equity = calculator.calculate(CardSet.EMPTY, new long[]{aces, kings}).join();
+
+        assertFalse(equity.isExhaustive());
+        assertEquals(200_000, equity.getSamples());
+        assertEquals(0.8106, equity.getWin(0), 0.005); // 0.8106 by enumerating every board
+        assertEquals(1, equity.getWin(0) + equity.getTie(0) + equity.getLose(0), 1e-9);
+        assertEquals(equity.getWin(0), equity.getLose(1), 1e-9);
+    }
+
+    @Test
+    public void testSameHandsShareOneCalculation() {
+        long board = CardSet.of(0, 5, 10, 15, 20);
+        long[] holeCards = {CardSet.of(30, 31), CardSet.of(40, 41), CardSet.of(50, 51)};
+        CompletableFuture<EquityDTO> first = calculator.calculate(board, holeCards);
+        assertSame(first, calculator.calculate(board, holeCards.clone()));
+        assertEquals(1, first.join().getSamples());
+        assertThrows(IllegalArgumentException.class,
+                () -> calculator.calculate(board, new long[]{CardSet.of(0, 1), CardSet.of(40, 41)}));
+    }
+
+    private static int card(RankType rank, SuitType suit) {
+        return CardSet.card(rank, suit);
+    }
+}
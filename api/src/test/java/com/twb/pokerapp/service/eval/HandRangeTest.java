@@ -0,0 +1,55 @@
+package com.twb.pokerapp.service.eval;
+
+import com.twb.pokerapp.service.game.CardSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HandRangeTest {
+
+    @ParameterizedTest(name = "{0} => {1}")
+    @CsvSource(delimiter = ';', value = {
+            "AKs; 4",
+            "AKo; 12",
+            "ka; 16",
+            "TT; 6",
+            "TT+; 30",
+            "77-TT; 24",
+            "A2s+; 48",
+            "KTo-K8o; 36",
+            "AhKh; 1",
+            "AKs, AhKh, TT+, 76s; 38",
+            "22+, A2+, K2+, Q2+, J2+, T2+, 92+, 82+, 72+, 62+, 52+, 42+, 32; 1326"
+    })
+    public void testComboCount(String range, int combos) {
+        long[] parsed = HandRange.parse(range);
+        assertEquals(combos, parsed.length);
+        assertTrue(Arrays.stream(parsed).allMatch(combo -> CardSet.size(combo) == 2));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", " , ", "AAs", "AK+s", "AKx", "TT-AK", "AKs-QJs", "AhAh", "Ah1h", "TT+-99"})
+    public void testInvalidRange(String range) {
+        assertThrows(IllegalArgumentException.class, () -> HandRange.parse(range));
+    }
+
+    @Test
+    public void testSuitedness() {
+        for (long combo : HandRange.parse("AKs")) {
+            assertTrue(isSuited(combo), CardSet.toString(combo));
+        }
+        for (long combo : HandRange.parse("AKo")) {
+            assertFalse(isSuited(combo), CardSet.toString(combo));
+        }
+    }
+
+    private static boolean isSuited(long combo) {
+        return IntStream.range(0, CardSet.SUITS).anyMatch(suit -> Integer.bitCount(CardSet.suitRanks(combo, suit)) == 2);
+    }
+}
@@ -4,14 +4,15 @@ import com.twb.pokerapp.domain.Card;
 import com.twb.pokerapp.domain.enumeration.HandType;
 import com.twb.pokerapp.domain.enumeration.RankType;
 import com.twb.pokerapp.domain.enumeration.SuitType;
-import org.springframework.stereotype.Component;
 
 import java.util.*;
 
 /**
  * Evaluates the type of poker hand from a list of cards.
+ * <p>
+ * Showdowns take the hand type from the rank ({@link HandRanks#getHandType(int)}), this card by card
+ * evaluation is kept as a test oracle for it.
  */
-@Component
 public class HandTypeEvaluator {
     private static final List<RankType> PARTIAL_LOWER_STRAIGHT =
             Arrays.asList(RankType.DEUCE, RankType.TREY, RankType.FOUR, RankType.FIVE);
@@ -148,14 +149,17 @@ public class HandTypeEvaluator {
 
         Map<RankType, Integer> rankCounts = getRankCounts(cards);
 
-        boolean hasThreeOfAKind = rankCounts
+        long threeOfAKindCount = rankCounts
                 .values().stream()
-                .anyMatch(count -> count == THREE_CARDS_NEEDED);
-        boolean hasPair = rankCounts
+                .filter(count -> count >= THREE_CARDS_NEEDED)
+                .count();
+        long pairOrBetterCount = rankCounts
                 .values().stream()
-                .anyMatch(count -> count == TWO_CARDS_NEEDED);
+                .filter(count -> count >= TWO_CARDS_NEEDED)
+                .count();
 
-        return hasThreeOfAKind && hasPair;
+        // two three of a kinds also make a full house, the lower one playing as the pair
+        return threeOfAKindCount >= 1 && pairOrBetterCount >= 2;
     }
 
     /**
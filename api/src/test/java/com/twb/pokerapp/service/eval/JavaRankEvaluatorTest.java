@@ -0,0 +1,106 @@
+package com.twb.pokerapp.service.eval;
+
+import com.twb.pokerapp.domain.Card;
+import com.twb.pokerapp.service.game.CardSet;
+import com.twb.pokerapp.service.game.DeckOfCardsFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+import static com.twb.pokerapp.service.eval.HandFixture.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class JavaRankEvaluatorTest {
+
+    private JavaRankEvaluator evaluator;
+
+    @BeforeEach
+    public void beforeEach() {
+        evaluator = new JavaRankEvaluator();
+    }
+
+    @ParameterizedTest(name = "{index} => {0}")
+    @MethodSource("cardRankRangeProvider")
+    public void testHand(String scenario, List<Card> cards, int minRank, int maxRank) {
+        int rank = evaluator.getRank(cards);
+        assertTrue(rank >= minRank && rank <= maxRank,
+                scenario + " rank " + rank + " not in [" + minRank + ", " + maxRank + "]");
+    }
+
+    @Test
+    public void testCardOrderDoesNotMatter() {
+        List<Card> cards = createFullHouse();
+        assertEquals(evaluator.getRank(cards), evaluator.getRank(cards.reversed()));
+    }
+
+    @Test
+    public void testBatchMatchesSingleHands() {
+        SplittableRandom random = new SplittableRandom(42);
+        HandBatch batch = new HandBatch(2);
+        for (int board = 0; board < 10_000; board++) {
+            int[] cards = random.ints(0, CardSet.DECK_SIZE).distinct().limit(5 + 2 * 9).toArray();
+            long boardCards = CardSet.of(cards[0], cards[1], cards[2], cards[3], cards[4]);
+            batch.clear();
+            batch.setBoard(boardCards);
+            for (int card = 5; card < cards.length; card += 2) {
+                batch.addHand(CardSet.of(cards[card], cards[card + 1]));
+            }
+            evaluator.evaluate(batch);
+
+            for (int hand = 0; hand < batch.size(); hand++) {
+                int first = cards[5 + hand * 2];
+                int second = cards[6 + hand * 2];
+                int rank = evaluator.getRank(RankEvaluator.toCardIndex(cards[0]), RankEvaluator.toCardIndex(cards[1]),
+                        RankEvaluator.toCardIndex(cards[2]), RankEvaluator.toCardIndex(cards[3]),
+                        RankEvaluator.toCardIndex(cards[4]), RankEvaluator.toCardIndex(first),
+                        RankEvaluator.toCardIndex(second));
+                assertEquals(rank, evaluator.getRank(CardSet.of(first, second) | boardCards));
+                assertEquals(rank, batch.getRank(hand));
+                assertEquals(HandRanks.getCategory(rank), batch.getCategory(hand));
+            }
+        }
+    }
+
+    @Test
+    public void testHandTypeMatchesHandTypeEvaluator() {
+        HandTypeEvaluator oracle = new HandTypeEvaluator();
+        Random random = new Random(42);
+        for (int hand = 0; hand < 100_000; hand++) {
+            List<Card> deck = DeckOfCardsFactory.getCards(false);
+            Collections.shuffle(deck, random);
+            List<Card> cards = deck.subList(0, RankEvaluator.HAND_SIZE);
+            assertEquals(oracle.evaluate(cards), HandRanks.getHandType(evaluator.getRank(cards)), cards::toString);
+        }
+    }
+
+    @Test
+    public void testNotSevenCards() {
+        assertThrows(IllegalArgumentException.class, () -> evaluator.getRank(createFullHouse().subList(0, 5)));
+    }
+
+    // SKPokerEval rank range of each hand type, worst to best hand within the type
+    static Stream<Arguments> cardRankRangeProvider() {
+        return Stream.of(
+                Arguments.of("Royal Flush", createRoyalFlush(), 7462, 7462),
+                Arguments.of("Middle Straight Flush", createStraightFlush(), 7453, 7461),
+                Arguments.of("Lower Straight Flush", createLowerStraightFlush(), 7453, 7453),
+                Arguments.of("Four of a Kind", createFourOfAKind(), 7297, 7452),
+                Arguments.of("Full House", createFullHouse(), 7141, 7296),
+                Arguments.of("Straight & Flush", createBothStraightAndFlush(), 5864, 7140),
+                Arguments.of("Middle Straight", createStraight(), 5854, 5863),
+                Arguments.of("Lower Straight", createLowerStraight(), 5854, 5854),
+                Arguments.of("Three of a Kind", createThreeOfAKind(), 4996, 5853),
+                Arguments.of("Two Pair", createTwoPair(), 4138, 4995),
+                Arguments.of("Pair", createOnePair(), 1278, 4137),
+                Arguments.of("High Card", createHighCard(), 1, 1277)
+        );
+    }
+}
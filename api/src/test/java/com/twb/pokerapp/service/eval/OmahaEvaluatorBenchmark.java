@@ -0,0 +1,67 @@
+package com.twb.pokerapp.service.eval;
+
+import com.twb.pokerapp.service.game.CardSet;
+
+import java.util.SplittableRandom;
+
+/**
+ * Times {@link OmahaEvaluator} against ranking all 60 two plus three card hands with
+ * {@link BitmaskEvaluator}, run manually rather than as part of the test suite.
+ * <pre>
+ * java -cp target/test-classes:target/classes com.twb.pokerapp.service.eval.OmahaEvaluatorBenchmark [hands] [rounds]
+ * </pre>
+ */
+public class OmahaEvaluatorBenchmark {
+    private static final int HAND_CARDS = HandBatch.BOARD_SIZE + OmahaEvaluator.HOLE_CARDS;
+
+    public static void main(String[] args) {
+        int hands = args.length >= 1 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length >= 2 ? Integer.parseInt(args[1]) : 10;
+
+        long[] boards = new long[hands];
+        long[] holeCards = new long[hands];
+        SplittableRandom random = new SplittableRandom(42);
+        for (int hand = 0; hand < hands; hand++) {
+            int[] cards = random.ints(0, CardSet.DECK_SIZE).distinct().limit(HAND_CARDS).toArray();
+            boards[hand] = CardSet.of(cards[0], cards[1], cards[2], cards[3], cards[4]);
+            holeCards[hand] = CardSet.of(cards[5], cards[6], cards[7], cards[8]);
+        }
+
+        System.out.printf("%6s %14s %14s%n", "round", "omaha(ns/hand)", "naive(ns/hand)");
+        for (int round = 1; round <= rounds; round++) {
+            long checksum = 0;
+            long start = System.nanoTime();
+            for (int hand = 0; hand < hands; hand++) {
+                checksum += OmahaEvaluator.getRank(boards[hand], holeCards[hand]);
+            }
+            long omahaNanos = System.nanoTime() - start;
+            start = System.nanoTime();
+            for (int hand = 0; hand < hands; hand++) {
+                checksum -= naiveRank(boards[hand], holeCards[hand]);
+            }
+            long naiveNanos = System.nanoTime() - start;
+            if (checksum != 0) {
+                throw new IllegalStateException("Omaha ranks differ from the naive ranks");
+            }
+            System.out.printf("%6d %14.1f %14.1f%n", round, (double) omahaNanos / hands, (double) naiveNanos / hands);
+        }
+    }
+
+    private static int naiveRank(long board, long holeCards) {
+        int best = 0;
+        for (long i = holeCards; i != 0; i = CardSet.removeFirst(i)) {
+            for (long j = CardSet.removeFirst(i); j != 0; j = CardSet.removeFirst(j)) {
+                long pair = Long.lowestOneBit(i) | Long.lowestOneBit(j);
+                for (long a = board; a != 0; a = CardSet.removeFirst(a)) {
+                    for (long b = CardSet.removeFirst(a); b != 0; b = CardSet.removeFirst(b)) {
+                        for (long c = CardSet.removeFirst(b); c != 0; c = CardSet.removeFirst(c)) {
+                            long hand = pair | Long.lowestOneBit(a) | Long.lowestOneBit(b) | Long.lowestOneBit(c);
+                            best = Math.max(best, BitmaskEvaluator.getRank(hand));
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+}
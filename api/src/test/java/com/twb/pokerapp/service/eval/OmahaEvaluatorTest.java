@@ -0,0 +1,92 @@
+package com.twb.pokerapp.service.eval;
+
+import com.twb.pokerapp.domain.enumeration.HandType;
+import com.twb.pokerapp.service.game.CardSet;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OmahaEvaluatorTest {
+
+    @Test
+    public void testMatchesEveryTwoPlusThreeHand() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int hand = 0; hand < 200_000; hand++) {
+            int boardSize = OmahaEvaluator.MIN_BOARD_SIZE + hand % 3;
+            int[] cards = random.ints(0, CardSet.DECK_SIZE).distinct().limit(boardSize + 4L).toArray();
+            long board = CardSet.of(Arrays.copyOf(cards, boardSize));
+            long holeCards = CardSet.of(Arrays.copyOfRange(cards, boardSize, cards.length));
+            assertEquals(bestTwoPlusThree(board, holeCards), OmahaEvaluator.getRank(board, holeCards),
+                    CardSet.toString(board) + " " + CardSet.toString(holeCards));
+        }
+    }
+
+    @Test
+    public void testBestFiveUsesTwoHoleCards() {
+        SplittableRandom random = new SplittableRandom(7);
+        long[] bestFive = new long[1];
+        for (int hand = 0; hand < 100_000; hand++) {
+            int[] cards = random.ints(0, CardSet.DECK_SIZE).distinct().limit(9).toArray();
+            long board = CardSet.of(Arrays.copyOf(cards, 5));
+            long holeCards = CardSet.of(Arrays.copyOfRange(cards, 5, cards.length));
+            int rank = OmahaEvaluator.getRank(board, holeCards, bestFive, 0);
+            String message = CardSet.toString(board) + " " + CardSet.toString(holeCards);
+            assertEquals(2, CardSet.size(bestFive[0] & holeCards), message);
+            assertEquals(3, CardSet.size(bestFive[0] & board), message);
+            assertEquals(rank, BitmaskEvaluator.getRank(bestFive[0]), message);
+        }
+    }
+
+    @ParameterizedTest(name = "{0} with {1} is {2}")
+    @CsvSource({
+            "Ah Kh Qh Jh Th, 2c 3d 4s 5c, HIGH_CARD", // the board's royal flush needs two hole cards
+            "Ah Kh Qh 2c 3d, Jh Th 9s 9c, ROYAL_FLUSH",
+            "Ah Kh Qh 2c 3d, Jh 4c 9s 9c, PAIR", // a single suited hole card makes no flush
+            "Ah Kh 7h 2h 3d, Jh 4c 9h 9c, FLUSH",
+            "9d 9h 9s Kc 2d, 9c Ks Kd 3h, FOUR_OF_A_KIND",
+            "Ad Ah Kd Qd Jd, Td 2c 3c 4h, PAIR", // a royal flush in hold'em
+            "Td 9h 8s, 7c 6d 2c 2h, STRAIGHT",
+            "Td 9h 8s 3d, Jc 2d 2c 2h, PAIR",
+            "7d 6d 5d 4d 3d, 8d 9d Ac Ah, STRAIGHT_FLUSH",
+            "Ad Ah As Kc 2d, Ac 7s 4d 3h, FOUR_OF_A_KIND"
+    })
+    public void testTwoFromHandThreeFromBoard(String board, String holeCards, HandType handType) {
+        int rank = OmahaEvaluator.getRank(CardSet.parse(board), CardSet.parse(holeCards));
+        assertEquals(handType, HandRanks.getHandType(rank));
+    }
+
+    @Test
+    public void testCardCounts() {
+        long holeCards = CardSet.parse("Ah Kh Qh Jh");
+        assertThrows(IllegalArgumentException.class, () -> OmahaEvaluator.getRank(CardSet.parse("2c 3c"), holeCards));
+        assertThrows(IllegalArgumentException.class,
+                () -> OmahaEvaluator.getRank(CardSet.parse("2c 3c 4c 5c 6c 7c"), holeCards));
+        assertThrows(IllegalArgumentException.class,
+                () -> OmahaEvaluator.getRank(CardSet.parse("2c 3c 4c"), CardSet.parse("Ah Kh Qh")));
+        assertThrows(IllegalArgumentException.class,
+                () -> OmahaEvaluator.getRank(CardSet.parse("2c 3c Ah"), holeCards));
+    }
+
+    private static int bestTwoPlusThree(long board, long holeCards) {
+        int best = 0;
+        for (long i = holeCards; i != 0; i = CardSet.removeFirst(i)) {
+            for (long j = CardSet.removeFirst(i); j != 0; j = CardSet.removeFirst(j)) {
+                long pair = CardSet.of(CardSet.first(i), CardSet.first(j));
+                for (long a = board; a != 0; a = CardSet.removeFirst(a)) {
+                    for (long b = CardSet.removeFirst(a); b != 0; b = CardSet.removeFirst(b)) {
+                        for (long c = CardSet.removeFirst(b); c != 0; c = CardSet.removeFirst(c)) {
+                            long hand = pair | CardSet.of(CardSet.first(a), CardSet.first(b), CardSet.first(c));
+                            best = Math.max(best, BitmaskEvaluator.getRank(hand));
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,223 @@
+package com.twb.pokerapp.service.eval;
+
+import com.twb.pokerapp.service.game.CardSet;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+import static com.twb.pokerapp.service.eval.PreflopMatchupTable.HANDS;
+import static com.twb.pokerapp.service.eval.PreflopMatchupTable.HEADER_BYTES;
+import static com.twb.pokerapp.service.eval.PreflopMatchupTable.SCALE;
+import static com.twb.pokerapp.service.eval.PreflopMatchupTable.TABLE_BYTES;
+import static com.twb.pokerapp.service.eval.PreflopMatchupTable.THREE_WAY_MATCHUPS;
+
+/**
+ * Regenerates the {@link PreflopMatchupTable} by sampling every matchup, run manually (from the api
+ * directory) whenever the layout changes. Each matchup is sampled from its own fixed seed, so the same
+ * sample counts always give the same file.
+ * <pre>
+ * java -cp target/test-classes:target/classes com.twb.pokerapp.service.eval.PreflopMatchupTableGenerator [headsUpSamples] [threeWaySamples] [output]
+ * </pre>
+ * Three-way matchups that cannot be dealt, such as three pocket pairs of the same rank, are left at zero.
+ */
+public class PreflopMatchupTableGenerator {
+    private static final long SEED = 0x5EED_F10BL;
+    private static final int MAX_DEAL_ATTEMPTS = 1 << 20;
+
+    private static final long[][] COMBOS = new long[HANDS][];
+    private static final int[][] RANK_COUNTS = new int[HANDS][CardSet.RANKS];
+
+    static {
+        for (int high = 0; high < CardSet.RANKS; high++) {
+            for (int low = 0; low <= high; low++) {
+                addCombos(high, low, true);
+                if (high != low) {
+                    addCombos(high, low, false);
+                }
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int headsUpSamples = args.length >= 1 ? Integer.parseInt(args[0]) : 100_000;
+        int threeWaySamples = args.length >= 2 ? Integer.parseInt(args[1]) : 1_000;
+        Path output = Path.of(args.length >= 3 ? args[2] : "src/main/resources/" + PreflopMatchupTable.TABLE_RESOURCE);
+
+        ByteBuffer data = ByteBuffer.allocate((int) (TABLE_BYTES - HEADER_BYTES));
+        long start = System.nanoTime();
+        IntStream.range(0, HANDS).parallel().forEach(hand -> {
+            for (int opponent = hand; opponent < HANDS; opponent++) {
+                sampleHeadsUp(hand, opponent, headsUpSamples, data);
+            }
+        });
+        System.out.printf("heads-up done in %ds%n", (System.nanoTime() - start) / 1_000_000_000);
+        IntStream.range(0, HANDS).parallel().forEach(high -> {
+            for (int middle = 0; middle <= high; middle++) {
+                for (int low = 0; low <= middle; low++) {
+                    sampleThreeWay(low, middle, high, threeWaySamples, data);
+                }
+            }
+        });
+        System.out.printf("three-way done in %ds%n", (System.nanoTime() - start) / 1_000_000_000);
+
+        CRC32 crc = new CRC32();
+        crc.update(data.array());
+        Files.createDirectories(output.getParent());
+        try (OutputStream file = Files.newOutputStream(output);
+             DataOutputStream out = new DataOutputStream(file)) {
+            out.writeInt(PreflopMatchupTable.MAGIC);
+            out.writeInt(PreflopMatchupTable.VERSION);
+            out.writeInt(HANDS);
+            out.writeInt(headsUpSamples);
+            out.writeInt(threeWaySamples);
+            out.writeInt((int) crc.getValue());
+            out.write(data.array());
+        }
+        System.out.printf("wrote %s (%d bytes, crc %08x)%n", output, Files.size(output), crc.getValue());
+    }
+
+    private static void sampleHeadsUp(int hand, int opponent, int samples, ByteBuffer data) {
+        SplittableRandom random = new SplittableRandom(SEED ^ (hand * HANDS + opponent));
+        int[] hands = {hand, opponent};
+        long[] holeCards = new long[2];
+        long wins = 0;
+        long losses = 0;
+        for (int sample = 0; sample < samples; sample++) {
+            long board = deal(hands, holeCards, random);
+            int rank = BitmaskEvaluator.getRank(board | holeCards[0]);
+            int opponentRank = BitmaskEvaluator.getRank(board | holeCards[1]);
+            if (rank > opponentRank) {
+                wins++;
+            } else if (rank < opponentRank) {
+                losses++;
+            }
+        }
+        long ties = samples - wins - losses;
+        putChance(data, headsUpIndex(hand, opponent), wins, samples);
+        putChance(data, headsUpIndex(hand, opponent) + Character.BYTES, ties, samples);
+        putChance(data, headsUpIndex(opponent, hand), losses, samples);
+        putChance(data, headsUpIndex(opponent, hand) + Character.BYTES, ties, samples);
+    }
+
+    private static void sampleThreeWay(int low, int middle, int high, int samples, ByteBuffer data) {
+        int[] hands = {low, middle, high};
+        int index = HANDS * HANDS * PreflopMatchupTable.HEADS_UP_ENTRY_BYTES
+                + PreflopMatchupTable.threeWayIndex(low, middle, high) * PreflopMatchupTable.THREE_WAY_ENTRY_BYTES;
+        if (!canDeal(hands)) {
+            return;
+        }
+        SplittableRandom random = new SplittableRandom(SEED ^ ((long) THREE_WAY_MATCHUPS << 20)
+                ^ PreflopMatchupTable.threeWayIndex(low, middle, high));
+        long[] holeCards = new long[3];
+        int[] ranks = new int[3];
+        long[] shares = new long[3]; // in sixths of a pot, so two and three way splits stay exact
+        for (int sample = 0; sample < samples; sample++) {
+            long board = deal(hands, holeCards, random);
+            int best = 0;
+            int winners = 0;
+            for (int hand = 0; hand < 3; hand++) {
+                ranks[hand] = BitmaskEvaluator.getRank(board | holeCards[hand]);
+                if (ranks[hand] > best) {
+                    best = ranks[hand];
+                    winners = 1;
+                } else if (ranks[hand] == best) {
+                    winners++;
+                }
+            }
+            for (int hand = 0; hand < 3; hand++) {
+                if (ranks[hand] == best) {
+                    shares[hand] += 6 / winners;
+                }
+            }
+        }
+        for (int hand = 0; hand < 3; hand++) {
+            putChance(data, index + hand * Character.BYTES, shares[hand], 6L * samples);
+        }
+    }
+
+    // *****************************************************************************************
+    // Dealing
+    // *****************************************************************************************
+
+    /**
+     * Deals a random combo of each starting hand, redealing on conflicts so every possible deal is
+     * equally likely, then a random board from the rest of the deck.
+     */
+    private static long deal(int[] hands, long[] holeCards, SplittableRandom random) {
+        long dealt = dealHoleCards(hands, holeCards, random);
+        for (int attempt = 1; dealt == CardSet.EMPTY; attempt++) {
+            if (attempt > MAX_DEAL_ATTEMPTS) {
+                throw new IllegalStateException("Cannot deal hands " + Arrays.toString(hands));
+            }
+            dealt = dealHoleCards(hands, holeCards, random);
+        }
+        long board = CardSet.EMPTY;
+        while (CardSet.size(board) < HandBatch.BOARD_SIZE) {
+            int card = random.nextInt(CardSet.DECK_SIZE);
+            if (!CardSet.contains(dealt, card)) {
+                board = CardSet.with(board, card);
+                dealt = CardSet.with(dealt, card);
+            }
+        }
+        return board;
+    }
+
+    private static long dealHoleCards(int[] hands, long[] holeCards, SplittableRandom random) {
+        long dealt = CardSet.EMPTY;
+        for (int hand = 0; hand < hands.length; hand++) {
+            long[] combos = COMBOS[hands[hand]];
+            holeCards[hand] = combos[random.nextInt(combos.length)];
+            if (CardSet.intersects(dealt, holeCards[hand])) {
+                return CardSet.EMPTY;
+            }
+            dealt = CardSet.union(dealt, holeCards[hand]);
+        }
+        return dealt;
+    }
+
+    private static boolean canDeal(int[] hands) {
+        int[] needed = new int[CardSet.RANKS];
+        for (int hand : hands) {
+            for (int rank = 0; rank < CardSet.RANKS; rank++) {
+                needed[rank] += RANK_COUNTS[hand][rank];
+                if (needed[rank] > CardSet.SUITS) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static void addCombos(int high, int low, boolean suited) {
+        int hand = PreflopMatchupTable.getHandIndex(high, low, suited);
+        long[] combos = new long[high == low ? 6 : suited ? 4 : 12];
+        int count = 0;
+        for (int first = 0; first < CardSet.SUITS; first++) {
+            for (int second = 0; second < CardSet.SUITS; second++) {
+                if ((high == low && second <= first) || (high != low && suited != (first == second))) {
+                    continue;
+                }
+                combos[count++] = CardSet.of(high * CardSet.SUITS + first, low * CardSet.SUITS + second);
+            }
+        }
+        COMBOS[hand] = combos;
+        RANK_COUNTS[hand][high]++;
+        RANK_COUNTS[hand][low]++;
+    }
+
+    private static int headsUpIndex(int hand, int opponent) {
+        return (hand * HANDS + opponent) * PreflopMatchupTable.HEADS_UP_ENTRY_BYTES;
+    }
+
+    private static void putChance(ByteBuffer data, int index, long count, long total) {
+        data.putChar(index, (char) Math.round(count * SCALE / total));
+    }
+}
@@ -0,0 +1,95 @@
+package com.twb.pokerapp.service.eval;
+
+import com.twb.pokerapp.service.game.CardSet;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PreflopMatchupTableTest {
+
+    private static PreflopMatchupTable table;
+
+    @BeforeAll
+    public static void setUp() {
+        table = createTable("");
+    }
+
+    @ParameterizedTest(name = "{0} => {1}")
+    @CsvSource({"22, 0", "AA, 168", "32s, 13", "32o, 1", "AKs, 167", "KAo, 155", "ak, -1"})
+    public void testHandIndex(String hand, int index) {
+        if (index < 0) {
+            assertThrows(IllegalArgumentException.class, () -> PreflopMatchupTable.getHandIndex(hand));
+        } else {
+            assertEquals(index, PreflopMatchupTable.getHandIndex(hand));
+        }
+    }
+
+    @Test
+    public void testHandIndexCoversEveryCombo() {
+        Set<Integer> indexes = new HashSet<>();
+        for (int first = 0; first < CardSet.DECK_SIZE; first++) {
+            for (int second = first + 1; second < CardSet.DECK_SIZE; second++) {
+                indexes.add(PreflopMatchupTable.getHandIndex(CardSet.of(first, second)));
+            }
+        }
+        assertEquals(PreflopMatchupTable.HANDS, indexes.size());
+        assertEquals(PreflopMatchupTable.getHandIndex("AKs"), PreflopMatchupTable.getHandIndex(CardSet.parse("AhKh")));
+        assertEquals(PreflopMatchupTable.getHandIndex("AKo"), PreflopMatchupTable.getHandIndex(CardSet.parse("AhKs")));
+    }
+
+    @ParameterizedTest(name = "{0} vs {1}")
+    @CsvSource({"AA, KK, 0.82", "AKs, QQ, 0.46", "AKo, 72o, 0.67", "JTs, 22, 0.54"})
+    public void testHeadsUpEquity(String hand, String opponent, double equity) {
+        int first = PreflopMatchupTable.getHandIndex(hand);
+        int second = PreflopMatchupTable.getHandIndex(opponent);
+        assertEquals(equity, table.getHeadsUpEquity(first, second), 0.01);
+        assertEquals(1, table.getHeadsUpEquity(first, second) + table.getHeadsUpEquity(second, first), 0.001);
+        assertEquals(table.getHeadsUpTie(first, second), table.getHeadsUpTie(second, first));
+    }
+
+    @Test
+    public void testThreeWayEquity() {
+        int aces = PreflopMatchupTable.getHandIndex("AA");
+        int kings = PreflopMatchupTable.getHandIndex("KK");
+        int queens = PreflopMatchupTable.getHandIndex("QQ");
+
+        assertEquals(0.67, table.getThreeWayEquity(aces, kings, queens), 0.03);
+        assertEquals(table.getThreeWayEquity(aces, kings, queens), table.getThreeWayEquity(aces, queens, kings));
+        assertEquals(1, table.getThreeWayEquity(aces, kings, queens) + table.getThreeWayEquity(kings, aces, queens)
+                + table.getThreeWayEquity(queens, kings, aces), 0.001);
+        assertEquals(0, table.getThreeWayEquity(aces, aces, aces));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {PreflopMatchupTable.HEADER_BYTES - 1, PreflopMatchupTable.HEADER_BYTES + 12345})
+    public void testCorruptTableIsRejected(int offset, @TempDir Path directory) throws IOException {
+        byte[] bytes;
+        try (InputStream resource = getClass().getClassLoader().getResourceAsStream(PreflopMatchupTable.TABLE_RESOURCE)) {
+            bytes = resource.readAllBytes();
+        }
+        bytes[offset] ^= 1;
+        Path path = Files.write(directory.resolve("corrupt.table"), bytes);
+
+        assertThrows(IllegalStateException.class, () -> createTable(path.toString()));
+    }
+
+    private static PreflopMatchupTable createTable(String path) {
+        PreflopMatchupTable table = new PreflopMatchupTable();
+        ReflectionTestUtils.setField(table, "tablePath", path);
+        table.init();
+        return table;
+    }
+}
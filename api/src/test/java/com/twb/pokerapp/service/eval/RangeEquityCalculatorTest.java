@@ -0,0 +1,87 @@
+package com.twb.pokerapp.service.eval;
+
+import com.twb.pokerapp.service.eval.dto.EquityDTO;
+import com.twb.pokerapp.service.eval.dto.RangeEquityDTO;
+import com.twb.pokerapp.service.game.CardSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RangeEquityCalculatorTest {
+
+    private RangeEquityCalculator calculator;
+
+    @BeforeEach
+    public void setUp() {
+        calculator = new RangeEquityCalculator(new JavaRankEvaluator());
+        ReflectionTestUtils.setField(calculator, "exhaustiveLimit", 2_000_000_000L);
+        ReflectionTestUtils.setField(calculator, "samples", 20_000);
+        ReflectionTestUtils.setField(calculator, "budgetMs", 60_000L);
+        ReflectionTestUtils.setField(calculator, "cacheSize", 16);
+        ReflectionTestUtils.setField(calculator, "maxConcurrent", 4);
+        calculator.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        calculator.destroy();
+    }
+
+    @Test
+    public void testSingleCombosMatchEquityCalculator() {
+        long board = CardSet.parse("2c 7d 9h");
+        long aces = CardSet.parse("AcAd");
+        long kings = CardSet.parse("KhKs");
+
+        RangeEquityDTO range = calculator.calculate(board, new long[]{aces}, new long[]{kings}).join();
+
+        EquityCalculator equityCalculator = new EquityCalculator(new JavaRankEvaluator());
+        ReflectionTestUtils.setField(equityCalculator, "exhaustiveLimit", Long.MAX_VALUE);
+        ReflectionTestUtils.setField(equityCalculator, "cacheSize", 16);
+        equityCalculator.init();
+        try {
+            EquityDTO hands = equityCalculator.calculate(board, new long[]{aces, kings}).join();
+            assertTrue(range.isExhaustive());
+            assertEquals(hands.getSamples(), range.getMatchups()); // runouts using a hole card are skipped
+            assertEquals(hands.getWins()[0], range.getFirstWins());
+            assertEquals(hands.getWins()[1], range.getSecondWins());
+            assertEquals(hands.getTies()[0], range.getTies());
+        } finally {
+            equityCalculator.destroy();
+        }
+    }
+
+    @Test
+    public void testBlockedMatchupsAreSkipped() {
+        long[] aces = HandRange.parse("AA");
+        long[] aceKing = HandRange.parse("AKs");
+
+        RangeEquityDTO equity = calculator.calculate(CardSet.parse("Kh 7d 2c 3s 9h"), aces, aceKing).join();
+
+        // the board blocks AhKh, each aces combo blocks the AKs combos left in its suits
+        assertEquals(1, equity.getRunouts());
+        assertEquals(2 + 1 + 1 + 2 + 2 + 1, equity.getMatchups());
+        assertEquals(equity.getMatchups(), equity.getFirstWins());
+    }
+
+    @Test
+    public void testSampledMatchesExhaustive() {
+        long board = CardSet.parse("Qs Jh 4d");
+        long[] first = HandRange.parse("TT+, AQs+");
+        long[] second = HandRange.parse("KQ, QJs, 44");
+        RangeEquityDTO exhaustive = calculator.calculate(board, first, second).join();
+
+        ReflectionTestUtils.setField(calculator, "exhaustiveLimit", 0L);
+        RangeEquityDTO sampled = calculator.calculate(board, first, second).join();
+        assertTrue(exhaustive.isExhaustive());
+        assertSame(sampled, calculator.calculate(board, first, second).join(), "cached");
+
+        ReflectionTestUtils.setField(calculator, "cacheSize", 0);
+        sampled = calculator.calculate(CardSet.with(board, CardSet.parseRank('2') * CardSet.SUITS), first, second).join();
+        assertFalse(sampled.isExhaustive());
+        assertTrue(sampled.getWin(0) > 0 && sampled.getWin(0) < 1);
+    }
+}
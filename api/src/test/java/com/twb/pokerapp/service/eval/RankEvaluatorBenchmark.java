@@ -0,0 +1,158 @@
+package com.twb.pokerapp.service.eval;
+
+import com.twb.pokerapp.service.game.CardSet;
+
+import java.util.SplittableRandom;
+
+/**
+ * Compares {@link JavaRankEvaluator} with the JNI {@link NativeRankEvaluator}, run manually rather
+ * than as part of the test suite. Needs {@code EVALUATOR_SO_PATH} pointing at the native evaluator.
+ * <p>
+ * First checks that both return the same rank for every one of the 133,784,560 seven card hands,
+ * then times each over the same random hands, alternating rounds so both get the same JIT warm up.
+ * The batch columns rank the same hands as six handed showdowns, sharing each board's work.
+ * <pre>
+ * java -cp target/test-classes:target/classes:... \
+ *     com.twb.pokerapp.service.eval.RankEvaluatorBenchmark [hands] [rounds] [exhaustive|skip]
+ * </pre>
+ */
+public class RankEvaluatorBenchmark {
+    private static final int SHOWDOWN_SEATS = 6;
+    private static final int SHOWDOWN_CARDS = HandBatch.BOARD_SIZE + SHOWDOWN_SEATS * HandBatch.HOLE_CARDS;
+    private static final int SHOWDOWN_SETS = 1 + SHOWDOWN_SEATS; // board then each seat's hole cards
+
+    public static void main(String[] args) {
+        int hands = args.length >= 1 ? Integer.parseInt(args[0]) : 1_000_000;
+        int rounds = args.length >= 2 ? Integer.parseInt(args[1]) : 10;
+        boolean exhaustive = args.length < 3 || "exhaustive".equalsIgnoreCase(args[2]);
+
+        RankEvaluator java = new JavaRankEvaluator();
+        RankEvaluator nativeEvaluator = new NativeRankEvaluator();
+
+        if (exhaustive) {
+            long start = System.nanoTime();
+            long checked = checkAllHands(java, nativeEvaluator);
+            System.out.printf("parity: %d hands identical in %dms%n", checked, (System.nanoTime() - start) / 1_000_000);
+        }
+
+        int[] cards = randomHands(hands, new SplittableRandom(42));
+        long[] showdowns = randomShowdowns(hands / SHOWDOWN_SEATS, new SplittableRandom(42));
+        System.out.printf("%6s %14s %14s %14s %14s%n",
+                "round", "java(ns/hand)", "native(ns/hand)", "java-batch", "native-batch");
+        for (int round = 1; round <= rounds; round++) {
+            long javaNanos = time(java, cards);
+            long nativeNanos = time(nativeEvaluator, cards);
+            long javaBatchNanos = timeBatches(java, showdowns);
+            long nativeBatchNanos = timeBatches(nativeEvaluator, showdowns);
+            int showdownHands = showdowns.length / SHOWDOWN_SETS * SHOWDOWN_SEATS;
+            System.out.printf("%6d %14.1f %14.1f %14.1f %14.1f%n", round,
+                    (double) javaNanos / hands, (double) nativeNanos / hands,
+                    (double) javaBatchNanos / showdownHands, (double) nativeBatchNanos / showdownHands);
+        }
+    }
+
+    private static long checkAllHands(RankEvaluator expected, RankEvaluator actual) {
+        int deck = RankEvaluator.DECK_SIZE;
+        long checked = 0;
+        for (int i = 0; i < deck; i++) {
+            for (int j = i + 1; j < deck; j++) {
+                for (int k = j + 1; k < deck; k++) {
+                    for (int m = k + 1; m < deck; m++) {
+                        for (int n = m + 1; n < deck; n++) {
+                            for (int p = n + 1; p < deck; p++) {
+                                for (int q = p + 1; q < deck; q++) {
+                                    int expectedRank = expected.getRank(i, j, k, m, n, p, q);
+                                    int actualRank = actual.getRank(i, j, k, m, n, p, q);
+                                    if (expectedRank != actualRank) {
+                                        throw new IllegalStateException(String.format(
+                                                "Rank mismatch for %d %d %d %d %d %d %d: %d != %d",
+                                                i, j, k, m, n, p, q, expectedRank, actualRank));
+                                    }
+                                    checked++;
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return checked;
+    }
+
+    private static int[] randomHands(int hands, SplittableRandom random) {
+        int[] cards = new int[hands * RankEvaluator.HAND_SIZE];
+        int[] deck = new int[RankEvaluator.DECK_SIZE];
+        for (int hand = 0; hand < hands; hand++) {
+            for (int card = 0; card < deck.length; card++) {
+                deck[card] = card;
+            }
+            for (int card = 0; card < RankEvaluator.HAND_SIZE; card++) {
+                int swap = card + random.nextInt(deck.length - card);
+                int picked = deck[swap];
+                deck[swap] = deck[card];
+                deck[card] = picked;
+                cards[hand * RankEvaluator.HAND_SIZE + card] = picked;
+            }
+        }
+        return cards;
+    }
+
+    private static long[] randomShowdowns(int showdowns, SplittableRandom random) {
+        long[] sets = new long[showdowns * SHOWDOWN_SETS];
+        int[] deck = new int[CardSet.DECK_SIZE];
+        for (int showdown = 0; showdown < showdowns; showdown++) {
+            for (int card = 0; card < deck.length; card++) {
+                deck[card] = card;
+            }
+            for (int card = 0; card < SHOWDOWN_CARDS; card++) {
+                int swap = card + random.nextInt(deck.length - card);
+                int picked = deck[swap];
+                deck[swap] = deck[card];
+                deck[card] = picked;
+            }
+            int offset = showdown * SHOWDOWN_SETS;
+            sets[offset] = CardSet.of(deck[0], deck[1], deck[2], deck[3], deck[4]);
+            for (int seat = 0; seat < SHOWDOWN_SEATS; seat++) {
+                int card = HandBatch.BOARD_SIZE + seat * HandBatch.HOLE_CARDS;
+                sets[offset + 1 + seat] = CardSet.of(deck[card], deck[card + 1]);
+            }
+        }
+        return sets;
+    }
+
+    private static long timeBatches(RankEvaluator evaluator, long[] showdowns) {
+        HandBatch batch = new HandBatch(SHOWDOWN_SEATS);
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (int offset = 0; offset < showdowns.length; offset += SHOWDOWN_SETS) {
+            batch.clear();
+            batch.setBoard(showdowns[offset]);
+            for (int seat = 1; seat <= SHOWDOWN_SEATS; seat++) {
+                batch.addHand(showdowns[offset + seat]);
+            }
+            evaluator.evaluate(batch);
+            for (int hand = 0; hand < batch.size(); hand++) {
+                checksum += batch.getRank(hand);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (checksum == 0) {
+            throw new IllegalStateException("No hands evaluated");
+        }
+        return elapsed;
+    }
+
+    private static long time(RankEvaluator evaluator, int[] cards) {
+        long start = System.nanoTime();
+        long checksum = 0;
+        for (int offset = 0; offset < cards.length; offset += RankEvaluator.HAND_SIZE) {
+            checksum += evaluator.getRank(cards[offset], cards[offset + 1], cards[offset + 2],
+                    cards[offset + 3], cards[offset + 4], cards[offset + 5], cards[offset + 6]);
+        }
+        long elapsed = System.nanoTime() - start;
+        if (checksum == 0) {
+            throw new IllegalStateException("No hands evaluated");
+        }
+        return elapsed;
+    }
+}
@@ -0,0 +1,76 @@
+package com.twb.pokerapp.service.eval;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Regenerates the lookup tables used by {@link JavaRankEvaluator} from the SKPokerEval headers in
+ * {@code src/main/cpp}, run manually (from the api directory) whenever the headers change.
+ * <pre>
+ * java -cp target/test-classes com.twb.pokerapp.service.eval.SevenEvalTableGenerator [cppDir] [output]
+ * </pre>
+ */
+public class SevenEvalTableGenerator {
+    private static final Pattern ARRAY_BODY = Pattern.compile("=\\s*\\{([^}]*)}");
+
+    public static void main(String[] args) throws IOException {
+        Path cppDir = Path.of(args.length >= 1 ? args[0] : "src/main/cpp");
+        Path output = Path.of(args.length >= 2 ? args[1] : "src/main/resources/" + JavaRankEvaluator.TABLES_RESOURCE);
+
+        int[] flushCheck = readArray(cppDir.resolve("FlushCheck.h"), "flush_check", 400);
+        int[] flushRanks = readArray(cppDir.resolve("FlushRanks.h"), "flush_ranks", 8129);
+        int[] offsets = readArray(cppDir.resolve("RankOffsets.h"), "offsets", 16384);
+        int[] rankHash = readArray(cppDir.resolve("RankHash.h"), "rank_hash", 42077);
+
+        Files.createDirectories(output.getParent());
+        try (OutputStream file = Files.newOutputStream(output);
+             DataOutputStream out = new DataOutputStream(file)) {
+            writeTable(out, flushCheck, true);
+            writeTable(out, flushRanks, false);
+            writeTable(out, offsets, false);
+            writeTable(out, rankHash, false);
+        }
+        System.out.printf("wrote %s (%d bytes)%n", output, Files.size(output));
+    }
+
+    private static int[] readArray(Path header, String name, int expectedLength) throws IOException {
+        String source = Files.readString(header);
+        int declaration = source.indexOf(" " + name + "[");
+        if (declaration < 0) {
+            throw new IllegalStateException("No array " + name + " in " + header);
+        }
+        Matcher matcher = ARRAY_BODY.matcher(source);
+        if (!matcher.find(declaration)) {
+            throw new IllegalStateException("No initializer for " + name + " in " + header);
+        }
+        String body = matcher.group(1).strip();
+        if (body.endsWith(",")) {
+            body = body.substring(0, body.length() - 1).strip();
+        }
+        String[] values = body.split("\\s*,\\s*", -1);
+        if (values.length != expectedLength) {
+            throw new IllegalStateException(name + " has " + values.length + " values, expected " + expectedLength);
+        }
+        int[] array = new int[values.length];
+        for (int index = 0; index < values.length; index++) {
+            array[index] = Integer.parseInt(values[index]);
+        }
+        return array;
+    }
+
+    private static void writeTable(DataOutputStream out, int[] table, boolean signedBytes) throws IOException {
+        out.writeInt(table.length);
+        for (int value : table) {
+            if (signedBytes) {
+                out.writeByte(value);
+            } else {
+                out.writeShort(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.twb.pokerapp.service.game;
+
+import com.twb.pokerapp.domain.Card;
+import com.twb.pokerapp.domain.enumeration.RankType;
+import com.twb.pokerapp.domain.enumeration.SuitType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CardSetTest {
+
+    @Test
+    public void testDeckRoundTrip() {
+        List<Card> deck = DeckOfCardsFactory.getCards(false);
+        assertEquals(CardSet.FULL_DECK, CardSet.of(deck));
+        assertEquals(CardSet.DECK_SIZE, CardSet.size(CardSet.FULL_DECK));
+
+        for (Card card : deck) {
+            int value = CardSet.card(card.getRankType(), card.getSuitType());
+            assertEquals(card.getRankValue(), value);
+            assertEquals(value, CardSet.cardAt(CardSet.bitOf(value)));
+
+            Card entity = CardSet.toCard(value);
+            assertEquals(card.getRankType(), entity.getRankType());
+            assertEquals(card.getSuitType(), entity.getSuitType());
+            assertEquals(card.getRankValue(), entity.getRankValue());
+        }
+    }
+
+    @Test
+    public void testIteration() {
+        long set = CardSet.FULL_DECK;
+        int count = 0;
+        for (long rest = set; rest != 0; rest = CardSet.removeFirst(rest)) {
+            set = CardSet.without(set, CardSet.first(rest));
+            count++;
+        }
+        assertEquals(CardSet.DECK_SIZE, count);
+        assertTrue(CardSet.isEmpty(set));
+    }
+
+    @Test
+    public void testProjections() {
+        int aceOfHearts = CardSet.card(RankType.ACE, SuitType.HEARTS);
+        int deuceOfHearts = CardSet.card(RankType.DEUCE, SuitType.HEARTS);
+        int deuceOfClubs = CardSet.card(RankType.DEUCE, SuitType.CLUBS);
+        long set = CardSet.of(aceOfHearts, deuceOfHearts, deuceOfClubs);
+
+        assertTrue(CardSet.contains(set, aceOfHearts));
+        assertFalse(CardSet.contains(set, CardSet.card(RankType.ACE, SuitType.SPADES)));
+        assertEquals(0b1_0000_0000_0001, CardSet.suitRanks(set, SuitType.HEARTS.getPosition()));
+        assertEquals(0b1, CardSet.suitRanks(set, SuitType.CLUBS.getPosition()));
+        assertEquals(0, CardSet.suitRanks(set, SuitType.SPADES.getPosition()));
+        assertEquals(0b1_0000_0000_0001, CardSet.ranks(set));
+        assertEquals("[2h, ah, 2c]", CardSet.toString(set));
+    }
+}
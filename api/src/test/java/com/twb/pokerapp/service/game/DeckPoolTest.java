@@ -0,0 +1,73 @@
+package com.twb.pokerapp.service.game;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeckPoolTest {
+    private static final int POOL_SIZE = 64;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private DeckPool deckPool;
+
+    @BeforeEach
+    public void setUp() {
+        deckPool = new DeckPool(meterRegistry);
+        ReflectionTestUtils.setField(deckPool, "size", POOL_SIZE);
+        ReflectionTestUtils.setField(deckPool, "seedBatch", 16);
+        deckPool.init();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        deckPool.destroy();
+    }
+
+    @Test
+    public void testPooledDecksReplayFromTheirSeed() throws InterruptedException {
+        awaitDepth(POOL_SIZE);
+        assertEquals(POOL_SIZE, meterRegistry.get("poker.deck.pool.depth").gauge().value());
+
+        Set<Long> seeds = new HashSet<>();
+        Deck deck = new Deck();
+        Deck replay = new Deck();
+        for (int index = 0; index < POOL_SIZE * 4; index++) {
+            while (!deckPool.take(deck)) {
+                Thread.onSpinWait();
+            }
+            assertTrue(seeds.add(deck.getSeed()));
+            replay.shuffle(deck.getSeed());
+            while (deck.remaining() > 0) {
+                assertEquals(replay.next(), deck.next());
+            }
+        }
+        assertTrue(meterRegistry.get("poker.deck.pool.refills").counter().count() >= POOL_SIZE * 4);
+    }
+
+    @Test
+    public void testEmptyPoolCountsStarvation() {
+        deckPool.destroy();
+        Deck deck = new Deck();
+        while (deckPool.take(deck)) {
+            deck.next();
+        }
+        assertFalse(deckPool.take(deck));
+        assertEquals(0, deckPool.getDepth());
+        assertEquals(2, meterRegistry.get("poker.deck.pool.starvations").counter().count());
+    }
+
+    private void awaitDepth(int depth) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (deckPool.getDepth() < depth && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+}
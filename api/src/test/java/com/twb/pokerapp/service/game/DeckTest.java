@@ -0,0 +1,53 @@
+package com.twb.pokerapp.service.game;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeckTest {
+
+    @Test
+    public void testShuffleIsAPermutation() {
+        Deck deck = new Deck();
+        deck.shuffle(42);
+        long dealt = CardSet.EMPTY;
+        while (deck.remaining() > 0) {
+            dealt = CardSet.with(dealt, deck.next());
+        }
+        assertEquals(CardSet.FULL_DECK, dealt);
+        assertThrows(IllegalStateException.class, deck::next);
+    }
+
+    @Test
+    public void testSameSeedReplaysTheSameOrder() {
+        Deck deck = new Deck();
+        Deck replay = new Deck();
+        deck.shuffle(-7L);
+        deck.shuffle(123456789L); // reshuffling must not depend on the previous order
+        replay.shuffle(123456789L);
+
+        assertEquals(123456789L, deck.getSeed());
+        while (deck.remaining() > 0) {
+            assertEquals(replay.next(), deck.next());
+        }
+    }
+
+    @Test
+    public void testEveryCardReachesEveryPosition() {
+        int shuffles = 52_000;
+        int[][] counts = new int[CardSet.DECK_SIZE][CardSet.DECK_SIZE];
+        Deck deck = new Deck();
+        for (long seed = 0; seed < shuffles; seed++) {
+            deck.shuffle(seed);
+            for (int position = 0; position < CardSet.DECK_SIZE; position++) {
+                counts[position][deck.next()]++;
+            }
+        }
+        int expected = shuffles / CardSet.DECK_SIZE;
+        for (int[] position : counts) {
+            for (int count : position) {
+                assertTrue(Math.abs(count - expected) < expected / 5, "count " + count + " expected ~" + expected);
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.twb.pokerapp.service.game;
+
+import com.twb.pokerapp.domain.Card;
+import com.twb.pokerapp.domain.enumeration.CardType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PackedCardsTest {
+
+    @Test
+    public void testKeepsDealingOrder() {
+        int[] board = {51, 0, 17, 33, 8};
+        int packed = PackedCards.EMPTY;
+        for (int index = 0; index < board.length; index++) {
+            assertEquals(index, PackedCards.size(packed));
+            packed = PackedCards.add(packed, board[index]);
+        }
+        assertTrue(packed > 0);
+        assertEquals(PackedCards.MAX_CARDS, PackedCards.size(packed));
+        assertEquals(CardSet.of(board), PackedCards.toCardSet(packed));
+
+        List<Card> cards = PackedCards.toCards(packed, CardType.BOARD_CARDS);
+        for (int index = 0; index < board.length; index++) {
+            assertEquals(board[index], PackedCards.get(packed, index));
+            assertEquals(board[index], cards.get(index).getRankValue());
+            assertEquals(CardType.BOARD_CARDS.get(index), cards.get(index).getCardType());
+        }
+    }
+
+    @Test
+    public void testLimits() {
+        assertEquals(0, PackedCards.size(PackedCards.EMPTY));
+        assertEquals(1, PackedCards.size(PackedCards.add(PackedCards.EMPTY, 0))); // card 0 is not an empty slot
+        assertThrows(IllegalArgumentException.class, () -> PackedCards.add(PackedCards.EMPTY, CardSet.DECK_SIZE));
+        assertThrows(IllegalArgumentException.class, () -> PackedCards.add(PackedCards.EMPTY, -1));
+
+        int full = PackedCards.EMPTY;
+        for (int card = 0; card < PackedCards.MAX_CARDS; card++) {
+            full = PackedCards.add(full, card);
+        }
+        int packed = full;
+        assertThrows(IllegalArgumentException.class, () -> PackedCards.add(packed, 10));
+    }
+}
@@ -0,0 +1,68 @@
+package com.twb.pokerapp.service.game.cluster;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableCommandLanesTest {
+    private static final UUID TABLE_1 = UUID.randomUUID();
+    private static final UUID TABLE_2 = UUID.randomUUID();
+
+    private final TableCommandLanes lanes = new TableCommandLanes();
+
+    @AfterEach
+    public void tearDown() {
+        lanes.destroy();
+    }
+
+    @Test
+    public void testCommandsForATableRunInOrder() throws InterruptedException {
+        List<Integer> applied = new CopyOnWriteArrayList<>();
+        CountDownLatch done = new CountDownLatch(1000);
+        for (int index = 0; index < 1000; index++) {
+            int command = index;
+            lanes.execute(TABLE_1, () -> {
+                applied.add(command);
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(10, TimeUnit.SECONDS));
+        assertEquals(IntStream.range(0, 1000).boxed().toList(), applied);
+    }
+
+    @Test
+    public void testBlockedTableDoesNotHoldUpOthers() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch otherApplied = new CountDownLatch(1);
+        List<String> applied = new CopyOnWriteArrayList<>();
+        lanes.execute(TABLE_1, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            applied.add("table 1 first");
+        });
+        lanes.execute(TABLE_1, () -> applied.add("table 1 second"));
+        lanes.execute(TABLE_2, () -> {
+            applied.add("table 2");
+            otherApplied.countDown();
+        });
+
+        assertTrue(otherApplied.await(10, TimeUnit.SECONDS));
+        assertEquals(List.of("table 2"), applied);
+        release.countDown();
+        CountDownLatch drained = new CountDownLatch(1);
+        lanes.execute(TABLE_1, drained::countDown);
+        assertTrue(drained.await(10, TimeUnit.SECONDS));
+        assertEquals(List.of("table 2", "table 1 first", "table 1 second"), applied);
+    }
+}
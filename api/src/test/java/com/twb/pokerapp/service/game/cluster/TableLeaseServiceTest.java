@@ -0,0 +1,94 @@
+package com.twb.pokerapp.service.game.cluster;
+
+import com.twb.pokerapp.repository.TableLeaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class TableLeaseServiceTest {
+    private static final String NODE_ID = "node-1";
+    private static final UUID TABLE_1 = UUID.randomUUID();
+    private static final UUID TABLE_2 = UUID.randomUUID();
+
+    private final TableLeaseRepository repository = mock(TableLeaseRepository.class);
+    private TableLeaseService service;
+
+    @BeforeEach
+    public void setUp() {
+        service = new TableLeaseService(repository, mock(PlatformTransactionManager.class));
+        ReflectionTestUtils.setField(service, "configuredNodeId", NODE_ID);
+        ReflectionTestUtils.setField(service, "leaseTtlMs", 15_000L);
+        ReflectionTestUtils.setField(service, "leaseSafetyMarginMs", 3_000L);
+        ReflectionTestUtils.setField(service, "ownerCacheMs", 2_000L);
+        service.init();
+        when(repository.acquire(any(), eq(NODE_ID), anyLong())).thenReturn(1);
+    }
+
+    @Test
+    public void testLeaseIsHeldUntilReleased() {
+        assertFalse(service.holdsLease(TABLE_1));
+        assertTrue(service.tryAcquire(TABLE_1));
+        assertTrue(service.holdsLease(TABLE_1));
+
+        service.release(TABLE_1);
+        assertFalse(service.holdsLease(TABLE_1));
+        verify(repository).release(TABLE_1, NODE_ID);
+    }
+
+    @Test
+    public void testLeaseIsNotHeldPastItsLocalDeadline() {
+        // no time left once the margin is taken off the TTL
+        ReflectionTestUtils.setField(service, "leaseSafetyMarginMs", 15_000L);
+        assertTrue(service.tryAcquire(TABLE_1));
+        assertTrue(service.isOwned(TABLE_1));
+        assertFalse(service.holdsLease(TABLE_1));
+    }
+
+    @Test
+    public void testRenewMovesDeadlinesOnAndDropsLostLeases() {
+        ReflectionTestUtils.setField(service, "leaseSafetyMarginMs", 15_000L);
+        service.tryAcquire(TABLE_1);
+        service.tryAcquire(TABLE_2);
+        ReflectionTestUtils.setField(service, "leaseSafetyMarginMs", 3_000L);
+        when(repository.findLiveTableIdsByOwnerNode(NODE_ID)).thenReturn(List.of(TABLE_1));
+
+        assertEquals(Set.of(TABLE_2), service.renew());
+        assertTrue(service.holdsLease(TABLE_1));
+        assertFalse(service.isOwned(TABLE_2));
+    }
+
+    @Test
+    public void testCachedOwnerIsEvictedWhenTheLeaseChangesHands() {
+        when(repository.findLiveOwnerNode(TABLE_1)).thenReturn(Optional.of("node-2"));
+        assertEquals(Optional.of("node-2"), service.findOwner(TABLE_1));
+        assertEquals(Optional.of("node-2"), service.findOwner(TABLE_1));
+        verify(repository, times(1)).findLiveOwnerNode(TABLE_1);
+
+        when(repository.findExpiredTableIds()).thenReturn(List.of(TABLE_1));
+        service.findExpiredTableIds();
+        when(repository.findLiveOwnerNode(TABLE_1)).thenReturn(Optional.of(NODE_ID));
+        assertEquals(Optional.of(NODE_ID), service.findOwner(TABLE_1));
+
+        service.evictOwner(TABLE_1);
+        when(repository.findLiveOwnerNode(TABLE_1)).thenReturn(Optional.of("node-3"));
+        assertEquals(Optional.of("node-3"), service.findOwner(TABLE_1));
+        verify(repository, times(3)).findLiveOwnerNode(TABLE_1);
+    }
+
+    @Test
+    public void testSafetyMarginMustBeLessThanTtl() {
+        ReflectionTestUtils.setField(service, "leaseSafetyMarginMs", 15_000L);
+        assertThrows(IllegalStateException.class, service::init);
+    }
+}
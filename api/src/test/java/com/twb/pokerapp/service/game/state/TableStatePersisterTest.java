@@ -0,0 +1,115 @@
+package com.twb.pokerapp.service.game.state;
+
+import com.twb.pokerapp.domain.Hand;
+import com.twb.pokerapp.domain.Round;
+import com.twb.pokerapp.domain.enumeration.HandType;
+import com.twb.pokerapp.domain.enumeration.RoundState;
+import com.twb.pokerapp.exception.game.LeaseLostException;
+import com.twb.pokerapp.service.game.cluster.TableLeaseService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TableStatePersisterTest {
+    private static final UUID TABLE_ID = UUID.randomUUID();
+
+    private final EntityManager entityManager = mock(EntityManager.class);
+    private final TableLeaseService leaseService = mock(TableLeaseService.class);
+    private TableStatePersister persister;
+    private Round round;
+
+    @BeforeEach
+    public void setUp() {
+        when(leaseService.holdsLease(TABLE_ID)).thenReturn(true);
+        persister = new TableStatePersister(entityManager, mock(PlatformTransactionManager.class), leaseService);
+        ReflectionTestUtils.setField(persister, "flushIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(persister, "batchSize", 50);
+        ReflectionTestUtils.setField(persister, "checkpoints", new RoundState[]{RoundState.FINISH});
+        persister.init();
+
+        round = new Round();
+        round.setId(UUID.randomUUID());
+        round.setRoundState(RoundState.INIT_DEAL);
+        round.setStartedAt(Instant.now());
+    }
+
+    @AfterEach
+    public void tearDown() {
+        persister.destroy();
+    }
+
+    @Test
+    public void testFlushWritesCopiesTakenOnWrite() {
+        Hand hand = new Hand();
+        hand.setRound(round);
+        persister.write(TABLE_ID, round);
+        persister.write(TABLE_ID, hand);
+        assertNotNull(hand.getId());
+        hand.setHandType(HandType.PAIR); // changed by the game thread after the write
+
+        persister.flush(TABLE_ID);
+        ArgumentCaptor<Object> persisted = ArgumentCaptor.forClass(Object.class);
+        verify(entityManager).persist(persisted.capture());
+        Hand written = (Hand) persisted.getValue();
+        assertNotSame(hand, written);
+        assertEquals(hand.getId(), written.getId());
+        assertNull(written.getHandType());
+        ArgumentCaptor<Object> merged = ArgumentCaptor.forClass(Object.class);
+        verify(entityManager).merge(merged.capture());
+        assertNotSame(round, merged.getValue());
+        assertEquals(round.getId(), ((Round) merged.getValue()).getId());
+
+        persister.write(TABLE_ID, hand);
+        persister.flush(TABLE_ID);
+        verify(entityManager).merge(argThat(entity -> entity instanceof Hand copy
+                && copy.getHandType() == HandType.PAIR));
+        verify(entityManager, times(1)).persist(any());
+    }
+
+    @Test
+    public void testFailedFlushIsRetried() {
+        Hand hand = new Hand();
+        hand.setRound(round);
+        persister.write(TABLE_ID, hand);
+        doThrow(new IllegalStateException("Database down")).doNothing().when(entityManager).persist(any());
+        assertThrows(IllegalStateException.class, () -> persister.flush(TABLE_ID));
+
+        hand.setWinner(true);
+        persister.write(TABLE_ID, hand);
+        persister.flush(TABLE_ID);
+        // still inserted rather than updated, with the latest state
+        verify(entityManager, times(2)).persist(any());
+        verify(entityManager).persist(argThat(entity -> entity instanceof Hand copy
+                && Boolean.TRUE.equals(copy.getWinner())));
+        verify(entityManager, never()).merge(any());
+    }
+
+    @Test
+    public void testFlushDropsWritesOnceLeaseIsNotHeld() {
+        persister.write(TABLE_ID, round);
+        when(leaseService.holdsLease(TABLE_ID)).thenReturn(false);
+        assertThrows(LeaseLostException.class, () -> persister.flush(TABLE_ID));
+
+        when(leaseService.holdsLease(TABLE_ID)).thenReturn(true);
+        persister.flush(TABLE_ID);
+        verifyNoInteractions(entityManager);
+    }
+
+    @Test
+    public void testDiscardDropsPendingWrites() {
+        persister.write(TABLE_ID, round);
+        persister.discard(TABLE_ID);
+        persister.flush(TABLE_ID);
+        verifyNoInteractions(entityManager);
+    }
+}
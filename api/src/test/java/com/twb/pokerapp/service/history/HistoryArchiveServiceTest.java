@@ -0,0 +1,113 @@
+package com.twb.pokerapp.service.history;
+
+import com.twb.pokerapp.domain.enumeration.HandType;
+import com.twb.pokerapp.dto.history.ArchivedHandDTO;
+import com.twb.pokerapp.exception.NotFoundException;
+import com.twb.pokerapp.mapper.CardMapper;
+import com.twb.pokerapp.service.game.CardSet;
+import com.twb.pokerapp.service.game.PackedCards;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mapstruct.factory.Mappers;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoryArchiveServiceTest {
+    private static final YearMonth MONTH = YearMonth.of(2024, 7);
+    private static final UUID ROUND_1 = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID ROUND_2 = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID SESSION_1 = UUID.fromString("00000000-0000-0000-0000-00000000000a");
+    private static final UUID SESSION_2 = UUID.fromString("00000000-0000-0000-0000-00000000000b");
+
+    @TempDir
+    private Path archiveDir;
+
+    private HistoryArchiveService service;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        service = new HistoryArchiveService(Mappers.getMapper(CardMapper.class));
+        ReflectionTestUtils.setField(service, "archiveDir", archiveDir.toString());
+
+        int holeCards = PackedCards.add(PackedCards.add(PackedCards.EMPTY, 51), 0);
+        long bestFive = CardSet.parse("As Ks Qs Js Ts");
+        // as written by COPY ... WITH (FORMAT csv, HEADER) in UTC, an unquoted empty field is null
+        writeArchive(HistoryPartitions.HAND,
+                "id,hand_type,winner,player_session_id,round_id,best_five,hole_cards,round_started_at",
+                "10000000-0000-0000-0000-000000000001,ROYAL_FLUSH,t," + SESSION_1 + "," + ROUND_1 + ","
+                        + bestFive + "," + holeCards + ",2024-07-01 09:30:00.123456+00",
+                "10000000-0000-0000-0000-000000000002,PAIR,f," + SESSION_2 + "," + ROUND_1 + ","
+                        + "," + holeCards + ",2024-07-01 09:30:00.123456+00",
+                "10000000-0000-0000-0000-000000000003,,," + SESSION_1 + "," + ROUND_2 + ","
+                        + "," + PackedCards.EMPTY + ",2024-07-31 23:59:59+00");
+        Files.createDirectories(archiveDir.resolve("not-a-month"));
+    }
+
+    @Test
+    public void testFindByRound() {
+        List<ArchivedHandDTO> hands = service.getHands(MONTH, ROUND_1, null);
+        assertEquals(2, hands.size());
+
+        ArchivedHandDTO winner = hands.getFirst();
+        assertEquals(SESSION_1, winner.getPlayerSessionId());
+        assertEquals(ROUND_1, winner.getRoundId());
+        assertEquals(Instant.parse("2024-07-01T09:30:00.123456Z"), winner.getRoundStartedAt());
+        assertEquals(HandType.ROYAL_FLUSH, winner.getHandType());
+        assertTrue(winner.getWinner());
+        assertEquals(List.of(51, 0), winner.getCards().stream().map(card -> card.getRankValue()).toList());
+        assertEquals(5, winner.getBestFive().size());
+
+        assertFalse(hands.get(1).getWinner());
+        assertTrue(hands.get(1).getBestFive().isEmpty());
+    }
+
+    @Test
+    public void testFindByPlayerSession() {
+        List<ArchivedHandDTO> hands = service.getHands(MONTH, null, SESSION_1);
+        assertEquals(2, hands.size());
+
+        ArchivedHandDTO unfinished = service.getHands(MONTH, ROUND_2, SESSION_1).getFirst();
+        assertNull(unfinished.getHandType());
+        assertNull(unfinished.getWinner());
+        assertTrue(unfinished.getCards().isEmpty());
+
+        assertTrue(service.getHands(MONTH, ROUND_2, SESSION_2).isEmpty());
+    }
+
+    @Test
+    public void testArchivedMonths() {
+        assertEquals(List.of(MONTH), service.getArchivedMonths());
+        assertThrows(IllegalArgumentException.class, () -> service.getHands(MONTH, null, null));
+        assertThrows(NotFoundException.class, () -> service.getHands(MONTH.minusMonths(1), ROUND_1, null));
+    }
+
+    @Test
+    public void testCsvLines() {
+        assertEquals(Arrays.asList("a", null, "", "b,\"c\"", null),
+                HistoryArchiveService.parseCsvLine("a,,\"\",\"b,\"\"c\"\"\","));
+        assertEquals(Instant.parse("2024-07-01T08:30:00Z"),
+                HistoryArchiveService.parseTimestamp("2024-07-01 09:30:00+01"));
+    }
+
+    private void writeArchive(String table, String... lines) throws IOException {
+        Path file = service.archiveFile(MONTH, table);
+        Files.createDirectories(file.getParent());
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write((String.join("\n", lines) + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.twb.pokerapp.service.history;
+
+import liquibase.Contexts;
+import liquibase.LabelExpression;
+import liquibase.Liquibase;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.sql.Connection;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Migrates a Postgres container, with commit timestamps tracked, up to the history partitioning changeSet,
+ * seeds rounds in the old tables, then runs the rest of the changelog and checks where the rounds landed
+ * and that rounds started in a month without a partition are kept in, then moved out of, the DEFAULT partition.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class HistoryPartitionMigrationIT {
+    private static final String DB_IMAGE = "postgres:13.1-alpine";
+    private static final String CHANGELOG = "liquibase/master.xml";
+    private static final int CHANGESETS_BEFORE_PARTITIONING = 16;
+
+    private static final UUID TABLE_ID = UUID.fromString("00000000-0000-0000-0000-000000000001");
+    private static final UUID USER_ID = UUID.fromString("00000000-0000-0000-0000-000000000002");
+    private static final UUID SESSION_ID = UUID.fromString("00000000-0000-0000-0000-000000000003");
+    private static final UUID ROUND_ID = UUID.fromString("00000000-0000-0000-0000-000000000004");
+    private static final UUID ACTION_ID = UUID.fromString("00000000-0000-0000-0000-000000000005");
+    private static final UUID LATE_ROUND_ID = UUID.fromString("00000000-0000-0000-0000-000000000006");
+    private static final UUID LATE_HAND_ID = UUID.fromString("00000000-0000-0000-0000-000000000007");
+
+    private static final PostgreSQLContainer<?> DB_CONTAINER = new PostgreSQLContainer<>(DB_IMAGE)
+            .withCommand("postgres", "-c", "track_commit_timestamp=on");
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private OffsetDateTime actionWrittenAt;
+
+    @BeforeAll
+    public void migrate() throws Exception {
+        DB_CONTAINER.start();
+        dataSource = new DriverManagerDataSource(DB_CONTAINER.getJdbcUrl(), DB_CONTAINER.getUsername(),
+                DB_CONTAINER.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        try (Connection connection = dataSource.getConnection()) {
+            Database database = DatabaseFactory.getInstance()
+                    .findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            Liquibase liquibase = new Liquibase(CHANGELOG, new ClassLoaderResourceAccessor(), database);
+            liquibase.update(CHANGESETS_BEFORE_PARTITIONING, new Contexts(), new LabelExpression());
+
+            // each statement commits on its own, the round is written first and finished last
+            jdbcTemplate.update("INSERT INTO poker_table (id, name, game_type) VALUES (?, 'Table', 'TEXAS_HOLDEM')", TABLE_ID);
+            jdbcTemplate.update("INSERT INTO app_user (id, username, groups) VALUES (?, 'user', '[]'::jsonb)", USER_ID);
+            jdbcTemplate.update("INSERT INTO player_session (id, user_id, poker_table_id, position, session_state, "
+                    + "connection_type) VALUES (?, ?, ?, 1, 'CONNECTED', 'PLAYER')", SESSION_ID, USER_ID, TABLE_ID);
+            jdbcTemplate.update("INSERT INTO round (id, poker_table_id, round_state) VALUES (?, ?, 'DEAL')",
+                    ROUND_ID, TABLE_ID);
+            jdbcTemplate.update("INSERT INTO player_action (id, player_session_id, round_id, round_state, action_type) "
+                    + "VALUES (?, ?, ?, 'DEAL', 'CHECK')", ACTION_ID, SESSION_ID, ROUND_ID);
+            jdbcTemplate.update("UPDATE round SET round_state = 'FINISH' WHERE id = ?", ROUND_ID);
+            actionWrittenAt = jdbcTemplate.queryForObject(
+                    "SELECT pg_xact_commit_timestamp(xmin) FROM player_action WHERE id = ?", OffsetDateTime.class, ACTION_ID);
+
+            liquibase.update(new Contexts(), new LabelExpression());
+        }
+    }
+
+    @AfterAll
+    public void stop() {
+        DB_CONTAINER.stop();
+    }
+
+    @Test
+    public void testRoundsStartAtTheirEarliestWrite() {
+        // the round's own row was last written when it finished, after its action
+        assertEquals(actionWrittenAt.toInstant(), jdbcTemplate.queryForObject(
+                "SELECT started_at FROM round WHERE id = ?", OffsetDateTime.class, ROUND_ID).toInstant());
+        assertEquals(actionWrittenAt.toInstant(), jdbcTemplate.queryForObject(
+                "SELECT round_started_at FROM player_action WHERE id = ?", OffsetDateTime.class, ACTION_ID).toInstant());
+    }
+
+    @Test
+    public void testMigrationCreatesTheNextMonthAndDefaultPartitions() {
+        YearMonth nextMonth = YearMonth.now(ZoneOffset.UTC).plusMonths(1);
+        for (String table : HistoryPartitions.TABLES) {
+            assertTrue(exists(HistoryPartitions.partitionName(table, nextMonth)), table);
+            assertTrue(exists(HistoryPartitions.defaultPartitionName(table)), table);
+        }
+    }
+
+    @Test
+    public void testRoundsInTheDefaultPartitionAreMovedIntoTheirMonth() {
+        YearMonth lateMonth = YearMonth.now(ZoneOffset.UTC).plusMonths(5);
+        Instant startedAt = HistoryPartitions.monthStart(lateMonth).plusSeconds(60);
+        OffsetDateTime startedAtUtc = startedAt.atOffset(ZoneOffset.UTC);
+        jdbcTemplate.update("INSERT INTO round (id, poker_table_id, round_state, started_at) VALUES (?, ?, 'DEAL', ?)",
+                LATE_ROUND_ID, TABLE_ID, startedAtUtc);
+        jdbcTemplate.update("INSERT INTO hand (id, player_session_id, round_id, round_started_at) VALUES (?, ?, ?, ?)",
+                LATE_HAND_ID, SESSION_ID, LATE_ROUND_ID, startedAtUtc);
+        assertEquals(1, count(HistoryPartitions.defaultPartitionName(HistoryPartitions.ROUND)));
+        assertEquals(1, count(HistoryPartitions.defaultPartitionName(HistoryPartitions.HAND)));
+
+        HistoryPartitionService service = new HistoryPartitionService(jdbcTemplate, null);
+        ReflectionTestUtils.setField(service, "partitionsAhead", 2);
+        ReflectionTestUtils.setField(service, "maintenanceIntervalMs", 3_600_000L);
+        ReflectionTestUtils.setField(service, "lockTimeoutMs", 5_000L);
+        service.init();
+        service.destroy();
+
+        assertEquals(0, count(HistoryPartitions.defaultPartitionName(HistoryPartitions.ROUND)));
+        assertEquals(0, count(HistoryPartitions.defaultPartitionName(HistoryPartitions.HAND)));
+        assertEquals(1, count(HistoryPartitions.partitionName(HistoryPartitions.ROUND, lateMonth)));
+        assertEquals(1, count(HistoryPartitions.partitionName(HistoryPartitions.HAND, lateMonth)));
+        assertEquals(LATE_ROUND_ID, jdbcTemplate.queryForObject(
+                "SELECT round_id FROM hand WHERE id = ?", UUID.class, LATE_HAND_ID));
+    }
+
+    // *****************************************************************************************
+    // Helpers
+    // *****************************************************************************************
+
+    private boolean exists(String table) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+
+    private long count(String table) {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Long.class);
+        return count == null ? 0 : count;
+    }
+}
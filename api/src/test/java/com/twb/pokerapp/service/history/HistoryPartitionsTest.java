@@ -0,0 +1,44 @@
+package com.twb.pokerapp.service.history;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistoryPartitionsTest {
+
+    @Test
+    public void testPartitionNames() {
+        YearMonth month = YearMonth.of(2024, 7);
+        for (String table : HistoryPartitions.TABLES) {
+            String partition = HistoryPartitions.partitionName(table, month);
+            assertEquals(Optional.of(month), HistoryPartitions.monthOf(partition));
+            assertEquals(table, HistoryPartitions.tableOf(partition));
+        }
+        assertEquals("player_action_p2024_07", HistoryPartitions.partitionName(HistoryPartitions.PLAYER_ACTION, month));
+        assertThrows(IllegalArgumentException.class, () -> HistoryPartitions.partitionName("poker_table", month));
+
+        assertEquals(Optional.empty(), HistoryPartitions.monthOf("round"));
+        assertEquals(Optional.empty(), HistoryPartitions.monthOf("round_p2024_13"));
+        assertEquals(Optional.empty(), HistoryPartitions.monthOf("player_session_p2024_07"));
+    }
+
+    @Test
+    public void testMonthBoundsAreUtc() {
+        YearMonth month = YearMonth.of(2024, 12);
+        assertEquals(Instant.parse("2024-12-01T00:00:00Z"), HistoryPartitions.monthStart(month));
+        assertEquals(month, HistoryPartitions.monthOf(Instant.parse("2024-12-31T23:59:59.999Z")));
+        assertEquals(month.plusMonths(1), HistoryPartitions.monthOf(Instant.parse("2025-01-01T00:00:00Z")));
+    }
+
+    @Test
+    public void testActiveSinceIsStartOfPreviousMonth() {
+        assertEquals(Instant.parse("2024-06-01T00:00:00Z"),
+                HistoryPartitions.activeSince(Instant.parse("2024-07-01T00:00:00Z")));
+        assertEquals(Instant.parse("2023-12-01T00:00:00Z"),
+                HistoryPartitions.activeSince(Instant.parse("2024-01-31T23:59:59Z")));
+    }
+}
@@ -0,0 +1,40 @@
+package com.twb.pokerapp.simulator;
+
+import com.twb.pokerapp.domain.enumeration.ActionType;
+
+import java.util.SplittableRandom;
+
+/**
+ * Pluggable seat behaviour for simulated tables, chooses one of the actions offered in a player turn.
+ */
+public enum BotStrategy {
+    PASSIVE {
+        @Override
+        public ActionType chooseAction(ActionType[] actions, SplittableRandom random) {
+            return find(actions, ActionType.CHECK, ActionType.CALL, actions[0]);
+        }
+    },
+    AGGRESSIVE {
+        @Override
+        public ActionType chooseAction(ActionType[] actions, SplittableRandom random) {
+            return find(actions, ActionType.BET, ActionType.RAISE, actions[0]);
+        }
+    },
+    RANDOM {
+        @Override
+        public ActionType chooseAction(ActionType[] actions, SplittableRandom random) {
+            return actions[random.nextInt(actions.length)];
+        }
+    };
+
+    public abstract ActionType chooseAction(ActionType[] actions, SplittableRandom random);
+
+    private static ActionType find(ActionType[] actions, ActionType first, ActionType second, ActionType fallback) {
+        for (ActionType action : actions) {
+            if (action == first || action == second) {
+                return action;
+            }
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,257 @@
+package com.twb.pokerapp.simulator;
+
+import ch.qos.logback.classic.Level;
+import com.antkorwin.xsync.XSync;
+import com.twb.pokerapp.configuration.AsyncConfiguration;
+import com.twb.pokerapp.domain.PlayerSession;
+import com.twb.pokerapp.domain.PokerTable;
+import com.twb.pokerapp.domain.enumeration.GameType;
+import com.twb.pokerapp.dto.appuser.AppUserDTO;
+import com.twb.pokerapp.dto.playeraction.PlayerActionDTO;
+import com.twb.pokerapp.dto.playersession.PlayerSessionDTO;
+import com.twb.pokerapp.mapper.CardMapperImpl;
+import com.twb.pokerapp.mapper.PlayerActionMapper;
+import com.twb.pokerapp.mapper.PlayerSessionMapper;
+import com.twb.pokerapp.service.DealerService;
+import com.twb.pokerapp.service.PlayerActionService;
+import com.twb.pokerapp.service.RoundService;
+import com.twb.pokerapp.service.eval.EquityCalculator;
+import com.twb.pokerapp.service.eval.HandEvaluator;
+import com.twb.pokerapp.service.eval.JavaRankEvaluator;
+import com.twb.pokerapp.service.game.DeckPool;
+import com.twb.pokerapp.service.game.thread.GameThread;
+import com.twb.pokerapp.service.game.thread.GameThreadManager;
+import com.twb.pokerapp.service.game.thread.GameThreadParams;
+import com.twb.pokerapp.service.game.thread.impl.OmahaGameThread;
+import com.twb.pokerapp.service.game.thread.impl.TexasHoldemGameThread;
+import com.twb.pokerapp.service.game.timer.TurnTimerService;
+import com.twb.pokerapp.web.websocket.message.server.ServerMessageFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Headless hand simulator, run manually rather than as part of the test suite.
+ * <p>
+ * Runs the real {@link TexasHoldemGameThread} or {@link OmahaGameThread} rules (dealer rotation, dealing, showdown evaluation)
+ * in a bare Spring context where the database, STOMP dispatcher and write-behind persister are
+ * replaced by in-memory ports. Tables use virtual pacing and bots act synchronously on the
+ * game thread, so nothing sleeps or blocks and each table loop runs straight through on a
+ * fork-join worker.
+ * <pre>
+ * java -cp target/test-classes:target/classes:... \
+ *     com.twb.pokerapp.simulator.HandSimulator [tables] [handsPerTable] [seats] [PASSIVE|AGGRESSIVE|RANDOM] [seed] [gameType]
+ * </pre>
+ */
+public class HandSimulator implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(HandSimulator.class);
+
+    private final InMemoryTableStore store = new InMemoryTableStore();
+    private final Map<UUID, SimulatedTable> tables = new ConcurrentHashMap<>();
+    private final AnnotationConfigApplicationContext context;
+    private final GameType gameType;
+
+    public HandSimulator(GameType gameType) {
+        this.gameType = gameType;
+        context = new AnnotationConfigApplicationContext();
+        ConfigurableListableBeanFactory beanFactory = context.getBeanFactory();
+
+        // in-memory ports in place of postgres, STOMP and the write-behind persister
+        beanFactory.registerSingleton("tableRepository", store.tableRepository());
+        beanFactory.registerSingleton("roundRepository", store.roundRepository());
+        beanFactory.registerSingleton("playerSessionRepository", store.playerSessionRepository());
+        beanFactory.registerSingleton("messageDispatcher", new SimulatorMessageDispatcher(tables));
+        beanFactory.registerSingleton("tableStatePersister", new SimulatorTableStatePersister(tables));
+        beanFactory.registerSingleton("tableLeaseService", new SimulatorTableLeaseService());
+
+        // plain beans the game thread uses
+        beanFactory.registerSingleton("uuidMutex", new XSync<UUID>());
+        beanFactory.registerSingleton(AsyncConfiguration.GAME_THREAD_FACTORY, Thread.ofVirtual().factory());
+        beanFactory.registerSingleton(AsyncConfiguration.TABLE_TASK_EXECUTOR, (Executor) Runnable::run); // lookups are in memory
+        beanFactory.registerSingleton("playerSessionMapper", (PlayerSessionMapper) HandSimulator::toDto);
+        beanFactory.registerSingleton("cardMapper", new CardMapperImpl());
+        beanFactory.registerSingleton("meterRegistry", new SimpleMeterRegistry());
+        beanFactory.registerSingleton("roundService", new RoundService(store.roundRepository(), null));
+        beanFactory.registerSingleton("dealerService", new DealerService(store.playerSessionRepository()));
+        beanFactory.registerSingleton("playerActionService",
+                new PlayerActionService((PlayerActionMapper) action -> new PlayerActionDTO()));
+
+        context.register(GameThreadManager.class, TurnTimerService.class, ServerMessageFactory.class,
+                JavaRankEvaluator.class, HandEvaluator.class, EquityCalculator.class, DeckPool.class,
+                TexasHoldemGameThread.class, OmahaGameThread.class);
+        context.refresh();
+    }
+
+    public static void main(String[] args) {
+        int tableCount = args.length >= 1 ? Integer.parseInt(args[0]) : 1000;
+        long handsPerTable = args.length >= 2 ? Long.parseLong(args[1]) : 1000;
+        int seats = args.length >= 3 ? Integer.parseInt(args[2]) : 6;
+        BotStrategy strategy = args.length >= 4 ? BotStrategy.valueOf(args[3]) : BotStrategy.RANDOM;
+        long seed = args.length >= 5 ? Long.parseLong(args[4]) : System.nanoTime();
+        GameType gameType = args.length >= 6 ? GameType.valueOf(args[5]) : GameType.TEXAS_HOLDEM;
+
+        // the game loop logs every action at info and every game end at error,
+        // failed tables are counted in the result instead
+        setLogLevel(Logger.ROOT_LOGGER_NAME, Level.WARN);
+        setLogLevel(GameThread.class.getName(), Level.OFF);
+        setLogLevel(GameThreadManager.class.getName(), Level.OFF);
+
+        try (HandSimulator simulator = new HandSimulator(gameType)) {
+            long start = System.nanoTime();
+            SimulationResult result = simulator.simulate(tableCount, handsPerTable, seats, strategy, seed);
+            long elapsedMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+            System.out.printf("gameType=%s strategy=%s seats=%d seed=%d parallelism=%d%n",
+                    gameType, strategy, seats, seed, ForkJoinPool.commonPool().getParallelism());
+            System.out.print(result);
+            System.out.printf("elapsed=%dms hands/min=%d%n", elapsedMs, result.getHands() * 60_000 / elapsedMs);
+            System.out.printf("deckPoolStarvations=%.0f%n", simulator.context.getBean(SimpleMeterRegistry.class)
+                    .counter("poker.deck.pool.starvations").count());
+        }
+    }
+
+    /**
+     * Simulates the tables in parallel on the common fork-join pool.
+     *
+     * @param tableCount    the number of tables
+     * @param handsPerTable the hands to play on each table before the bots leave
+     * @param seats         the number of bots seated at each table
+     * @param strategy      the bot strategy
+     * @param seed          the root seed, each table derives its own bot random from it
+     * @return the merged result of all tables
+     */
+    public SimulationResult simulate(int tableCount, long handsPerTable, int seats, BotStrategy strategy, long seed) {
+        return ForkJoinPool.commonPool()
+                .invoke(new SimulateTables(0, tableCount, handsPerTable, seats, strategy, seed));
+    }
+
+    /**
+     * Starts a table whose game loop runs on a thread of its own until it is stopped, rather than
+     * to completion on a fork-join worker, so many tables can be held open side by side.
+     *
+     * @param seats         the number of bots seated, 0 leaves the table waiting for players
+     * @param strategy      the bot strategy
+     * @param random        the table's bot random
+     * @param bots          the scheduler the bots act on
+     * @param botDelayMs    how long a bot takes to act once it is their turn
+     * @param threadFactory the factory for the game loop's thread
+     * @return the started table
+     */
+    SimulatedTable startTable(int seats, BotStrategy strategy, SplittableRandom random,
+                              ScheduledExecutorService bots, long botDelayMs, ThreadFactory threadFactory) {
+        PokerTable pokerTable = store.createTable(seats, gameType);
+        SimulatedTable table = new SimulatedTable(pokerTable.getId(), store, strategy, random,
+                Long.MAX_VALUE, bots, botDelayMs);
+        tables.put(pokerTable.getId(), table);
+        table.start(createGameThread(pokerTable), threadFactory);
+        return table;
+    }
+
+    private SimulationResult simulateTable(long handsPerTable, int seats, BotStrategy strategy, SplittableRandom random) {
+        PokerTable pokerTable = store.createTable(seats, gameType);
+        SimulatedTable table = new SimulatedTable(pokerTable.getId(), store, strategy, random, handsPerTable);
+        tables.put(pokerTable.getId(), table);
+        GameThread thread = createGameThread(pokerTable);
+
+        Thread worker = Thread.currentThread();
+        String workerName = worker.getName();
+        try {
+            table.run(thread);
+        } finally {
+            worker.setName(workerName);
+            tables.remove(pokerTable.getId());
+            store.removeTable(pokerTable.getId());
+        }
+        return table.getResult();
+    }
+
+    private GameThread createGameThread(PokerTable pokerTable) {
+        GameThreadParams params = GameThreadParams.builder()
+                .tableId(pokerTable.getId())
+                .gameType(pokerTable.getGameType())
+                .startLatch(new CountDownLatch(1))
+                .build();
+        return pokerTable.getGameType().getGameThread(context, params);
+    }
+
+    @Override
+    public void close() {
+        context.close();
+    }
+
+    private static PlayerSessionDTO toDto(PlayerSession playerSession) {
+        AppUserDTO user = new AppUserDTO();
+        user.setId(playerSession.getUser().getId());
+        user.setUsername(playerSession.getUser().getUsername());
+
+        PlayerSessionDTO dto = new PlayerSessionDTO();
+        dto.setId(playerSession.getId());
+        dto.setUser(user);
+        dto.setPosition(playerSession.getPosition());
+        dto.setDealer(playerSession.getDealer());
+        dto.setFunds(playerSession.getFunds());
+        dto.setSessionState(playerSession.getSessionState());
+        dto.setConnectionType(playerSession.getConnectionType());
+        return dto;
+    }
+
+    static void setLogLevel(String name, Level level) {
+        if (LoggerFactory.getLogger(name) instanceof ch.qos.logback.classic.Logger logbackLogger) {
+            logbackLogger.setLevel(level);
+        } else {
+            logger.warn("Cannot set log level for {}, simulator output may be noisy", name);
+        }
+    }
+
+    /**
+     * Splits the table range in half until a single table is left, each table runs its
+     * game loop to completion on the worker that picks it up.
+     */
+    private class SimulateTables extends RecursiveTask<SimulationResult> {
+        private final int from;
+        private final int to;
+        private final long handsPerTable;
+        private final int seats;
+        private final BotStrategy strategy;
+        private final long seed;
+
+        private SimulateTables(int from, int to, long handsPerTable, int seats, BotStrategy strategy, long seed) {
+            this.from = from;
+            this.to = to;
+            this.handsPerTable = handsPerTable;
+            this.seats = seats;
+            this.strategy = strategy;
+            this.seed = seed;
+        }
+
+        @Override
+        protected SimulationResult compute() {
+            if (to - from <= 0) {
+                return new SimulationResult();
+            }
+            if (to - from == 1) {
+                return simulateTable(handsPerTable, seats, strategy, new SplittableRandom(seed + from));
+            }
+            int middle = (from + to) >>> 1;
+            SimulateTables left = new SimulateTables(from, middle, handsPerTable, seats, strategy, seed);
+            SimulateTables right = new SimulateTables(middle, to, handsPerTable, seats, strategy, seed);
+            left.fork();
+            SimulationResult result = right.compute();
+            return result.merge(left.join());
+        }
+    }
+}
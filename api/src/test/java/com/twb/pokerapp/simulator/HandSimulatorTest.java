@@ -0,0 +1,31 @@
+package com.twb.pokerapp.simulator;
+
+import com.twb.pokerapp.domain.enumeration.GameType;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Smoke test of the {@link HandSimulator}, so the simulator keeps running against the real game threads,
+ * turn timer and persister contract rather than only compiling.
+ */
+class HandSimulatorTest {
+    private static final int TABLES = 2;
+    private static final long HANDS_PER_TABLE = 5;
+    private static final int SEATS = 4;
+    private static final long SEED = 42;
+
+    @ParameterizedTest
+    @EnumSource(value = GameType.class, names = {"TEXAS_HOLDEM", "OMAHA"})
+    public void testTablesFinishAndPersistTheirHands(GameType gameType) {
+        try (HandSimulator simulator = new HandSimulator(gameType)) {
+            SimulationResult result = simulator.simulate(TABLES, HANDS_PER_TABLE, SEATS, BotStrategy.RANDOM, SEED);
+
+            assertEquals(0, result.getFailedTables(), result.toString());
+            assertEquals(TABLES * HANDS_PER_TABLE, result.getHands(), result.toString());
+            assertEquals(TABLES * HANDS_PER_TABLE, result.getPersistedRounds(), result.toString());
+            assertTrue(result.getWinners() >= result.getPersistedRounds(), result.toString());
+        }
+    }
+}
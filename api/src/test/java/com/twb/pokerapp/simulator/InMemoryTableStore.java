@@ -0,0 +1,172 @@
+package com.twb.pokerapp.simulator;
+
+import com.twb.pokerapp.domain.AppUser;
+import com.twb.pokerapp.domain.PlayerSession;
+import com.twb.pokerapp.domain.PokerTable;
+import com.twb.pokerapp.domain.Round;
+import com.twb.pokerapp.domain.enumeration.ConnectionType;
+import com.twb.pokerapp.domain.enumeration.GameType;
+import com.twb.pokerapp.domain.enumeration.PacingPolicy;
+import com.twb.pokerapp.domain.enumeration.RoundState;
+import com.twb.pokerapp.domain.enumeration.SessionState;
+import com.twb.pokerapp.repository.PlayerSessionRepository;
+import com.twb.pokerapp.repository.RoundRepository;
+import com.twb.pokerapp.repository.TableRepository;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * In-memory stand in for Postgres, implements just the repository methods the game thread uses.
+ * <p>
+ * Each table's data is only touched by its own game loop (bots act on the game thread),
+ * so only the table lookup itself needs to be thread-safe.
+ */
+public class InMemoryTableStore {
+    private final Map<UUID, TableData> tables = new ConcurrentHashMap<>();
+    private final Map<UUID, PlayerSession> playerSessions = new ConcurrentHashMap<>();
+
+    // *****************************************************************************************
+    // Table Setup
+    // *****************************************************************************************
+
+    public PokerTable createTable(int seats, GameType gameType) {
+        PokerTable pokerTable = new PokerTable();
+        pokerTable.setId(UUID.randomUUID());
+        pokerTable.setName("Simulated Table");
+        pokerTable.setGameType(gameType);
+        pokerTable.setPacingPolicy(PacingPolicy.VIRTUAL);
+
+        TableData data = new TableData(pokerTable);
+        for (int position = 0; position < seats; position++) {
+            AppUser user = new AppUser();
+            user.setId(UUID.randomUUID());
+            user.setUsername("bot" + position);
+
+            PlayerSession playerSession = new PlayerSession();
+            playerSession.setId(UUID.randomUUID());
+            playerSession.setUser(user);
+            playerSession.setPokerTable(pokerTable);
+            playerSession.setPosition(position);
+            playerSession.setDealer(false);
+            playerSession.setCurrent(false);
+            playerSession.setFunds(1000d);
+            playerSession.setSessionState(SessionState.CONNECTED);
+            playerSession.setConnectionType(ConnectionType.PLAYER);
+            data.playerSessions.add(playerSession);
+            playerSessions.put(playerSession.getId(), playerSession);
+        }
+        tables.put(pokerTable.getId(), data);
+        return pokerTable;
+    }
+
+    public void disconnectAll(UUID tableId) {
+        for (PlayerSession playerSession : get(tableId).playerSessions) {
+            playerSession.setSessionState(SessionState.DISCONNECTED);
+        }
+    }
+
+    public void removeTable(UUID tableId) {
+        TableData data = tables.remove(tableId);
+        if (data != null) {
+            data.playerSessions.forEach(session -> playerSessions.remove(session.getId()));
+        }
+    }
+
+    private TableData get(UUID tableId) {
+        TableData data = tables.get(tableId);
+        if (data == null) {
+            throw new IllegalStateException("No simulated table " + tableId);
+        }
+        return data;
+    }
+
+    // *****************************************************************************************
+    // Repository Ports
+    // *****************************************************************************************
+
+    public TableRepository tableRepository() {
+        return repository(TableRepository.class, Map.of(
+                "findById", args -> Optional.ofNullable(tables.get((UUID) args[0]))
+                        .map(data -> data.pokerTable)));
+    }
+
+    public RoundRepository roundRepository() {
+        Function<Object[], Object> save = args -> {
+            Round round = (Round) args[0];
+            if (round.getId() == null) {
+                round.setId(UUID.randomUUID());
+            }
+            get(round.getPokerTable().getId()).currentRound = round;
+            return round;
+        };
+        return repository(RoundRepository.class, Map.of(
+                "save", save,
+                "saveAndFlush", save,
+                "findCurrentByTableId", args -> Optional.ofNullable(get((UUID) args[0]).currentRound)
+                        .filter(round -> round.getRoundState() != RoundState.FINISH)));
+    }
+
+    public PlayerSessionRepository playerSessionRepository() {
+        Function<Object[], Object> findConnectedPlayers = args -> get((UUID) args[0]).playerSessions.stream()
+                .filter(session -> session.getSessionState() == SessionState.CONNECTED)
+                .filter(session -> session.getConnectionType() == ConnectionType.PLAYER)
+                .sorted(Comparator.comparing(PlayerSession::getPosition))
+                .toList();
+        return repository(PlayerSessionRepository.class, Map.of(
+                "findConnectedPlayersByTableId", findConnectedPlayers,
+                "findConnectedPlayersByTableIdNoLock", findConnectedPlayers,
+                "findConnectedListenerUsernamesByTableId", args -> get((UUID) args[0]).playerSessions.stream()
+                        .filter(session -> session.getSessionState() == SessionState.CONNECTED)
+                        .filter(session -> session.getConnectionType() == ConnectionType.LISTENER)
+                        .map(session -> session.getUser().getUsername())
+                        .toList(),
+                "findByTableIdAndUsername", args -> get((UUID) args[0]).playerSessions.stream()
+                        .filter(session -> session.getUser().getUsername().equals(args[1]))
+                        .findFirst(),
+                "resetDealerForTableId", args -> {
+                    get((UUID) args[0]).playerSessions.forEach(session -> session.setDealer(false));
+                    return null;
+                },
+                "setDealer", args -> {
+                    playerSessions.get((UUID) args[0]).setDealer(true);
+                    return null;
+                }));
+    }
+
+    /**
+     * Creates a repository proxy that serves the given methods and rejects anything else,
+     * so a game thread change that needs a new query fails loudly in the simulator.
+     */
+    private static <R> R repository(Class<R> type, Map<String, Function<Object[], Object>> methods) {
+        InvocationHandler handler = (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> "InMemory" + type.getSimpleName();
+                };
+            }
+            Function<Object[], Object> function = methods.get(method.getName());
+            if (function == null) {
+                throw new UnsupportedOperationException(type.getSimpleName() + "." + method.getName()
+                        + " is not supported by the simulator");
+            }
+            return function.apply(args);
+        };
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler));
+    }
+
+    private static class TableData {
+        private final PokerTable pokerTable;
+        private final List<PlayerSession> playerSessions = new ArrayList<>();
+        private Round currentRound;
+
+        private TableData(PokerTable pokerTable) {
+            this.pokerTable = pokerTable;
+        }
+    }
+}
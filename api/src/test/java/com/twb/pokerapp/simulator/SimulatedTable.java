@@ -0,0 +1,140 @@
+package com.twb.pokerapp.simulator;
+
+import com.twb.pokerapp.domain.Hand;
+import com.twb.pokerapp.domain.Round;
+import com.twb.pokerapp.domain.enumeration.ActionType;
+import com.twb.pokerapp.domain.enumeration.HandType;
+import com.twb.pokerapp.domain.enumeration.RoundState;
+import com.twb.pokerapp.service.game.thread.GameThread;
+import com.twb.pokerapp.web.websocket.message.client.CreatePlayerActionDTO;
+import com.twb.pokerapp.web.websocket.message.server.ServerMessageDTO;
+import com.twb.pokerapp.web.websocket.message.server.payload.PlayerTurnDTO;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One simulated table, receives the game thread's outbound messages and writes, which only count
+ * once the game thread flushes them, and drives the bots, either synchronously on the game thread or after a delay
+ * on a bot scheduler so the game loop waits on its inbox as it does for people.
+ */
+class SimulatedTable {
+    private final UUID tableId;
+    private final InMemoryTableStore store;
+    private final BotStrategy strategy;
+    private final SplittableRandom random;
+    private final long targetHands;
+    private final ScheduledExecutorService bots;
+    private final long botDelayMs;
+    private final SimulationResult result = new SimulationResult();
+    private final AtomicLong hands = new AtomicLong();
+    private final List<Runnable> pendingWrites = new ArrayList<>();
+    private final Set<UUID> persistedRounds = new HashSet<>();
+    private GameThread thread;
+    private Thread runner;
+
+    SimulatedTable(UUID tableId, InMemoryTableStore store, BotStrategy strategy,
+                   SplittableRandom random, long targetHands) {
+        this(tableId, store, strategy, random, targetHands, null, 0);
+    }
+
+    SimulatedTable(UUID tableId, InMemoryTableStore store, BotStrategy strategy,
+                   SplittableRandom random, long targetHands, ScheduledExecutorService bots, long botDelayMs) {
+        this.tableId = tableId;
+        this.store = store;
+        this.strategy = strategy;
+        this.random = random;
+        this.targetHands = targetHands;
+        this.bots = bots;
+        this.botDelayMs = botDelayMs;
+    }
+
+    void run(GameThread thread) {
+        this.thread = thread;
+        thread.run();
+        result.onTableFinished(hands.get(), targetHands, persistedRounds.size());
+    }
+
+    /**
+     * Runs the game loop on a thread from the factory instead of the caller's.
+     */
+    void start(GameThread thread, ThreadFactory threadFactory) {
+        this.thread = thread;
+        runner = threadFactory.newThread(() -> run(thread));
+        runner.start();
+    }
+
+    /**
+     * Interrupts a started table's game and waits for its loop to finish.
+     */
+    void stop() throws InterruptedException {
+        thread.interrupt();
+        runner.join();
+    }
+
+    long getHands() {
+        return hands.get();
+    }
+
+    void onMessage(ServerMessageDTO message) {
+        switch (message.getType()) {
+            case PLAYER_TURN -> onPlayerTurn((PlayerTurnDTO) message.getPayload());
+            case ROUND_FINISHED -> onRoundFinished();
+            default -> {
+                // bots only care about their turn
+            }
+        }
+    }
+
+    void onWrite(Object entity) {
+        // what was written is taken now, the game thread keeps changing its entities after writing them
+        if (entity instanceof Round round && round.getRoundState() == RoundState.FINISH) {
+            UUID roundId = round.getId();
+            pendingWrites.add(() -> persistedRounds.add(roundId));
+        } else if (entity instanceof Hand hand && Boolean.TRUE.equals(hand.getWinner())) {
+            HandType handType = hand.getHandType();
+            pendingWrites.add(() -> result.onWinner(handType));
+        }
+    }
+
+    void onFlush() {
+        pendingWrites.forEach(Runnable::run);
+        pendingWrites.clear();
+    }
+
+    SimulationResult getResult() {
+        return result;
+    }
+
+    private void onPlayerTurn(PlayerTurnDTO playerTurn) {
+        ActionType action = strategy.chooseAction(playerTurn.getActions(), random);
+        CreatePlayerActionDTO createDto = new CreatePlayerActionDTO();
+        createDto.setAction(action);
+        result.onAction();
+        String username = playerTurn.getPlayerSession().getUser().getUsername();
+        if (bots == null) {
+            thread.playerAction(username, createDto);
+        } else {
+            GameThread gameThread = thread;
+            ScheduledFuture<?> unused =
+                    bots.schedule(() -> gameThread.playerAction(username, createDto), botDelayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void onRoundFinished() {
+        if (hands.incrementAndGet() >= targetHands) {
+            // all the bots leave which ends the game the same way it ends in production
+            store.disconnectAll(tableId);
+            thread.onPlayersChanged();
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.twb.pokerapp.simulator;
+
+import com.twb.pokerapp.domain.enumeration.HandType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Counters for one or more simulated tables, merged up the fork-join tree.
+ */
+public class SimulationResult {
+    private long tables;
+    private long failedTables;
+    private long hands;
+    private long persistedRounds;
+    private long actions;
+    private long uncontestedWins;
+    private final Map<HandType, Long> winningHandTypes = new EnumMap<>(HandType.class);
+
+    void onTableFinished(long tableHands, long targetHands, long tablePersistedRounds) {
+        tables++;
+        if (tableHands < targetHands) {
+            failedTables++;
+        }
+        hands += tableHands;
+        persistedRounds += tablePersistedRounds;
+    }
+
+    void onAction() {
+        actions++;
+    }
+
+    void onWinner(HandType handType) {
+        if (handType == null) {
+            uncontestedWins++;
+        } else {
+            winningHandTypes.merge(handType, 1L, Long::sum);
+        }
+    }
+
+    SimulationResult merge(SimulationResult other) {
+        tables += other.tables;
+        failedTables += other.failedTables;
+        hands += other.hands;
+        persistedRounds += other.persistedRounds;
+        actions += other.actions;
+        uncontestedWins += other.uncontestedWins;
+        other.winningHandTypes.forEach((handType, count) -> winningHandTypes.merge(handType, count, Long::sum));
+        return this;
+    }
+
+    public long getHands() {
+        return hands;
+    }
+
+    public long getFailedTables() {
+        return failedTables;
+    }
+
+    public long getPersistedRounds() {
+        return persistedRounds;
+    }
+
+    public long getWinners() {
+        return uncontestedWins + winningHandTypes.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("tables=%d failed=%d hands=%d persistedRounds=%d actions=%d%n",
+                tables, failedTables, hands, persistedRounds, actions));
+        sb.append(String.format("  %-16s %10d%n", "Uncontested", uncontestedWins));
+        for (HandType handType : HandType.values()) {
+            Long count = winningHandTypes.get(handType);
+            if (count != null) {
+                sb.append(String.format("  %-16s %10d%n", handType.getValue(), count));
+            }
+        }
+        return sb.toString();
+    }
+}
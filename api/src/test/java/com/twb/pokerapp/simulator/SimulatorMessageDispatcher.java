@@ -0,0 +1,32 @@
+package com.twb.pokerapp.simulator;
+
+import com.twb.pokerapp.web.websocket.message.MessageDispatcher;
+import com.twb.pokerapp.web.websocket.message.server.ServerMessageDTO;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Dispatcher port that hands messages straight to the simulated table instead of serialising them onto STOMP.
+ */
+class SimulatorMessageDispatcher extends MessageDispatcher {
+    private final Map<UUID, SimulatedTable> tables;
+
+    SimulatorMessageDispatcher(Map<UUID, SimulatedTable> tables) {
+        super(null, null);
+        this.tables = tables;
+    }
+
+    @Override
+    public void send(UUID tableId, ServerMessageDTO message) {
+        SimulatedTable table = tables.get(tableId);
+        if (table != null) {
+            table.onMessage(message);
+        }
+    }
+
+    @Override
+    public void send(UUID tableId, String username, ServerMessageDTO message) {
+        send(tableId, message);
+    }
+}
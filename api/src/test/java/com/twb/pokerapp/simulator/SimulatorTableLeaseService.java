@@ -0,0 +1,29 @@
+package com.twb.pokerapp.simulator;
+
+import com.twb.pokerapp.service.game.cluster.TableLeaseService;
+
+import java.util.UUID;
+
+/**
+ * Lease port for a single simulated node, every table is always held.
+ */
+class SimulatorTableLeaseService extends TableLeaseService {
+
+    SimulatorTableLeaseService() {
+        super(null, null);
+    }
+
+    @Override
+    public boolean tryAcquire(UUID tableId) {
+        return true;
+    }
+
+    @Override
+    public void release(UUID tableId) {
+    }
+
+    @Override
+    public boolean holdsLease(UUID tableId) {
+        return true;
+    }
+}
@@ -0,0 +1,49 @@
+package com.twb.pokerapp.simulator;
+
+import com.twb.pokerapp.domain.enumeration.RoundState;
+import com.twb.pokerapp.service.game.state.TableStatePersister;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Persister port that hands writes to their simulated table instead of the database. Writes are
+ * persisted, i.e. counted by the table, when the game thread flushes them: at a FINISH checkpoint,
+ * the default checkpoint, or on an explicit flush or close.
+ */
+class SimulatorTableStatePersister extends TableStatePersister {
+    private final Map<UUID, SimulatedTable> tables;
+
+    SimulatorTableStatePersister(Map<UUID, SimulatedTable> tables) {
+        super(null, null, null);
+        this.tables = tables;
+    }
+
+    @Override
+    public void write(UUID tableId, Object entity) {
+        SimulatedTable table = tables.get(tableId);
+        if (table != null) {
+            table.onWrite(entity);
+        }
+    }
+
+    @Override
+    public void checkpoint(UUID tableId, RoundState roundState) {
+        if (roundState == RoundState.FINISH) {
+            flush(tableId);
+        }
+    }
+
+    @Override
+    public void flush(UUID tableId) {
+        SimulatedTable table = tables.get(tableId);
+        if (table != null) {
+            table.onFlush();
+        }
+    }
+
+    @Override
+    public void close(UUID tableId) {
+        flush(tableId);
+    }
+}
@@ -0,0 +1,124 @@
+package com.twb.pokerapp.simulator;
+
+import ch.qos.logback.classic.Level;
+import com.twb.pokerapp.configuration.AsyncConfiguration;
+import com.twb.pokerapp.domain.enumeration.GameType;
+import com.twb.pokerapp.service.game.thread.GameThread;
+import com.twb.pokerapp.service.game.thread.GameThreadManager;
+import com.twb.pokerapp.service.game.thread.impl.TexasHoldemGameThread;
+import org.slf4j.Logger;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Table capacity benchmark, run manually rather than as part of the test suite.
+ * <p>
+ * Starts real {@link TexasHoldemGameThread} game loops against the {@link HandSimulator}'s in-memory
+ * ports, each on a thread from the production {@code gameThreadFactory} so platform threads (before)
+ * can be compared with virtual threads (after). Idle tables have nobody seated and wait for players to
+ * join, hibernation is switched off so they stay open. Active tables seat bots which act
+ * {@code botDelayMs} after their turn, so between turns the game loop waits on its inbox and the turn
+ * timer as it does for people, deal and showdown pauses are skipped by VIRTUAL pacing. Tables are added
+ * until the target is reached or the JVM can no longer create them, and the start time, memory and
+ * hands played are reported at each step.
+ * <pre>
+ * java -Xmx512m -cp target/test-classes:target/classes:... \
+ *     com.twb.pokerapp.simulator.TableCapacityBenchmark [platform|virtual] [idle|active] [maxTables] [step] [seats] [botDelayMs]
+ * </pre>
+ */
+public class TableCapacityBenchmark {
+    private static final long SEED = 42;
+
+    public static void main(String[] args) throws Exception {
+        boolean virtual = args.length < 1 || "virtual".equalsIgnoreCase(args[0]);
+        boolean active = args.length >= 2 && "active".equalsIgnoreCase(args[1]);
+        int maxTables = args.length >= 3 ? Integer.parseInt(args[2]) : 10_000;
+        int step = args.length >= 4 ? Integer.parseInt(args[3]) : 1_000;
+        int seats = active ? (args.length >= 5 ? Integer.parseInt(args[4]) : 6) : 0;
+        long botDelayMs = args.length >= 6 ? Long.parseLong(args[5]) : 1000;
+
+        // idle tables would otherwise hibernate and end their game loop
+        System.setProperty("app.game.hibernate-after-ms", "0");
+        HandSimulator.setLogLevel(Logger.ROOT_LOGGER_NAME, Level.WARN);
+        HandSimulator.setLogLevel(GameThread.class.getName(), Level.OFF);
+        HandSimulator.setLogLevel(GameThreadManager.class.getName(), Level.OFF);
+
+        AsyncConfiguration asyncConfiguration = new AsyncConfiguration();
+        ReflectionTestUtils.setField(asyncConfiguration, "gameVirtualThreads", virtual);
+        ThreadFactory threadFactory = asyncConfiguration.gameThreadFactory();
+
+        System.out.printf("mode=%s tables=%s max=%d step=%d seats=%d botDelay=%dms%n", virtual ? "virtual" : "platform",
+                active ? "active" : "idle", maxTables, step, seats, botDelayMs);
+        System.out.printf("%10s %12s %12s %14s %12s %12s%n",
+                "tables", "heap(MB)", "rss(MB)", "rss/table(KB)", "start(ms)", "hands");
+
+        ScheduledExecutorService bots = Executors.newScheduledThreadPool(
+                Runtime.getRuntime().availableProcessors(), Thread.ofPlatform().name("bot-", 0).daemon().factory());
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<SimulatedTable> tables = new ArrayList<>(maxTables);
+        try (HandSimulator simulator = new HandSimulator(GameType.TEXAS_HOLDEM)) {
+            long baselineRss = getResidentBytes();
+            try {
+                while (tables.size() < maxTables) {
+                    long start = System.nanoTime();
+                    int target = Math.min(maxTables, tables.size() + step);
+                    while (tables.size() < target) {
+                        tables.add(simulator.startTable(seats, BotStrategy.RANDOM, random.split(),
+                                bots, botDelayMs, threadFactory));
+                    }
+                    long startMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    report(tables, baselineRss, startMs);
+                }
+                if (active) {
+                    // let the last step play a few hands
+                    TimeUnit.MILLISECONDS.sleep(seats * botDelayMs * 4);
+                    report(tables, baselineRss, 0);
+                }
+            } catch (Throwable e) {
+                System.out.printf("FAILED after %d tables: %s%n", tables.size(), e);
+            } finally {
+                for (SimulatedTable table : tables) {
+                    table.stop();
+                }
+                bots.shutdownNow();
+            }
+        }
+    }
+
+    private static void report(List<SimulatedTable> tables, long baselineRss, long startMs) throws IOException {
+        System.gc();
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long heapBytes = memory.getHeapMemoryUsage().getUsed();
+        long rssBytes = getResidentBytes();
+        long perTableKb = (rssBytes - baselineRss) / 1024 / tables.size();
+        long hands = tables.stream().mapToLong(SimulatedTable::getHands).sum();
+        System.out.printf("%10d %12d %12d %14d %12d %12d%n", tables.size(),
+                heapBytes / 1024 / 1024, rssBytes / 1024 / 1024, perTableKb, startMs, hands);
+    }
+
+    private static long getResidentBytes() throws IOException {
+        Path status = Path.of("/proc/self/status");
+        if (!Files.exists(status)) {
+            return 0;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                String kb = line.replaceAll("[^0-9]", "");
+                return Long.parseLong(kb) * 1024;
+            }
+        }
+        return 0;
+    }
+}
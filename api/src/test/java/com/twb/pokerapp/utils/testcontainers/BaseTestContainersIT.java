@@ -1,5 +1,6 @@
 package com.twb.pokerapp.utils.testcontainers;
 
+import com.twb.pokerapp.domain.enumeration.PacingPolicy;
 import com.twb.pokerapp.utils.keycloak.KeycloakClients;
 import dasniko.testcontainers.keycloak.KeycloakContainer;
 import org.junit.jupiter.api.AfterAll;
@@ -39,6 +40,7 @@ public abstract class BaseTestContainersIT {
     private static final String API_IMAGE_VERSION = "latest";
     private static final String API_SERVICE = "api";
     private static final String KEYCLOAK_SERVER_URL_KEY = "KEYCLOAK_SERVER_URL";
+    private static final String GAME_PACING_KEY = "APP_GAME_PACING";
     private static final int API_PORT = 8081;
     private static final int API_DEBUG_PORT = 5005;
 
@@ -66,6 +68,7 @@ public abstract class BaseTestContainersIT {
     private static final GenericContainer<?> API_CONTAINER =
             new GenericContainer<>(API_IMAGE_NAME + ":" + API_IMAGE_VERSION)
                     .withEnv(KEYCLOAK_SERVER_URL_KEY, KEYCLOAK_SERVER_URL)
+                    .withEnv(GAME_PACING_KEY, PacingPolicy.VIRTUAL.name())
                     .withExposedPorts(API_PORT)
                     .withLogConsumer(new Slf4jLogConsumer(logger).withPrefix(API_SERVICE))
                     .withNetwork(NETWORK)